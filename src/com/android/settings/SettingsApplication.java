@@ -31,6 +31,8 @@ import androidx.annotation.Nullable;
 
 import com.android.settings.activityembedding.ActivityEmbeddingRulesController;
 import com.android.settings.activityembedding.ActivityEmbeddingUtils;
+import com.android.settings.applications.AppIconLabelCache;
+import com.android.settings.applications.ProcStatsData;
 import com.android.settings.biometrics.fingerprint2.BiometricsEnvironment;
 import com.android.settings.core.instrumentation.ElapsedTimeUtils;
 import com.android.settings.development.DeveloperOptionsActivityLifecycle;
@@ -168,6 +170,8 @@ public class SettingsApplication extends Application {
     public void onTrimMemory(int level) {
         super.onTrimMemory(level);
         AppIconCacheManager.getInstance().trimMemory(level);
+        AppIconLabelCache.onTrimMemory(level);
+        ProcStatsData.onTrimMemory(level);
     }
 
     private class DeviceProvisionedObserver extends ContentObserver {
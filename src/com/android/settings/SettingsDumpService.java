@@ -36,9 +36,14 @@ import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
 
+import com.android.settings.applications.AppIconLabelCache;
 import com.android.settings.applications.ProcStatsData;
+import com.android.settings.core.PreferenceControllerRegistry;
+import com.android.settings.core.instrumentation.SettingsMetricsFeatureProvider;
 import com.android.settings.datausage.lib.DataUsageLib;
 import com.android.settings.network.MobileNetworkRepository;
+import com.android.settings.overlay.FeatureFactory;
+import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 import com.android.settingslib.net.DataUsageController;
 
 import org.json.JSONArray;
@@ -67,6 +72,12 @@ public class SettingsDumpService extends Service {
     @VisibleForTesting
     static final String KEY_ANOMALY_DETECTION = "anomaly_detection";
     @VisibleForTesting
+    static final String KEY_CONTROLLER_REFLECTION = "controller_reflection";
+    @VisibleForTesting
+    static final String KEY_PAGE_TIMINGS = "page_timings";
+    @VisibleForTesting
+    static final String KEY_APP_ICON_CACHE = "app_icon_cache";
+    @VisibleForTesting
     static final Intent BROWSER_INTENT =
             new Intent("android.intent.action.VIEW", Uri.parse("http://"));
 
@@ -98,6 +109,10 @@ public class SettingsDumpService extends Service {
                 dump.put(KEY_DATAUSAGE, dumpDataUsage());
                 dump.put(KEY_MEMORY, dumpMemory());
                 dump.put(KEY_DEFAULT_BROWSER_APP, dumpDefaultBrowser());
+                dump.put(KEY_CONTROLLER_REFLECTION,
+                        PreferenceControllerRegistry.dumpReflectiveFallbacks());
+                dump.put(KEY_PAGE_TIMINGS, dumpPageTimings());
+                dump.put(KEY_APP_ICON_CACHE, AppIconLabelCache.dumpInstance());
             } catch (Exception e) {
                 Log.w(TAG, "exception in dump: ", e);
             }
@@ -109,6 +124,15 @@ public class SettingsDumpService extends Service {
         }
     }
 
+    private JSONObject dumpPageTimings() throws JSONException {
+        final MetricsFeatureProvider metricsFeatureProvider =
+                FeatureFactory.getFeatureFactory().getMetricsFeatureProvider();
+        if (metricsFeatureProvider instanceof SettingsMetricsFeatureProvider settingsProvider) {
+            return settingsProvider.getPageLoadTimings().dump();
+        }
+        return new JSONObject();
+    }
+
     private JSONObject dumpMemory() throws JSONException {
         JSONObject obj = new JSONObject();
         ProcStatsData statsManager = new ProcStatsData(this, false);
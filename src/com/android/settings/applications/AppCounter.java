@@ -32,12 +32,14 @@ import androidx.annotation.VisibleForTesting;
 import com.android.settings.flags.Flags;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
 
     protected final PackageManager mPm;
     protected final UserManager mUm;
     protected final FeatureFlags mFf;
+    private final InstalledAppsSnapshot mSnapshot;
 
     @VisibleForTesting
     AppCounter(@NonNull Context context, @NonNull PackageManager packageManager,
@@ -45,6 +47,7 @@ public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
         mPm = packageManager;
         mUm = context.getSystemService(UserManager.class);
         mFf = featureFlags;
+        mSnapshot = InstalledAppsSnapshot.getInstance(context);
     }
 
     public AppCounter(@NonNull Context context, @NonNull PackageManager packageManager) {
@@ -59,9 +62,11 @@ public abstract class AppCounter extends AsyncTask<Void, Void, Integer> {
                     | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
                     | (isArchivingEnabled() ? PackageManager.MATCH_ARCHIVED_PACKAGES : 0)
                     | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0);
-            ApplicationInfoFlags infoFlags = ApplicationInfoFlags.of(flags);
-            final List<ApplicationInfo> list =
-                    mPm.getInstalledApplicationsAsUser(infoFlags, user.id);
+            final Supplier<List<ApplicationInfo>> loader = () ->
+                    mPm.getInstalledApplicationsAsUser(ApplicationInfoFlags.of(flags), user.id);
+            final List<ApplicationInfo> list = mSnapshot != null
+                    ? mSnapshot.getInstalledApplicationsAsUser(user.id, flags, loader)
+                    : loader.get();
             for (ApplicationInfo info : list) {
                 if (includeInCount(info)) {
                     count++;
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import android.content.BroadcastReceiver;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.ComponentInfo;
+import android.content.pm.PackageItemInfo;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.LocaleList;
+import android.os.Process;
+import android.os.UserHandle;
+import android.util.IconDrawableFactory;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Objects;
+
+/**
+ * Process-wide cache of the badged icons and labels of apps, shared by the app lists of Settings
+ * so a package's icon is decoded once per session.
+ *
+ * <p>Both are kept in LRU caches keyed by package, user and version code; icons also by icon
+ * resource and display density, and bounded by their size in bytes. Unlike the
+ * {@code AppIconCacheManager} of SettingsLib, the cache isn't released when a page is destroyed.
+ * The entries of a package are dropped on its package broadcasts, and all entries on trim-memory
+ * callbacks.
+ */
+public class AppIconLabelCache {
+
+    private static final String DATA_SCHEME_PKG = "package";
+    private static final int MAX_LABELS = 500;
+    private static final int MAX_ICON_BYTES =
+            (int) Math.min(Runtime.getRuntime().maxMemory() / 32, Integer.MAX_VALUE);
+
+    private static AppIconLabelCache sInstance;
+
+    private final Context mContext;
+    private final IconDrawableFactory mIconDrawableFactory;
+    private final LruCache<Key, CharSequence> mLabels = new LruCache<>(MAX_LABELS);
+    private final LruCache<IconKey, IconEntry> mIcons = new LruCache<IconKey, IconEntry>(
+            MAX_ICON_BYTES) {
+        @Override
+        protected int sizeOf(IconKey key, IconEntry entry) {
+            return entry.mByteCount;
+        }
+    };
+    // Labels are localized, so they are dropped when the locales change.
+    private LocaleList mLabelLocales;
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Uri data = intent.getData();
+            final String packageName = data != null ? data.getSchemeSpecificPart() : null;
+            if (packageName != null) {
+                evict(packageName, intent.getIntExtra(Intent.EXTRA_UID, Process.INVALID_UID));
+            }
+        }
+    };
+
+    /** Returns the cache of the process. */
+    public static synchronized AppIconLabelCache getInstance(Context context) {
+        final Context appContext = context.getApplicationContext();
+        if (sInstance == null || sInstance.mContext != appContext) {
+            if (sInstance != null) {
+                sInstance.stopWatching();
+            }
+            sInstance = new AppIconLabelCache(appContext);
+            sInstance.startWatching();
+        }
+        return sInstance;
+    }
+
+    /** Forwards a trim-memory callback to the cache, if it was created. */
+    public static void onTrimMemory(int level) {
+        final AppIconLabelCache cache;
+        synchronized (AppIconLabelCache.class) {
+            cache = sInstance;
+        }
+        if (cache != null) {
+            cache.trimMemory(level);
+        }
+    }
+
+    /** Returns the hit rates of the cache, if it was created. */
+    public static JSONObject dumpInstance() throws JSONException {
+        final AppIconLabelCache cache;
+        synchronized (AppIconLabelCache.class) {
+            cache = sInstance;
+        }
+        return cache != null ? cache.dump() : new JSONObject();
+    }
+
+    @VisibleForTesting
+    AppIconLabelCache(Context context) {
+        mContext = context;
+        mIconDrawableFactory = IconDrawableFactory.newInstance(context);
+    }
+
+    /**
+     * Returns the icon of {@param info}, badged for its user. Decodes the icon on a miss, so
+     * prefer calling it off the main thread.
+     */
+    @Nullable
+    public Drawable getBadgedIcon(@NonNull ApplicationInfo info) {
+        return getBadgedIcon(info, UserHandle.getUserId(info.uid));
+    }
+
+    /**
+     * Returns the icon of {@param info}, an application or one of its components, badged for
+     * {@param userId}. Decodes the icon on a miss, so prefer calling it off the main thread.
+     */
+    @Nullable
+    public Drawable getBadgedIcon(@NonNull PackageItemInfo info, int userId) {
+        final ApplicationInfo appInfo = info instanceof ApplicationInfo
+                ? (ApplicationInfo) info
+                : info instanceof ComponentInfo ? ((ComponentInfo) info).applicationInfo : null;
+        final IconKey key = new IconKey(info, appInfo, userId,
+                mContext.getResources().getDisplayMetrics().densityDpi);
+        final IconEntry entry = mIcons.get(key);
+        if (entry != null) {
+            return entry.mState.newDrawable(mContext.getResources());
+        }
+        final Drawable icon = mIconDrawableFactory.getBadgedIcon(info, appInfo, userId);
+        final Drawable.ConstantState state = icon != null ? icon.getConstantState() : null;
+        if (state != null) {
+            mIcons.put(key, new IconEntry(state, getByteCount(icon)));
+        }
+        return icon;
+    }
+
+    /** Returns the label of {@param info} in the current locales. */
+    @NonNull
+    public CharSequence getLabel(@NonNull ApplicationInfo info) {
+        final LocaleList locales = mContext.getResources().getConfiguration().getLocales();
+        synchronized (mLabels) {
+            if (!locales.equals(mLabelLocales)) {
+                mLabels.evictAll();
+                mLabelLocales = locales;
+            }
+        }
+        final Key key = new Key(info);
+        CharSequence label = mLabels.get(key);
+        if (label == null) {
+            label = info.loadLabel(mContext.getPackageManager());
+            mLabels.put(key, label);
+        }
+        return label;
+    }
+
+    /** Drops the entries of {@param packageName}, for the user of {@param uid} if it is known. */
+    @VisibleForTesting
+    void evict(String packageName, int uid) {
+        final int userId = uid != Process.INVALID_UID
+                ? UserHandle.getUserId(uid) : UserHandle.USER_ALL;
+        for (Key key : mLabels.snapshot().keySet()) {
+            if (matches(key.mPackageName, key.mUserId, packageName, userId)) {
+                mLabels.remove(key);
+            }
+        }
+        for (IconKey key : mIcons.snapshot().keySet()) {
+            if (matches(key.mPackageName, key.mUserId, packageName, userId)) {
+                mIcons.remove(key);
+            }
+        }
+    }
+
+    private static boolean matches(String packageName, int userId, String evictedPackageName,
+            int evictedUserId) {
+        return packageName.equals(evictedPackageName)
+                && (evictedUserId == UserHandle.USER_ALL || userId == evictedUserId);
+    }
+
+    @VisibleForTesting
+    void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            mLabels.evictAll();
+            mIcons.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            mIcons.trimToSize(mIcons.maxSize() / 2);
+        }
+    }
+
+    @VisibleForTesting
+    JSONObject dump() throws JSONException {
+        final JSONObject obj = new JSONObject();
+        obj.put("label_hits", mLabels.hitCount());
+        obj.put("label_misses", mLabels.missCount());
+        obj.put("label_entries", mLabels.size());
+        obj.put("icon_hits", mIcons.hitCount());
+        obj.put("icon_misses", mIcons.missCount());
+        obj.put("icon_entries", mIcons.snapshot().size());
+        obj.put("icon_bytes", mIcons.size());
+        obj.put("icon_max_bytes", mIcons.maxSize());
+        return obj;
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        if (sInstance != null) {
+            sInstance.stopWatching();
+        }
+        sInstance = null;
+    }
+
+    private void startWatching() {
+        final IntentFilter packageFilter = new IntentFilter(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        packageFilter.addDataScheme(DATA_SCHEME_PKG);
+        mContext.registerReceiverAsUser(mPackageReceiver, UserHandle.ALL, packageFilter,
+                null /* broadcastPermission */, null /* scheduler */);
+    }
+
+    private void stopWatching() {
+        mContext.unregisterReceiver(mPackageReceiver);
+    }
+
+    /** Returns the memory held by {@param icon}, estimated from its size if not a bitmap. */
+    private static int getByteCount(Drawable icon) {
+        if (icon instanceof BitmapDrawable) {
+            final Bitmap bitmap = ((BitmapDrawable) icon).getBitmap();
+            if (bitmap != null) {
+                return bitmap.getAllocationByteCount();
+            }
+        }
+        return Math.max(icon.getIntrinsicWidth(), 1) * Math.max(icon.getIntrinsicHeight(), 1) * 4;
+    }
+
+    private static final class Key {
+        final String mPackageName;
+        final int mUserId;
+        final long mVersionCode;
+
+        Key(ApplicationInfo info) {
+            mPackageName = info.packageName;
+            mUserId = UserHandle.getUserId(info.uid);
+            mVersionCode = info.longVersionCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return mPackageName.equals(other.mPackageName) && mUserId == other.mUserId
+                    && mVersionCode == other.mVersionCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mPackageName, mUserId, mVersionCode);
+        }
+    }
+
+    private static final class IconKey {
+        final String mPackageName;
+        final int mIcon;
+        final int mUserId;
+        final long mVersionCode;
+        final int mDensityDpi;
+
+        IconKey(PackageItemInfo info, @Nullable ApplicationInfo appInfo, int userId,
+                int densityDpi) {
+            mPackageName = info.packageName;
+            mIcon = info.icon;
+            mUserId = userId;
+            mVersionCode = appInfo != null ? appInfo.longVersionCode : 0;
+            mDensityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof IconKey)) {
+                return false;
+            }
+            final IconKey other = (IconKey) o;
+            return mPackageName.equals(other.mPackageName) && mIcon == other.mIcon
+                    && mUserId == other.mUserId && mVersionCode == other.mVersionCode
+                    && mDensityDpi == other.mDensityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mPackageName, mIcon, mUserId, mVersionCode, mDensityDpi);
+        }
+    }
+
+    private static final class IconEntry {
+        final Drawable.ConstantState mState;
+        final int mByteCount;
+
+        IconEntry(Drawable.ConstantState state, int byteCount) {
+            mState = state;
+            mByteCount = byteCount;
+        }
+    }
+}
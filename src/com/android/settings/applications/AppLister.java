@@ -16,6 +16,7 @@
 
 package com.android.settings.applications;
 
+import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.UserInfo;
@@ -23,8 +24,11 @@ import android.os.AsyncTask;
 import android.os.UserHandle;
 import android.os.UserManager;
 
+import androidx.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Lists apps for current user that fit some criteria specified by includeInCount method
@@ -35,21 +39,35 @@ import java.util.List;
 public abstract class AppLister extends AsyncTask<Void, Void, List<UserAppInfo>> {
     protected final PackageManager mPm;
     protected final UserManager mUm;
+    private final InstalledAppsSnapshot mSnapshot;
 
     public AppLister(PackageManager packageManager, UserManager userManager) {
+        this(null /* context */, packageManager, userManager);
+    }
+
+    /**
+     * Creates a lister that reads the installed apps from the {@link InstalledAppsSnapshot} of
+     * {@param context}'s process.
+     */
+    public AppLister(@Nullable Context context, PackageManager packageManager,
+            UserManager userManager) {
         mPm = packageManager;
         mUm = userManager;
+        mSnapshot = InstalledAppsSnapshot.getInstance(context);
     }
 
     @Override
     protected List<UserAppInfo> doInBackground(Void... params) {
         final List<UserAppInfo> result = new ArrayList<>();
         for (UserInfo user : mUm.getProfiles(UserHandle.myUserId())) {
-            final List<ApplicationInfo> list =
-                    mPm.getInstalledApplicationsAsUser(PackageManager.GET_DISABLED_COMPONENTS
-                            | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
-                            | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0),
-                            user.id);
+            final int flags = PackageManager.GET_DISABLED_COMPONENTS
+                    | PackageManager.GET_DISABLED_UNTIL_USED_COMPONENTS
+                    | (user.isAdmin() ? PackageManager.MATCH_ANY_USER : 0);
+            final Supplier<List<ApplicationInfo>> loader =
+                    () -> mPm.getInstalledApplicationsAsUser(flags, user.id);
+            final List<ApplicationInfo> list = mSnapshot != null
+                    ? mSnapshot.getInstalledApplicationsAsUser(user.id, flags, loader)
+                    : loader.get();
             for (ApplicationInfo info : list) {
                 if (includeInCount(info)) {
                     result.add(new UserAppInfo(user, info));
@@ -77,12 +77,12 @@ public abstract class AppStateBaseBridge implements ApplicationsState.Callbacks
 
     @Override
     public void onPackageListChanged() {
-        mHandler.sendEmptyMessage(BackgroundHandler.MSG_LOAD_ALL);
+        scheduleLoadAll();
     }
 
     @Override
     public void onLoadEntriesCompleted() {
-        mHandler.sendEmptyMessage(BackgroundHandler.MSG_LOAD_ALL);
+        scheduleLoadAll();
     }
 
     @Override
@@ -117,6 +117,22 @@ public abstract class AppStateBaseBridge implements ApplicationsState.Callbacks
 
     protected abstract void loadAllExtraInfo();
 
+    /**
+     * Package list changes tend to arrive in bursts, e.g. onPackageListChanged() right before
+     * onLoadEntriesCompleted(). A pending load already covers them, so only one pass over the app
+     * list is kept queued.
+     */
+    private void scheduleLoadAll() {
+        mHandler.removeMessages(BackgroundHandler.MSG_LOAD_ALL);
+        mHandler.sendEmptyMessage(BackgroundHandler.MSG_LOAD_ALL);
+    }
+
+    /** Notifies the callback once for all the loads finished since it last ran. */
+    private void notifyExtraInfoUpdated() {
+        mMainHandler.removeMessages(MainHandler.MSG_INFO_UPDATED);
+        mMainHandler.sendEmptyMessage(MainHandler.MSG_INFO_UPDATED);
+    }
+
     protected abstract void updateExtraInfo(AppEntry app, String pkg, int uid);
 
     private class MainHandler extends Handler {
@@ -148,8 +164,10 @@ public abstract class AppStateBaseBridge implements ApplicationsState.Callbacks
         public void handleMessage(Message msg) {
             switch (msg.what) {
                 case MSG_LOAD_ALL:
+                    // The full load also covers any single package queued behind it.
+                    removeMessages(MSG_FORCE_LOAD_PKG);
                     loadAllExtraInfo();
-                    mMainHandler.sendEmptyMessage(MainHandler.MSG_INFO_UPDATED);
+                    notifyExtraInfoUpdated();
                     break;
                 case MSG_FORCE_LOAD_PKG:
                     ArrayList<AppEntry> apps = mAppSession.getAllApps();
@@ -162,7 +180,7 @@ public abstract class AppStateBaseBridge implements ApplicationsState.Callbacks
                             updateExtraInfo(app, pkg, uid);
                         }
                     }
-                    mMainHandler.sendEmptyMessage(MainHandler.MSG_INFO_UPDATED);
+                    notifyExtraInfoUpdated();
                     break;
             }
         }
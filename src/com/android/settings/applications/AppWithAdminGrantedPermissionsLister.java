@@ -17,6 +17,7 @@
 package com.android.settings.applications;
 
 import android.app.admin.DevicePolicyManager;
+import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.IPackageManager;
 import android.content.pm.PackageManager;
@@ -34,7 +35,14 @@ public abstract class AppWithAdminGrantedPermissionsLister extends AppLister {
     public AppWithAdminGrantedPermissionsLister(String[] permissions,
             PackageManager packageManager, IPackageManager packageManagerService,
             DevicePolicyManager devicePolicyManager, UserManager userManager) {
-        super(packageManager, userManager);
+        this(null /* context */, permissions, packageManager, packageManagerService,
+                devicePolicyManager, userManager);
+    }
+
+    public AppWithAdminGrantedPermissionsLister(Context context, String[] permissions,
+            PackageManager packageManager, IPackageManager packageManagerService,
+            DevicePolicyManager devicePolicyManager, UserManager userManager) {
+        super(context, packageManager, userManager);
         mPermissions = permissions;
         mPackageManagerService = packageManagerService;
         mDevicePolicyManager = devicePolicyManager;
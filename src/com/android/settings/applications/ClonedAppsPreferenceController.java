@@ -19,6 +19,8 @@ package com.android.settings.applications;
 import static com.android.settings.Utils.PROPERTY_CLONED_APPS_ENABLED;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
 import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.UserHandle;
@@ -37,6 +39,8 @@ import com.android.settings.dashboard.profileselector.ProfileSelectFragment;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * A preference controller handling the logic for updating the summary of cloned apps.
@@ -84,9 +88,7 @@ public class ClonedAppsPreferenceController extends BasePreferenceController
                 List<String> cloneableApps = Arrays.asList(
                         mContext.getResources().getStringArray(
                                 com.android.internal.R.array.cloneable_apps));
-                List<String> primaryUserApps = mContext.getPackageManager()
-                        .getInstalledPackagesAsUser(/* flags*/ 0, UserHandle.myUserId()).stream()
-                        .map(x -> x.packageName).toList();
+                Set<String> primaryUserApps = getInstalledPackageNames(UserHandle.myUserId());
                 // Count number of installed apps in system user.
                 int availableAppsCount = (int) cloneableApps.stream()
                         .filter(x -> primaryUserApps.contains(x)).count();
@@ -96,9 +98,7 @@ public class ClonedAppsPreferenceController extends BasePreferenceController
                     return new Integer[]{0, availableAppsCount};
                 }
                 // Get all apps in clone profile if present.
-                List<String> cloneProfileApps = mContext.getPackageManager()
-                        .getInstalledPackagesAsUser(/* flags*/ 0, cloneUserId).stream()
-                        .map(x -> x.packageName).toList();
+                Set<String> cloneProfileApps = getInstalledPackageNames(cloneUserId);
                 // Count number of allowlisted app present in clone profile.
                 int clonedAppsCount = (int) cloneableApps.stream()
                         .filter(x -> cloneProfileApps.contains(x)).count();
@@ -113,6 +113,16 @@ public class ClonedAppsPreferenceController extends BasePreferenceController
         }.execute();
     }
 
+    private Set<String> getInstalledPackageNames(int userId) {
+        final PackageManager pm = mContext.getPackageManager();
+        final InstalledAppsSnapshot snapshot = InstalledAppsSnapshot.getInstance(mContext);
+        final List<ApplicationInfo> infos = snapshot != null
+                ? snapshot.getInstalledApplicationsAsUser(userId, 0 /* flags */,
+                        () -> pm.getInstalledApplicationsAsUser(0 /* flags */, userId))
+                : pm.getInstalledApplicationsAsUser(0 /* flags */, userId);
+        return infos.stream().map(info -> info.packageName).collect(Collectors.toSet());
+    }
+
     private void updateSummary(int clonedAppsCount, int availableAppsCount) {
         mPreference.setSummary(mContext.getResources().getString(
                 R.string.cloned_apps_summary, clonedAppsCount, availableAppsCount));
@@ -16,6 +16,7 @@
 
 package com.android.settings.applications;
 
+import android.content.Context;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.os.UserManager;
@@ -26,6 +27,11 @@ public abstract class InstalledAppLister extends AppLister {
         super(packageManager, userManager);
     }
 
+    public InstalledAppLister(Context context, PackageManager packageManager,
+            UserManager userManager) {
+        super(context, packageManager, userManager);
+    }
+
     @Override
     protected boolean includeInCount(ApplicationInfo info) {
         return InstalledAppCounter.includeInCount(PackageManager.INSTALL_REASON_POLICY, mPm, info);
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.PackageManager.ApplicationInfoFlags;
+import android.net.Uri;
+import android.os.UserHandle;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide snapshot of the installed {@link ApplicationInfo}s of each user, shared by the
+ * app counters and listers so opening a page doesn't pull the package list once per caller.
+ *
+ * <p>A snapshot is kept per user and query flags. After the first load it is updated one package
+ * at a time from package broadcasts of every user. Callers get copies of the cached
+ * {@link ApplicationInfo}s, so they may modify them.
+ */
+public class InstalledAppsSnapshot {
+
+    private static final String TAG = "InstalledAppsSnapshot";
+    private static final String DATA_SCHEME_PKG = "package";
+    private static final long REFRESH_KEEP_ALIVE_MS = 30000;
+
+    private static InstalledAppsSnapshot sInstance;
+
+    private final Context mContext;
+    // Keyed by user id and query flags.
+    private final Map<Key, Map<String, ApplicationInfo>> mSnapshots = new ArrayMap<>();
+    private int mGeneration;
+    // Refreshes run one at a time in broadcast order, so an older lookup of a package can't
+    // overwrite a newer one.
+    private final ThreadPoolExecutor mRefreshExecutor = new ThreadPoolExecutor(1, 1,
+            REFRESH_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Uri data = intent.getData();
+            final String packageName = data != null ? data.getSchemeSpecificPart() : null;
+            if (packageName == null) {
+                invalidate();
+                return;
+            }
+            if (Intent.ACTION_PACKAGE_REMOVED.equals(intent.getAction())
+                    && intent.getBooleanExtra(Intent.EXTRA_REPLACING, false)) {
+                // A PACKAGE_REPLACED broadcast follows.
+                return;
+            }
+            mRefreshExecutor.execute(() -> refreshPackage(packageName));
+        }
+    };
+
+    // Suspension and distraction changes list the changed packages in an extra.
+    private final BroadcastReceiver mPackageListReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final String[] packageNames =
+                    intent.getStringArrayExtra(Intent.EXTRA_CHANGED_PACKAGE_LIST);
+            if (packageNames == null) {
+                invalidate();
+                return;
+            }
+            for (String packageName : packageNames) {
+                mRefreshExecutor.execute(() -> refreshPackage(packageName));
+            }
+        }
+    };
+
+    private final BroadcastReceiver mUserReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidate();
+        }
+    };
+
+    /**
+     * @return the snapshot of the process, or {@code null} if {@param context} can't deliver the
+     * package broadcasts that keep it up to date.
+     */
+    @Nullable
+    public static synchronized InstalledAppsSnapshot getInstance(@Nullable Context context) {
+        final Context appContext = context != null ? context.getApplicationContext() : null;
+        if (appContext == null) {
+            return null;
+        }
+        if (sInstance == null || sInstance.mContext != appContext) {
+            if (sInstance != null) {
+                sInstance.stopWatching();
+            }
+            sInstance = new InstalledAppsSnapshot(appContext);
+        }
+        return sInstance;
+    }
+
+    private InstalledAppsSnapshot(Context context) {
+        mContext = context;
+        mRefreshExecutor.allowCoreThreadTimeOut(true);
+        final IntentFilter packageFilter = new IntentFilter(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        // Stopped state changes, they update ApplicationInfo.FLAG_STOPPED.
+        packageFilter.addAction(Intent.ACTION_PACKAGE_RESTARTED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_UNSTOPPED);
+        packageFilter.addDataScheme(DATA_SCHEME_PKG);
+        mContext.registerReceiverAsUser(mPackageReceiver, UserHandle.ALL, packageFilter,
+                null /* broadcastPermission */, null /* scheduler */);
+
+        final IntentFilter packageListFilter = new IntentFilter(Intent.ACTION_PACKAGES_SUSPENDED);
+        packageListFilter.addAction(Intent.ACTION_PACKAGES_UNSUSPENDED);
+        packageListFilter.addAction(Intent.ACTION_DISTRACTING_PACKAGES_CHANGED);
+        mContext.registerReceiverAsUser(mPackageListReceiver, UserHandle.ALL, packageListFilter,
+                null /* broadcastPermission */, null /* scheduler */);
+
+        final IntentFilter bulkFilter =
+                new IntentFilter(Intent.ACTION_EXTERNAL_APPLICATIONS_AVAILABLE);
+        bulkFilter.addAction(Intent.ACTION_EXTERNAL_APPLICATIONS_UNAVAILABLE);
+        bulkFilter.addAction(Intent.ACTION_USER_ADDED);
+        bulkFilter.addAction(Intent.ACTION_USER_REMOVED);
+        mContext.registerReceiverAsUser(mUserReceiver, UserHandle.ALL, bulkFilter,
+                null /* broadcastPermission */, null /* scheduler */);
+    }
+
+    private void stopWatching() {
+        mContext.unregisterReceiver(mPackageReceiver);
+        mContext.unregisterReceiver(mPackageListReceiver);
+        mContext.unregisterReceiver(mUserReceiver);
+        mRefreshExecutor.shutdown();
+    }
+
+    /**
+     * Returns the installed applications of {@param userId} matching {@param flags}. The first
+     * call for a user and flags pair runs {@param loader}, which must be the equivalent
+     * {@link PackageManager#getInstalledApplicationsAsUser} call; later calls are served from the
+     * snapshot.
+     */
+    @NonNull
+    public List<ApplicationInfo> getInstalledApplicationsAsUser(int userId, long flags,
+            @NonNull Supplier<List<ApplicationInfo>> loader) {
+        final Key key = new Key(userId, flags);
+        final int generation;
+        synchronized (this) {
+            final Map<String, ApplicationInfo> snapshot = mSnapshots.get(key);
+            if (snapshot != null) {
+                final List<ApplicationInfo> infos = new ArrayList<>(snapshot.size());
+                for (ApplicationInfo info : snapshot.values()) {
+                    infos.add(new ApplicationInfo(info));
+                }
+                return infos;
+            }
+            generation = mGeneration;
+        }
+
+        final List<ApplicationInfo> infos = loader.get();
+        synchronized (this) {
+            // Drop the result if a package changed while it was loading.
+            if (generation == mGeneration && infos != null) {
+                final Map<String, ApplicationInfo> snapshot = new ArrayMap<>(infos.size());
+                for (ApplicationInfo info : infos) {
+                    snapshot.put(info.packageName, new ApplicationInfo(info));
+                }
+                mSnapshots.put(key, snapshot);
+            }
+        }
+        return infos != null ? infos : new ArrayList<>();
+    }
+
+    @VisibleForTesting
+    void refreshPackage(String packageName) {
+        final List<Key> keys;
+        synchronized (this) {
+            mGeneration++;
+            keys = new ArrayList<>(mSnapshots.keySet());
+        }
+        final PackageManager pm = mContext.getPackageManager();
+        for (Key key : keys) {
+            ApplicationInfo info;
+            try {
+                info = pm.getApplicationInfoAsUser(packageName, ApplicationInfoFlags.of(key.mFlags),
+                        key.mUserId);
+            } catch (PackageManager.NameNotFoundException e) {
+                info = null;
+            }
+            synchronized (this) {
+                final Map<String, ApplicationInfo> snapshot = mSnapshots.get(key);
+                if (snapshot == null) {
+                    continue;
+                }
+                if (info != null) {
+                    snapshot.put(packageName, info);
+                } else {
+                    snapshot.remove(packageName);
+                }
+            }
+        }
+        Log.d(TAG, "Refreshed " + packageName + " in " + keys.size() + " snapshots");
+    }
+
+    @VisibleForTesting
+    synchronized void invalidate() {
+        mGeneration++;
+        mSnapshots.clear();
+    }
+
+    @VisibleForTesting
+    public static synchronized void reset() {
+        if (sInstance != null) {
+            sInstance.stopWatching();
+        }
+        sInstance = null;
+    }
+
+    private static final class Key {
+        final int mUserId;
+        final long mFlags;
+
+        Key(int userId, long flags) {
+            mUserId = userId;
+            mFlags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return mUserId == other.mUserId && mFlags == other.mFlags;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mUserId + Long.hashCode(mFlags);
+        }
+    }
+}
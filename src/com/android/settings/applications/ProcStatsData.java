@@ -17,18 +17,22 @@
 package com.android.settings.applications;
 
 import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.os.ParcelFileDescriptor;
 import android.os.RemoteException;
 import android.os.ServiceManager;
 import android.os.SystemClock;
+import android.text.format.DateUtils;
 import android.text.format.Formatter;
 import android.util.ArrayMap;
 import android.util.Log;
 import android.util.LongSparseArray;
 import android.util.SparseArray;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 
 import com.android.internal.app.ProcessMap;
@@ -55,7 +59,14 @@ public class ProcStatsData {
 
     private static final boolean DEBUG = ProcessStatsUi.DEBUG;
 
-    private static ProcessStats sStatsXfer;
+    // The last parsed stats are shared between instances for a while, so a duration read in the
+    // background or a detail page doesn't read and parse the same stats again. Only one entry is
+    // kept, a parsed ProcessStats is large.
+    @VisibleForTesting
+    static final long STATS_MAX_AGE_MS = DateUtils.MINUTE_IN_MILLIS;
+    private static final LongSparseArray<StatsSnapshot> sStatsCache = new LongSparseArray<>();
+
+    private static StatsSnapshot sStatsXfer;
 
     private PackageManager mPm;
     private Context mContext;
@@ -63,6 +74,7 @@ public class ProcStatsData {
 
     private IProcessStats mProcessStats;
     private ProcessStats mStats;
+    private long mStatsDuration;
 
     private boolean mUseUss;
     private long mDuration;
@@ -76,19 +88,27 @@ public class ProcStatsData {
     private ArrayList<ProcStatsPackageEntry> pkgEntries;
 
     public ProcStatsData(Context context, boolean useXfer) {
+        this(context, useXfer, IProcessStats.Stub.asInterface(
+                ServiceManager.getService(ProcessStats.SERVICE_NAME)));
+    }
+
+    @VisibleForTesting
+    ProcStatsData(Context context, boolean useXfer, IProcessStats processStats) {
         mContext = context;
         mPm = context.getPackageManager();
-        mProcessStats = IProcessStats.Stub.asInterface(
-                ServiceManager.getService(ProcessStats.SERVICE_NAME));
+        mProcessStats = processStats;
         mMemStates = ProcessStats.ALL_MEM_ADJ;
         mStates = ProcessStats.BACKGROUND_PROC_STATES;
-        if (useXfer) {
-            mStats = sStatsXfer;
+        if (useXfer && sStatsXfer != null) {
+            mStats = sStatsXfer.mStats;
+            mStatsDuration = sStatsXfer.mDuration;
         }
     }
 
     public void xferStats() {
-        sStatsXfer = mStats;
+        sStatsXfer = mStats != null
+                ? new StatsSnapshot(mStats, mStatsDuration, SystemClock.elapsedRealtime())
+                : null;
     }
 
     public int getMemState() {
@@ -124,14 +144,16 @@ public class ProcStatsData {
     }
 
     /**
-     * Refreshes the stats.
+     * Refreshes the stats. They are loaded again if {@param forceLoad} is set or the duration
+     * changed; unless {@param forceLoad} is set, stats another instance loaded for the same
+     * duration in the last {@link #STATS_MAX_AGE_MS} are reused instead of being read again.
      *
      * <p>Note: This needs to be called manually to take effect.
      */
     @WorkerThread
     public void refreshStats(boolean forceLoad) {
-        if (mStats == null || forceLoad) {
-            load();
+        if (mStats == null || forceLoad || mStatsDuration != mDuration) {
+            load(forceLoad);
         }
 
         pkgEntries = new ArrayList<>();
@@ -333,22 +355,97 @@ public class ProcStatsData {
         return procEntries;
     }
 
-    private void load() {
+    /**
+     * Loads and caches the stats of {@param duration} unless they are cached already, so a later
+     * switch to it doesn't block on the read.
+     */
+    @WorkerThread
+    public void preloadStats(long duration) {
+        if (getCachedStats(duration) == null) {
+            readStats(duration);
+        }
+    }
+
+    /** Loads the stats of the current duration, bypassing the cache if {@param forceLoad}. */
+    @VisibleForTesting
+    void load(boolean forceLoad) {
+        final StatsSnapshot cached = forceLoad ? null : getCachedStats(mDuration);
+        mStats = cached != null ? cached.mStats : readStats(mDuration);
+        mStatsDuration = mDuration;
+    }
+
+    private ProcessStats readStats(long duration) {
+        final ProcessStats stats = new ProcessStats(false);
         try {
-            ParcelFileDescriptor pfd = mProcessStats.getStatsOverTime(mDuration);
-            mStats = new ProcessStats(false);
+            ParcelFileDescriptor pfd = mProcessStats.getStatsOverTime(duration);
             InputStream is = new ParcelFileDescriptor.AutoCloseInputStream(pfd);
-            mStats.read(is);
+            stats.read(is);
             try {
                 is.close();
             } catch (IOException e) {
             }
-            if (mStats.mReadError != null) {
-                Log.w(TAG, "Failure reading process stats: " + mStats.mReadError);
+            if (stats.mReadError != null) {
+                Log.w(TAG, "Failure reading process stats: " + stats.mReadError);
+                return stats;
+            }
+            synchronized (sStatsCache) {
+                sStatsCache.clear();
+                sStatsCache.put(duration,
+                        new StatsSnapshot(stats, duration, SystemClock.elapsedRealtime()));
             }
         } catch (RemoteException e) {
             Log.e(TAG, "RemoteException:", e);
         }
+        return stats;
+    }
+
+    @Nullable
+    private static StatsSnapshot getCachedStats(long duration) {
+        synchronized (sStatsCache) {
+            final StatsSnapshot snapshot = sStatsCache.get(duration);
+            if (snapshot == null) {
+                return null;
+            }
+            if (SystemClock.elapsedRealtime() - snapshot.mLoadedTime > STATS_MAX_AGE_MS) {
+                sStatsCache.remove(duration);
+                return null;
+            }
+            return snapshot;
+        }
+    }
+
+    /** Drops the cached stats once the UI is hidden, they are only reused by the memory pages. */
+    public static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            clearStatsCache();
+        }
+    }
+
+    @VisibleForTesting
+    static int getCachedStatsCount() {
+        synchronized (sStatsCache) {
+            return sStatsCache.size();
+        }
+    }
+
+    @VisibleForTesting
+    static void clearStatsCache() {
+        synchronized (sStatsCache) {
+            sStatsCache.clear();
+        }
+    }
+
+    /** Parsed stats of a duration; never modified once loaded. */
+    private static class StatsSnapshot {
+        final ProcessStats mStats;
+        final long mDuration;
+        final long mLoadedTime;
+
+        StatsSnapshot(ProcessStats stats, long duration, long loadedTime) {
+            mStats = stats;
+            mDuration = duration;
+            mLoadedTime = loadedTime;
+        }
     }
 
     public static class MemInfo {
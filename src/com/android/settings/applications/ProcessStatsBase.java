@@ -30,6 +30,7 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.settings.applications.ProcStatsData.MemInfo;
 import com.android.settings.core.SubSettingLauncher;
 import com.android.settingslib.core.instrumentation.Instrumentable;
+import com.android.settingslib.utils.ThreadUtils;
 import com.android.settingslib.widget.SettingsSpinnerAdapter;
 
 public abstract class ProcessStatsBase extends SettingsPreferenceFragment
@@ -62,14 +63,17 @@ public abstract class ProcessStatsBase extends SettingsPreferenceFragment
 
     protected ProcStatsData mStatsManager;
     protected int mDurationIndex;
+    // Whether the stats were handed over by the previous instance and are current enough to show.
+    private boolean mUseTransferredStats;
 
     @Override
     public void onCreate(Bundle icicle) {
         super.onCreate(icicle);
 
         Bundle args = getArguments();
-        mStatsManager = new ProcStatsData(getActivity(), icicle != null
-                || (args != null && args.getBoolean(ARG_TRANSFER_STATS, false)));
+        mUseTransferredStats = icicle != null
+                || (args != null && args.getBoolean(ARG_TRANSFER_STATS, false));
+        mStatsManager = new ProcStatsData(getActivity(), mUseTransferredStats);
 
         mDurationIndex = icicle != null
                 ? icicle.getInt(ARG_DURATION_INDEX)
@@ -88,7 +92,9 @@ public abstract class ProcessStatsBase extends SettingsPreferenceFragment
     @Override
     public void onResume() {
         super.onResume();
-        mStatsManager.refreshStats(false);
+        // Read the stats again each time the page is shown, they change while it is hidden.
+        mStatsManager.refreshStats(!mUseTransferredStats);
+        mUseTransferredStats = false;
         refreshUi();
     }
 
@@ -119,7 +125,19 @@ public abstract class ProcessStatsBase extends SettingsPreferenceFragment
     public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
         mDurationIndex = position;
         mStatsManager.setDuration(sDurations[position]);
-        refreshUi();
+        // Read and parse the stats off the main thread, then refresh from the cached stats.
+        final ProcStatsData statsManager = mStatsManager;
+        final long duration = sDurations[position];
+        ThreadUtils.postOnBackgroundThread(() -> {
+            statsManager.preloadStats(duration);
+            ThreadUtils.postOnMainThread(() -> {
+                if (!isAdded() || statsManager.getDuration() != duration) {
+                    return;
+                }
+                statsManager.refreshStats(false);
+                refreshUi();
+            });
+        });
     }
 
     @Override
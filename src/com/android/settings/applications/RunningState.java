@@ -43,6 +43,8 @@ import android.text.format.Formatter;
 import android.util.Log;
 import android.util.SparseArray;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.android.settings.R;
 import com.android.settingslib.Utils;
 import com.android.settingslib.applications.InterestingConfigChanges;
@@ -72,6 +74,8 @@ public class RunningState {
 
     static final long TIME_UPDATE_DELAY = 1000;
     static final long CONTENTS_UPDATE_DELAY = 2000;
+    // While the contents don't change, they are polled less and less often, up to this delay.
+    static final long MAX_CONTENTS_UPDATE_DELAY = 16000;
 
     static final int MAX_SERVICES = 100;
 
@@ -227,6 +231,8 @@ public class RunningState {
 
     final HandlerThread mBackgroundThread;
 
+    volatile long mContentsUpdateDelay = CONTENTS_UPDATE_DELAY;
+
     final class BackgroundHandler extends Handler {
         public BackgroundHandler(Looper looper) {
             super(looper);
@@ -244,12 +250,17 @@ public class RunningState {
                             return;
                         }
                     }
+                    final boolean changed = update(mApplicationContext, mAm);
                     Message cmd = mHandler.obtainMessage(MSG_REFRESH_UI);
-                    cmd.arg1 = update(mApplicationContext, mAm) ? 1 : 0;
+                    cmd.arg1 = changed ? 1 : 0;
                     mHandler.sendMessage(cmd);
+                    // Only structural changes reset the backoff, the sizes and descriptions
+                    // are refreshed at the current delay.
+                    mContentsUpdateDelay = getNextContentsUpdateDelay(mContentsUpdateDelay,
+                            changed);
                     removeMessages(MSG_UPDATE_CONTENTS);
                     msg = obtainMessage(MSG_UPDATE_CONTENTS);
-                    sendMessageDelayed(msg, CONTENTS_UPDATE_DELAY);
+                    sendMessageDelayed(msg, mContentsUpdateDelay);
                     break;
             }
         }
@@ -366,9 +377,7 @@ public class RunningState {
 
         public Drawable loadIcon(Context context, RunningState state) {
             if (mPackageInfo != null) {
-                Drawable unbadgedIcon = mPackageInfo.loadUnbadgedIcon(state.mPm);
-                Drawable icon = state.mPm.getUserBadgedIcon(unbadgedIcon, new UserHandle(mUserId));
-                return icon;
+                return AppIconLabelCache.getInstance(context).getBadgedIcon(mPackageInfo, mUserId);
             }
             return null;
         }
@@ -411,8 +420,13 @@ public class RunningState {
         boolean mIsStarted;
         long mActiveSince;
 
+        private final AppIconLabelCache mLabelCache;
+
         public ProcessItem(Context context, int uid, String processName) {
             super(true, UserHandle.getUserId(uid));
+            // Processes come and go all the time, but their packages rarely change, so their
+            // labels are shared.
+            mLabelCache = AppIconLabelCache.getInstance(context);
             mDescription = context.getResources().getString(
                     R.string.service_process_name, processName);
             mUid = uid;
@@ -428,7 +442,7 @@ public class RunningState {
                 ApplicationInfo ai = pm.getApplicationInfo(mProcessName,
                         PackageManager.MATCH_ANY_USER);
                 if (ai.uid == mUid) {
-                    mDisplayLabel = ai.loadLabel(pm);
+                    mDisplayLabel = mLabelCache.getLabel(ai);
                     mLabel = mDisplayLabel.toString();
                     mPackageInfo = ai;
                     return;
@@ -445,7 +459,7 @@ public class RunningState {
                 try {
                     ApplicationInfo ai = pm.getApplicationInfo(pkgs[0],
                             PackageManager.MATCH_ANY_USER);
-                    mDisplayLabel = ai.loadLabel(pm);
+                    mDisplayLabel = mLabelCache.getLabel(ai);
                     mLabel = mDisplayLabel.toString();
                     mPackageInfo = ai;
                     return;
@@ -478,7 +492,7 @@ public class RunningState {
                 ApplicationInfo ai = mServices.values().iterator().next()
                         .mServiceInfo.applicationInfo;
                 mPackageInfo = ai;
-                mDisplayLabel = mPackageInfo.loadLabel(pm);
+                mDisplayLabel = mLabelCache.getLabel(ai);
                 mLabel = mDisplayLabel.toString();
                 return;
             }
@@ -487,7 +501,7 @@ public class RunningState {
             try {
                 ApplicationInfo ai = pm.getApplicationInfo(pkgs[0],
                         PackageManager.MATCH_ANY_USER);
-                mDisplayLabel = ai.loadLabel(pm);
+                mDisplayLabel = mLabelCache.getLabel(ai);
                 mLabel = mDisplayLabel.toString();
                 mPackageInfo = ai;
                 return;
@@ -753,6 +767,12 @@ public class RunningState {
         }
     }
 
+    /** Polls at the base rate after a change and backs off while nothing changes. */
+    @VisibleForTesting
+    static long getNextContentsUpdateDelay(long delay, boolean changed) {
+        return changed ? CONTENTS_UPDATE_DELAY : Math.min(delay * 2, MAX_CONTENTS_UPDATE_DELAY);
+    }
+
     static CharSequence makeLabel(PackageManager pm,
             String className, PackageItemInfo item) {
         if (item != null && (item.labelRes != 0
@@ -808,15 +828,17 @@ public class RunningState {
                 mBackgroundHandler.removeMessages(MSG_UPDATE_CONTENTS);
                 mBackgroundHandler.sendEmptyMessage(MSG_RESET_CONTENTS);
             }
-            if (!mBackgroundHandler.hasMessages(MSG_UPDATE_CONTENTS)) {
-                mBackgroundHandler.sendEmptyMessage(MSG_UPDATE_CONTENTS);
-            }
+            // Update right away rather than after a backed off delay still pending from before.
+            mContentsUpdateDelay = CONTENTS_UPDATE_DELAY;
+            mBackgroundHandler.removeMessages(MSG_UPDATE_CONTENTS);
+            mBackgroundHandler.sendEmptyMessage(MSG_UPDATE_CONTENTS);
             mHandler.sendEmptyMessage(MSG_UPDATE_TIME);
         }
     }
 
     void updateNow() {
         synchronized (mLock) {
+            mContentsUpdateDelay = CONTENTS_UPDATE_DELAY;
             mBackgroundHandler.removeMessages(MSG_UPDATE_CONTENTS);
             mBackgroundHandler.sendEmptyMessage(MSG_UPDATE_CONTENTS);
         }
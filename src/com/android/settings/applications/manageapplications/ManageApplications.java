@@ -180,6 +180,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Activity to pick an application that will be used to display installation information and
@@ -1246,6 +1247,8 @@ public class ManageApplications extends InstrumentedFragment
         private boolean mHasReceivedBridgeCallback;
         private SearchFilter mSearchFilter;
         private PowerAllowlistBackend mBackend;
+        // Lets a queued rebuild be skipped once a newer one was requested.
+        private final AtomicInteger mRebuildGeneration = new AtomicInteger();
 
         // This is to remember and restore the last scroll position when this
         // fragment is paused. We need this special handling because app entries are added gradually
@@ -1505,7 +1508,12 @@ public class ManageApplications extends InstrumentedFragment
 
             final AppFilter finalFilterObj = new CompoundFilter(filterObj,
                     ApplicationsState.FILTER_NOT_HIDE);
+            final int generation = mRebuildGeneration.incrementAndGet();
             ThreadUtils.postOnBackgroundThread(() -> {
+                if (generation != mRebuildGeneration.get()) {
+                    // Superseded by a newer filter or sort order before it started.
+                    return;
+                }
                 mSession.rebuild(finalFilterObj, comparatorObj, false);
             });
         }
@@ -1963,21 +1971,49 @@ public class ManageApplications extends InstrumentedFragment
         /**
          * An array filter that constrains the content of the array adapter with a substring.
          * Item that does not contains the specified substring will be removed from the list.</p>
+         *
+         * <p>Lower cased labels are computed once per app list, and a query that extends the
+         * previous one only searches the previous matches. Filtering runs serially on the filter
+         * thread, so the index needs no locking.</p>
          */
         private class SearchFilter extends Filter {
+            private ArrayList<ApplicationsState.AppEntry> mIndexedEntries;
+            private String[] mSearchLabels;
+            private String mLastQuery;
+            private int[] mLastMatches;
+            private int mLastMatchCount;
+
             @WorkerThread
             @Override
             protected FilterResults performFiltering(CharSequence query) {
+                final ArrayList<ApplicationsState.AppEntry> entries = mOriginalEntries;
                 final ArrayList<ApplicationsState.AppEntry> matchedEntries;
                 if (TextUtils.isEmpty(query)) {
-                    matchedEntries = mOriginalEntries;
+                    matchedEntries = entries;
                 } else {
-                    matchedEntries = new ArrayList<>();
-                    for (ApplicationsState.AppEntry entry : mOriginalEntries) {
-                        if (entry.label.toLowerCase().contains(query.toString().toLowerCase())) {
-                            matchedEntries.add(entry);
+                    if (entries != mIndexedEntries) {
+                        indexEntries(entries);
+                    }
+                    final String normalizedQuery = query.toString().toLowerCase();
+                    final boolean narrowing = mLastQuery != null
+                            && normalizedQuery.startsWith(mLastQuery);
+                    final int candidateCount = narrowing ? mLastMatchCount : entries.size();
+                    final int[] matches = new int[candidateCount];
+                    int matchCount = 0;
+                    for (int i = 0; i < candidateCount; i++) {
+                        final int index = narrowing ? mLastMatches[i] : i;
+                        if (mSearchLabels[index].contains(normalizedQuery)) {
+                            matches[matchCount++] = index;
                         }
                     }
+                    mLastQuery = normalizedQuery;
+                    mLastMatches = matches;
+                    mLastMatchCount = matchCount;
+
+                    matchedEntries = new ArrayList<>(matchCount);
+                    for (int i = 0; i < matchCount; i++) {
+                        matchedEntries.add(entries.get(matches[i]));
+                    }
                 }
                 final FilterResults results = new FilterResults();
                 results.values = matchedEntries;
@@ -1990,6 +2026,17 @@ public class ManageApplications extends InstrumentedFragment
                 mEntries = (ArrayList<ApplicationsState.AppEntry>) results.values;
                 notifyDataSetChanged();
             }
+
+            private void indexEntries(ArrayList<ApplicationsState.AppEntry> entries) {
+                final int size = entries.size();
+                mSearchLabels = new String[size];
+                for (int i = 0; i < size; i++) {
+                    final String label = entries.get(i).label;
+                    mSearchLabels[i] = label != null ? label.toLowerCase() : "";
+                }
+                mIndexedEntries = entries;
+                mLastQuery = null;
+            }
         }
     }
 }
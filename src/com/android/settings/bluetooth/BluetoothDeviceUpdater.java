@@ -19,6 +19,8 @@ import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
@@ -37,7 +39,9 @@ import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -61,6 +65,14 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
 
     protected static final String TAG = "BluetoothDeviceUpdater";
     private static final boolean DBG = Log.isLoggable(TAG, Log.DEBUG);
+    @VisibleForTesting
+    static final long BATCH_DELAY_MS = 16;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // Devices with events since the last batch, in event order.
+    private final Set<CachedBluetoothDevice> mPendingDevices = new LinkedHashSet<>();
+    private final Runnable mFlushRunnable = this::flushPendingUpdates;
+    private boolean mBatchUpdates;
 
     @VisibleForTesting
     final GearPreference.OnGearClickListener mDeviceProfilesListener = pref -> {
@@ -109,6 +121,18 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
         mLocalManager.setForegroundActivity(null);
         mLocalManager.getEventManager().unregisterCallback(this);
         mLocalManager.getProfileManager().removeServiceListener(this);
+        cancelPendingUpdates();
+    }
+
+    /**
+     * Coalesce the device events of a frame and update each device once, in one pass on the main
+     * thread. Off by default, in which case every event updates the list right away.
+     */
+    public void setBatchUpdates(boolean batchUpdates) {
+        mBatchUpdates = batchUpdates;
+        if (!batchUpdates) {
+            cancelPendingUpdates();
+        }
     }
 
     /**
@@ -119,6 +143,8 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
             Log.e(getLogTag(), "forceUpdate() Bluetooth is not supported on this device");
             return;
         }
+        // Every device is evaluated again below.
+        cancelPendingUpdates();
         if (BluetoothAdapter.getDefaultAdapter().isEnabled()) {
             final Collection<CachedBluetoothDevice> cachedDevices =
                     mLocalManager.getCachedDeviceManager().getCachedDevicesCopy();
@@ -145,6 +171,7 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
 
     @Override
     public void onBluetoothStateChanged(int bluetoothState) {
+        cancelPendingUpdates();
         if (BluetoothAdapter.STATE_ON == bluetoothState) {
             forceUpdate();
         } else if (BluetoothAdapter.STATE_OFF == bluetoothState) {
@@ -155,7 +182,7 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
     @Override
     public void onDeviceAdded(CachedBluetoothDevice cachedDevice) {
         Log.d(getLogTag(), "onDeviceAdded() device: " + cachedDevice.getName());
-        update(cachedDevice);
+        scheduleUpdate(cachedDevice);
     }
 
     @Override
@@ -164,12 +191,13 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
         // Used to combine the hearing aid entries just after pairing. Once both the hearing aids
         // get connected and their hiSyncId gets populated, this gets called for one of the
         // 2 hearing aids so that only one entry in the connected devices list will be seen.
+        mPendingDevices.remove(cachedDevice);
         removePreference(cachedDevice);
     }
 
     @Override
     public void onDeviceBondStateChanged(CachedBluetoothDevice cachedDevice, int bondState) {
-        update(cachedDevice);
+        scheduleUpdate(cachedDevice);
     }
 
     @Override
@@ -179,14 +207,14 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
             Log.d(getLogTag(), "onProfileConnectionStateChanged() device: " + cachedDevice.getName()
                     + ", state: " + state + ", bluetoothProfile: " + bluetoothProfile);
         }
-        update(cachedDevice);
+        scheduleUpdate(cachedDevice);
     }
 
     @Override
     public void onAclConnectionStateChanged(CachedBluetoothDevice cachedDevice, int state) {
         Log.d(getLogTag(), "onAclConnectionStateChanged() device: " + cachedDevice.getName()
                 + ", state: " + state);
-        update(cachedDevice);
+        scheduleUpdate(cachedDevice);
     }
 
     @Override
@@ -230,6 +258,39 @@ public abstract class BluetoothDeviceUpdater implements BluetoothCallback,
         }
     }
 
+    private void scheduleUpdate(CachedBluetoothDevice cachedDevice) {
+        if (!mBatchUpdates) {
+            update(cachedDevice);
+            return;
+        }
+        if (mPendingDevices.add(cachedDevice) && mPendingDevices.size() == 1) {
+            mHandler.postDelayed(mFlushRunnable, BATCH_DELAY_MS);
+        }
+    }
+
+    @VisibleForTesting
+    void flushPendingUpdates() {
+        mHandler.removeCallbacks(mFlushRunnable);
+        if (mPendingDevices.isEmpty()) {
+            return;
+        }
+        final List<CachedBluetoothDevice> devices = new ArrayList<>(mPendingDevices);
+        mPendingDevices.clear();
+        // isFilterMatched reads state owned by the main thread, so it runs here, once per device.
+        for (CachedBluetoothDevice device : devices) {
+            update(device);
+        }
+        if (DBG) {
+            Log.d(getLogTag(), "Applied " + devices.size() + " device updates, map : "
+                    + mPreferenceMap);
+        }
+    }
+
+    private void cancelPendingUpdates() {
+        mHandler.removeCallbacks(mFlushRunnable);
+        mPendingDevices.clear();
+    }
+
     /**
      * Add the {@link Preference} that represents the {@code cachedDevice}
      */
@@ -223,13 +223,16 @@ public class ConnectedDeviceGroupController extends BasePreferenceController
                 FeatureFactory.getFeatureFactory().getDockUpdaterFeatureProvider();
         final DockUpdater connectedDockUpdater =
                 dockUpdaterFeatureProvider.getConnectedDockUpdater(context, this);
+        final BluetoothDeviceUpdater bluetoothDeviceUpdater = hasBluetoothFeature()
+                ? new ConnectedBluetoothDeviceUpdater(context, this, fragment.getMetricsCategory())
+                : null;
+        if (bluetoothDeviceUpdater != null) {
+            bluetoothDeviceUpdater.setBatchUpdates(true);
+        }
         init(hasExternalDisplayFeature()
                         ? new ExternalDisplayUpdater(this, fragment.getMetricsCategory())
                         : null,
-                hasBluetoothFeature()
-                        ? new ConnectedBluetoothDeviceUpdater(context, this,
-                        fragment.getMetricsCategory())
-                        : null,
+                bluetoothDeviceUpdater,
                 hasUsbFeature()
                         ? new ConnectedUsbDeviceUpdater(context, fragment, this)
                         : null,
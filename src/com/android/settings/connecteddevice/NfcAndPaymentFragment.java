@@ -20,6 +20,7 @@ import android.app.settings.SettingsEnums;
 import android.content.Context;
 import android.content.pm.PackageManager;
 import android.content.pm.UserInfo;
+import android.nfc.NfcAdapter;
 import android.os.UserHandle;
 import android.os.UserManager;
 
@@ -27,6 +28,7 @@ import android.os.UserManager;
 import com.android.settings.R;
 import com.android.settings.dashboard.DashboardFragment;
 import com.android.settings.search.BaseSearchIndexProvider;
+import com.android.settings.search.NonIndexableKeysTriggers;
 import com.android.settingslib.search.SearchIndexable;
 
 /**
@@ -71,5 +73,13 @@ public class NfcAndPaymentFragment extends DashboardFragment {
                     final PackageManager pm = context.getPackageManager();
                     return pm.hasSystemFeature(PackageManager.FEATURE_NFC);
                 }
+
+                @Override
+                public NonIndexableKeysTriggers getNonIndexableKeysTriggers() {
+                    // The availability of the payment default follows the NFC adapter state.
+                    return new NonIndexableKeysTriggers.Builder()
+                            .addBroadcastAction(NfcAdapter.ACTION_ADAPTER_STATE_CHANGED)
+                            .build();
+                }
             };
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.android.settings.core;
+
+import android.content.Context;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates {@link BasePreferenceController}s declared by {@code settings:controller} without
+ * reflection.
+ * <p/>
+ * Controllers are looked up in a table of constructor references, which each feature fills for
+ * its own screens, e.g. {@code TopLevelControllerFactories} for the homepage. The core package
+ * does not know any feature controller. A controller missing from the table is created through
+ * reflection; the resolved {@link Constructor} is kept so the class is only looked up once per
+ * process, and every such creation is counted so the table can be extended until no fallback is
+ * left.
+ */
+public class PreferenceControllerRegistry {
+
+    private static final String TAG = "PrefControllerRegistry";
+
+    /** Creates a controller from a context. */
+    public interface ContextFactory {
+        BasePreferenceController create(Context context);
+    }
+
+    /** Creates a controller from a context and a preference key. */
+    public interface KeyedFactory {
+        BasePreferenceController create(Context context, String key);
+    }
+
+    private static final Map<String, ContextFactory> sContextFactories = new ArrayMap<>();
+    private static final Map<String, KeyedFactory> sKeyedFactories = new ArrayMap<>();
+
+    /** Reflective constructors, or the exception thrown when the class has none. */
+    private static final Map<String, Object> sContextConstructors = new ConcurrentHashMap<>();
+    private static final Map<String, Object> sKeyedConstructors = new ConcurrentHashMap<>();
+
+    private static final Map<String, AtomicInteger> sReflectiveFallbacks =
+            new ConcurrentHashMap<>();
+    private static final AtomicInteger sReflectiveFallbackCount = new AtomicInteger();
+
+    private PreferenceControllerRegistry() {
+    }
+
+    /** Registers the (Context) constructor of a controller class. */
+    public static synchronized void registerContextFactory(
+            @NonNull Class<? extends BasePreferenceController> clazz,
+            @NonNull ContextFactory factory) {
+        sContextFactories.put(clazz.getName(), factory);
+    }
+
+    /** Registers the (Context, String) constructor of a controller class. */
+    public static synchronized void registerKeyedFactory(
+            @NonNull Class<? extends BasePreferenceController> clazz,
+            @NonNull KeyedFactory factory) {
+        sKeyedFactories.put(clazz.getName(), factory);
+    }
+
+    /**
+     * Creates a controller with its (Context) constructor.
+     *
+     * @throws IllegalStateException if the class can't be created this way
+     */
+    static BasePreferenceController create(Context context, String controllerName) {
+        final ContextFactory factory;
+        synchronized (PreferenceControllerRegistry.class) {
+            factory = sContextFactories.get(controllerName);
+        }
+        if (factory != null) {
+            try {
+                return factory.create(context);
+            } catch (RuntimeException e) {
+                throw invalidController(controllerName, e);
+            }
+        }
+        final Constructor<?> constructor =
+                getConstructor(sContextConstructors, controllerName, Context.class);
+        return newInstance(controllerName, constructor, context);
+    }
+
+    /**
+     * Creates a controller with its (Context, String) constructor.
+     *
+     * @throws IllegalStateException if the class can't be created this way
+     */
+    static BasePreferenceController create(Context context, String controllerName, String key) {
+        final KeyedFactory factory;
+        synchronized (PreferenceControllerRegistry.class) {
+            factory = sKeyedFactories.get(controllerName);
+        }
+        if (factory != null) {
+            try {
+                return factory.create(context, key);
+            } catch (RuntimeException e) {
+                throw invalidController(controllerName, e);
+            }
+        }
+        final Constructor<?> constructor = getConstructor(sKeyedConstructors, controllerName,
+                Context.class, String.class);
+        return newInstance(controllerName, constructor, context, key);
+    }
+
+    /** Returns how many controllers were created through reflection in this process. */
+    public static int getReflectiveFallbackCount() {
+        return sReflectiveFallbackCount.get();
+    }
+
+    /** Returns the reflective creation count of each controller class. */
+    public static JSONObject dumpReflectiveFallbacks() throws JSONException {
+        final JSONObject obj = new JSONObject();
+        obj.put("total", sReflectiveFallbackCount.get());
+        final JSONObject perClass = new JSONObject();
+        for (Map.Entry<String, AtomicInteger> entry : sReflectiveFallbacks.entrySet()) {
+            perClass.put(entry.getKey(), entry.getValue().get());
+        }
+        obj.put("classes", perClass);
+        return obj;
+    }
+
+    @VisibleForTesting
+    static void resetReflectiveFallbacks() {
+        sReflectiveFallbacks.clear();
+        sReflectiveFallbackCount.set(0);
+    }
+
+    private static Constructor<?> getConstructor(Map<String, Object> cache, String controllerName,
+            Class<?>... parameterTypes) {
+        Object cached = cache.get(controllerName);
+        if (cached == null) {
+            try {
+                cached = Class.forName(controllerName).getConstructor(parameterTypes);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                Log.d(TAG, "No matching constructor for " + controllerName);
+                cached = e;
+            }
+            cache.put(controllerName, cached);
+        }
+        if (cached instanceof ReflectiveOperationException e) {
+            throw invalidController(controllerName, e);
+        }
+        return (Constructor<?>) cached;
+    }
+
+    private static BasePreferenceController newInstance(String controllerName,
+            Constructor<?> constructor, Object... params) {
+        if (sReflectiveFallbacks.computeIfAbsent(controllerName, k -> new AtomicInteger())
+                .getAndIncrement() == 0) {
+            Log.d(TAG, "Created by reflection, consider registering: " + controllerName);
+        }
+        sReflectiveFallbackCount.incrementAndGet();
+        try {
+            return (BasePreferenceController) constructor.newInstance(params);
+        } catch (InstantiationException | IllegalArgumentException | InvocationTargetException
+                | IllegalAccessException | ClassCastException e) {
+            throw invalidController(controllerName, e);
+        }
+    }
+
+    /** Wraps a creation failure the same way for registered and reflective controllers. */
+    private static IllegalStateException invalidController(String controllerName, Exception e) {
+        return new IllegalStateException("Invalid preference controller: " + controllerName, e);
+    }
+}
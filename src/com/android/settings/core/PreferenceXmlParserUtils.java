@@ -18,16 +18,20 @@ package com.android.settings.core;
 
 import android.annotation.XmlRes;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.content.res.XmlResourceParser;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.LruCache;
 import android.util.Xml;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.R;
 
@@ -107,20 +111,158 @@ public class PreferenceXmlParserUtils {
     public static final String METADATA_HIGHLIGHTABLE_MENU_KEY = "highlightable_menu_key";
     public static final String METADATA_USER_RESTRICTION = "userRestriction";
 
+    /**
+     * All metadata flags combined. Each xml is parsed once with this set and cached, then
+     * projected down to the flags each caller asks for.
+     */
+    private static final int ALL_FLAGS = MetadataFlag.FLAG_INCLUDE_PREF_SCREEN
+            | MetadataFlag.FLAG_NEED_KEY
+            | MetadataFlag.FLAG_NEED_PREF_TYPE
+            | MetadataFlag.FLAG_NEED_PREF_CONTROLLER
+            | MetadataFlag.FLAG_NEED_PREF_TITLE
+            | MetadataFlag.FLAG_NEED_PREF_SUMMARY
+            | MetadataFlag.FLAG_NEED_PREF_ICON
+            | MetadataFlag.FLAG_NEED_KEYWORDS
+            | MetadataFlag.FLAG_NEED_SEARCHABLE
+            | MetadataFlag.FLAG_NEED_PREF_APPEND
+            | MetadataFlag.FLAG_UNAVAILABLE_SLICE_SUBTITLE
+            | MetadataFlag.FLAG_FOR_WORK
+            | MetadataFlag.FLAG_NEED_HIGHLIGHTABLE_MENU_KEY
+            | MetadataFlag.FLAG_NEED_USER_RESTRICTION;
+
+    /**
+     * Most xml screens indexed at once. Search indexing walks every screen once, but only the
+     * recently opened ones are read again when their controllers are created.
+     */
+    @VisibleForTesting
+    static final int MAX_INDEXED_XMLS = 64;
+
+    /** Parsed metadata keyed by xml res id, valid for the configuration it was parsed with. */
+    private static final LruCache<Integer, MetadataIndexEntry> sMetadataIndex =
+            new LruCache<>(MAX_INDEXED_XMLS);
+
     /**
      * Extracts metadata from preference xml and put them into a {@link Bundle}.
      *
+     * <p>The xml is only walked the first time it is requested for a given resource
+     * configuration. Later calls are served from an in-memory index, so search indexing, slice
+     * indexing and controller creation don't repeat the XML I/O.
+     *
      * @param xmlResId xml res id of a preference screen
      * @param flags    Should be one or more of {@link MetadataFlag}.
      */
     @NonNull
     public static List<Bundle> extractMetadata(Context context, @XmlRes int xmlResId, int flags)
             throws IOException, XmlPullParserException {
-        final List<Bundle> metadata = new ArrayList<>();
         if (xmlResId <= 0) {
             Log.d(TAG, xmlResId + " is invalid.");
-            return metadata;
+            return new ArrayList<>();
+        }
+        final Configuration config = context.getResources().getConfiguration();
+        if (config == null) {
+            // Resources without a configuration can't be keyed safely, parse directly.
+            return parseMetadata(context, xmlResId, flags);
+        }
+        List<Bundle> indexed = getIndexedMetadata(xmlResId, config);
+        if (indexed == null) {
+            indexed = parseMetadata(context, xmlResId, ALL_FLAGS);
+            sMetadataIndex.put(xmlResId,
+                    new MetadataIndexEntry(new Configuration(config), indexed));
+        }
+        return projectMetadata(indexed, flags);
+    }
+
+    /**
+     * Drops every indexed xml. The index is otherwise only refreshed when the resource
+     * configuration changes.
+     */
+    @VisibleForTesting
+    public static void clearMetadataIndex() {
+        sMetadataIndex.evictAll();
+    }
+
+    @Nullable
+    private static List<Bundle> getIndexedMetadata(@XmlRes int xmlResId, Configuration config) {
+        final MetadataIndexEntry entry = sMetadataIndex.get(xmlResId);
+        if (entry == null || entry.mConfig.diffPublicOnly(config) != 0) {
+            return null;
         }
+        return entry.mMetadata;
+    }
+
+    /**
+     * Copies the requested subset of each indexed bundle, so callers are free to mutate the
+     * result without touching the index.
+     */
+    private static List<Bundle> projectMetadata(List<Bundle> indexed, int flags) {
+        final boolean hasPrefScreenFlag = hasFlag(flags, MetadataFlag.FLAG_INCLUDE_PREF_SCREEN);
+        final List<Bundle> metadata = new ArrayList<>(indexed.size());
+        for (Bundle source : indexed) {
+            if (!hasPrefScreenFlag
+                    && TextUtils.equals(PREF_SCREEN_TAG, source.getString(METADATA_PREF_TYPE))) {
+                continue;
+            }
+            final Bundle preferenceMetadata = new Bundle();
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_TYPE)) {
+                preferenceMetadata.putString(METADATA_PREF_TYPE,
+                        source.getString(METADATA_PREF_TYPE));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_KEY)) {
+                preferenceMetadata.putString(METADATA_KEY, source.getString(METADATA_KEY));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_CONTROLLER)) {
+                preferenceMetadata.putString(METADATA_CONTROLLER,
+                        source.getString(METADATA_CONTROLLER));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_TITLE)) {
+                preferenceMetadata.putString(METADATA_TITLE, source.getString(METADATA_TITLE));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_SUMMARY)) {
+                preferenceMetadata.putString(METADATA_SUMMARY,
+                        source.getString(METADATA_SUMMARY));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_ICON)) {
+                preferenceMetadata.putInt(METADATA_ICON, source.getInt(METADATA_ICON));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_KEYWORDS)) {
+                preferenceMetadata.putString(METADATA_KEYWORDS,
+                        source.getString(METADATA_KEYWORDS));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_SEARCHABLE)) {
+                preferenceMetadata.putBoolean(METADATA_SEARCHABLE,
+                        source.getBoolean(METADATA_SEARCHABLE));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_PREF_APPEND) && hasPrefScreenFlag) {
+                preferenceMetadata.putBoolean(METADATA_APPEND, source.getBoolean(METADATA_APPEND));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_UNAVAILABLE_SLICE_SUBTITLE)) {
+                preferenceMetadata.putString(METADATA_UNAVAILABLE_SLICE_SUBTITLE,
+                        source.getString(METADATA_UNAVAILABLE_SLICE_SUBTITLE));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_FOR_WORK)) {
+                preferenceMetadata.putBoolean(METADATA_FOR_WORK,
+                        source.getBoolean(METADATA_FOR_WORK));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_HIGHLIGHTABLE_MENU_KEY)) {
+                preferenceMetadata.putString(METADATA_HIGHLIGHTABLE_MENU_KEY,
+                        source.getString(METADATA_HIGHLIGHTABLE_MENU_KEY));
+            }
+            if (hasFlag(flags, MetadataFlag.FLAG_NEED_USER_RESTRICTION)) {
+                preferenceMetadata.putString(METADATA_USER_RESTRICTION,
+                        source.getString(METADATA_USER_RESTRICTION));
+            }
+            metadata.add(preferenceMetadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Walks the preference xml and reads the metadata requested by {@code flags}.
+     */
+    @VisibleForTesting
+    static List<Bundle> parseMetadata(Context context, @XmlRes int xmlResId, int flags)
+            throws IOException, XmlPullParserException {
+        final List<Bundle> metadata = new ArrayList<>();
         final XmlResourceParser parser = context.getResources().getXml(xmlResId);
 
         int type;
@@ -210,6 +352,16 @@ public class PreferenceXmlParserUtils {
         return metadata;
     }
 
+    private static class MetadataIndexEntry {
+        final Configuration mConfig;
+        final List<Bundle> mMetadata;
+
+        MetadataIndexEntry(Configuration config, List<Bundle> metadata) {
+            mConfig = config;
+            mMetadata = metadata;
+        }
+    }
+
     private static boolean hasFlag(int flags, @MetadataFlag int flag) {
         return (flags & flag) != 0;
     }
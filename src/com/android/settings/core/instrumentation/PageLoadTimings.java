@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core.instrumentation;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates the time spent in each phase of opening a settings page, and in each step of its
+ * preference controllers, so the slow controllers of a page can be found on real devices.
+ */
+public class PageLoadTimings {
+
+    public static final String PHASE_CREATE_CONTROLLERS = "create_controllers";
+    public static final String PHASE_DISPLAY_RESOURCE_TILES = "display_resource_tiles";
+    public static final String PHASE_REFRESH_DASHBOARD_TILES = "refresh_dashboard_tiles";
+    public static final String PHASE_UPDATE_PREFERENCE_STATES = "update_preference_states";
+    public static final String PHASE_UI_BLOCKER_WAIT = "ui_blocker_wait";
+
+    public static final int STEP_IS_AVAILABLE = 0;
+    public static final int STEP_DISPLAY_PREFERENCE = 1;
+    public static final int STEP_UPDATE_STATE = 2;
+    private static final String[] STEP_NAMES = {"isAvailable", "displayPreference", "updateState"};
+
+    private static final int MAX_DUMPED_CONTROLLERS = 10;
+
+    // Keyed by page name.
+    private final Map<String, Page> mPages = new ConcurrentHashMap<>();
+
+    /** Records that {@param phase} of {@param page} took {@param durationNanos}. */
+    public void recordPhase(@NonNull String page, @NonNull String phase, long durationNanos) {
+        getPage(page).mPhases.computeIfAbsent(phase, p -> new Stat()).add(durationNanos);
+    }
+
+    /**
+     * Records that a step of {@param controller} on {@param page} took {@param durationNanos}.
+     *
+     * @param step one of the {@code STEP_} constants
+     */
+    public void recordController(@NonNull String page, @NonNull String controller, int step,
+            long durationNanos) {
+        final Stat[] stats = getPage(page).mControllers.computeIfAbsent(controller, c -> {
+            final Stat[] newStats = new Stat[STEP_NAMES.length];
+            for (int i = 0; i < newStats.length; i++) {
+                newStats[i] = new Stat();
+            }
+            return newStats;
+        });
+        stats[step].add(durationNanos);
+    }
+
+    /**
+     * Returns the phase timings of every page, and the steps of its slowest controllers by total
+     * time.
+     */
+    public JSONObject dump() throws JSONException {
+        final JSONObject obj = new JSONObject();
+        for (Map.Entry<String, Page> page : mPages.entrySet()) {
+            final JSONObject pageObj = new JSONObject();
+            final JSONObject phases = new JSONObject();
+            for (Map.Entry<String, Stat> phase : page.getValue().mPhases.entrySet()) {
+                phases.put(phase.getKey(), phase.getValue().toJson());
+            }
+            pageObj.put("phases", phases);
+
+            final List<Map.Entry<String, Stat[]>> controllers =
+                    new ArrayList<>(page.getValue().mControllers.entrySet());
+            controllers.sort((c1, c2) -> Long.compare(getTotalNanos(c2.getValue()),
+                    getTotalNanos(c1.getValue())));
+            final JSONArray slowest = new JSONArray();
+            for (int i = 0; i < Math.min(controllers.size(), MAX_DUMPED_CONTROLLERS); i++) {
+                final JSONObject controllerObj = new JSONObject();
+                controllerObj.put("controller", controllers.get(i).getKey());
+                final Stat[] stats = controllers.get(i).getValue();
+                for (int step = 0; step < stats.length; step++) {
+                    if (stats[step].getCount() > 0) {
+                        controllerObj.put(STEP_NAMES[step], stats[step].toJson());
+                    }
+                }
+                slowest.put(controllerObj);
+            }
+            pageObj.put("slowest_controllers", slowest);
+            obj.put(page.getKey(), pageObj);
+        }
+        return obj;
+    }
+
+    private Page getPage(String page) {
+        return mPages.computeIfAbsent(page, p -> new Page());
+    }
+
+    private static long getTotalNanos(Stat[] stats) {
+        long total = 0;
+        for (Stat stat : stats) {
+            total += stat.getTotalNanos();
+        }
+        return total;
+    }
+
+    private static class Page {
+        final Map<String, Stat> mPhases = new ConcurrentHashMap<>();
+        // Keyed by controller class name, indexed by step.
+        final Map<String, Stat[]> mControllers = new ConcurrentHashMap<>();
+    }
+
+    private static class Stat {
+        private long mCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
+        synchronized void add(long durationNanos) {
+            mCount++;
+            mTotalNanos += durationNanos;
+            mMaxNanos = Math.max(mMaxNanos, durationNanos);
+        }
+
+        synchronized long getCount() {
+            return mCount;
+        }
+
+        synchronized long getTotalNanos() {
+            return mTotalNanos;
+        }
+
+        synchronized JSONObject toJson() throws JSONException {
+            final JSONObject obj = new JSONObject();
+            obj.put("count", mCount);
+            obj.put("avg_us", mCount == 0 ? 0 : mTotalNanos / mCount / 1000);
+            obj.put("max_us", mMaxNanos / 1000);
+            return obj;
+        }
+    }
+}
@@ -25,6 +25,13 @@ import com.android.settingslib.core.instrumentation.MetricsFeatureProvider;
 public class SettingsMetricsFeatureProvider extends MetricsFeatureProvider {
     private static final String TAG = "SettingsMetricsFeature";
 
+    private final PageLoadTimings mPageLoadTimings = new PageLoadTimings();
+
+    /** Returns the page open timings recorded in this process. */
+    public PageLoadTimings getPageLoadTimings() {
+        return mPageLoadTimings;
+    }
+
     @Override
     protected void installLogWriters() {
         mLoggerWriters.add(new StatsLogWriter());
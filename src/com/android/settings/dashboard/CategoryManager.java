@@ -22,6 +22,7 @@ import android.util.ArrayMap;
 import android.util.ArraySet;
 import android.util.Log;
 import android.util.Pair;
+import android.util.SparseIntArray;
 
 import androidx.annotation.VisibleForTesting;
 
@@ -58,6 +59,8 @@ public class CategoryManager {
     // Tile cache (key: category key, value: category)
     private final Map<String, DashboardCategory> mCategoryByKeyMap;
 
+    private final TileSnapshotStore mSnapshotStore;
+
     private List<DashboardCategory> mCategories;
 
     public static CategoryManager get(Context context) {
@@ -70,6 +73,7 @@ public class CategoryManager {
     CategoryManager(Context context) {
         mTileByComponentCache = new ArrayMap<>();
         mCategoryByKeyMap = new ArrayMap<>();
+        mSnapshotStore = new TileSnapshotStore(context);
         mInterestingConfigChanges = new InterestingConfigChanges();
         mInterestingConfigChanges.applyNewConfig(context.getResources());
     }
@@ -157,7 +161,7 @@ public class CategoryManager {
                 mTileByComponentCache.clear();
             }
             mCategoryByKeyMap.clear();
-            mCategories = TileUtils.getCategories(context, mTileByComponentCache);
+            mCategories = loadCategories(context, firstLoading);
             for (DashboardCategory category : mCategories) {
                 mCategoryByKeyMap.put(category.key, category);
             }
@@ -185,6 +189,33 @@ public class CategoryManager {
         }
     }
 
+    /**
+     * Loads the injected categories. The first load of a process is served from the on-disk
+     * snapshot when no package changed since it was written; every other load queries
+     * PackageManager and refreshes the snapshot in the background, so no package change lookup
+     * or marshalling happens while the categories are locked.
+     */
+    private List<DashboardCategory> loadCategories(Context context, boolean firstLoading) {
+        if (firstLoading) {
+            final List<DashboardCategory> snapshot = mSnapshotStore.load(context);
+            if (snapshot != null) {
+                Log.d(TAG, "Loaded categories from snapshot");
+                for (DashboardCategory category : snapshot) {
+                    for (Tile tile : category.getTiles()) {
+                        mTileByComponentCache.put(Pair.create(tile.getComponentPackageName(),
+                                tile.getComponentName()), tile);
+                    }
+                }
+                return snapshot;
+            }
+        }
+        final SparseIntArray knownSequenceNumbers = mSnapshotStore.getKnownSequenceNumbers();
+        final List<DashboardCategory> categories =
+                TileUtils.getCategories(context, mTileByComponentCache);
+        mSnapshotStore.save(context, categories, knownSequenceNumbers);
+        return categories;
+    }
+
     @VisibleForTesting
     synchronized void backwardCompatCleanupForCategory(
             Map<Pair<String, String>, Tile> tileByComponentCache,
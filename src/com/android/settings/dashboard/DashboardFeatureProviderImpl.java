@@ -45,6 +45,7 @@ import android.graphics.drawable.Icon;
 import android.graphics.drawable.LayerDrawable;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.os.UserHandle;
 import android.provider.Settings;
 import android.text.TextUtils;
@@ -93,6 +94,8 @@ import java.util.Map;
 public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
 
     private static final String TAG = "DashboardFeatureImpl";
+    // Dynamic data calls slower than this are reported as slow providers.
+    private static final long SLOW_TILE_BIND_MILLIS = 100L;
     private static final String DASHBOARD_TILE_PREF_KEY_PREFIX = "dashboard_tile_pref_";
     private static final String META_DATA_KEY_INTENT_ACTION = "com.android.settings.intent.action";
     private static final String TOP_LEVEL_ACCOUNT_CATEGORY = "top_level_account_category";
@@ -266,15 +269,20 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
 
             @Override
             public void onDataChanged() {
+                ThreadUtils.postOnBackgroundThread(() -> onDataChanged(new ArrayMap<>()));
+            }
+
+            @Override
+            public void onDataChanged(Map<String, IContentProvider> providerMap) {
                 switch (method) {
                     case METHOD_GET_DYNAMIC_TITLE:
-                        refreshTitle(uri, pref, this);
+                        refreshTitle(uri, pref, this, providerMap);
                         break;
                     case METHOD_GET_DYNAMIC_SUMMARY:
-                        refreshSummary(uri, pref, this);
+                        refreshSummary(uri, pref, this, providerMap);
                         break;
                     case METHOD_IS_CHECKED:
-                        refreshSwitch(uri, pref, this);
+                        refreshSwitch(uri, pref, this, providerMap);
                         break;
                 }
             }
@@ -302,15 +310,15 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
         return null;
     }
 
-    private void refreshTitle(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final String titleFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_TITLE);
-            if (!TextUtils.equals(titleFromUri, preference.getTitle())) {
-                observer.post(() -> preference.setTitle(titleFromUri));
-            }
-        });
+    private void refreshTitle(Uri uri, Preference preference, DynamicDataObserver observer,
+            Map<String, IContentProvider> providerMap) {
+        final long startTime = SystemClock.elapsedRealtime();
+        final String titleFromUri = TileUtils.getTextFromUri(
+                mContext, uri, providerMap, META_DATA_PREFERENCE_TITLE);
+        logTileBindLatency(uri, startTime);
+        if (!TextUtils.equals(titleFromUri, preference.getTitle())) {
+            observer.post(() -> preference.setTitle(titleFromUri));
+        }
     }
 
     private DynamicDataObserver bindSummaryAndGetObserver(Preference preference, Tile tile) {
@@ -332,15 +340,15 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
         return null;
     }
 
-    private void refreshSummary(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final String summaryFromUri = TileUtils.getTextFromUri(
-                    mContext, uri, providerMap, META_DATA_PREFERENCE_SUMMARY);
-            if (!TextUtils.equals(summaryFromUri, preference.getSummary())) {
-                observer.post(() -> preference.setSummary(summaryFromUri));
-            }
-        });
+    private void refreshSummary(Uri uri, Preference preference, DynamicDataObserver observer,
+            Map<String, IContentProvider> providerMap) {
+        final long startTime = SystemClock.elapsedRealtime();
+        final String summaryFromUri = TileUtils.getTextFromUri(
+                mContext, uri, providerMap, META_DATA_PREFERENCE_SUMMARY);
+        logTileBindLatency(uri, startTime);
+        if (!TextUtils.equals(summaryFromUri, preference.getSummary())) {
+            observer.post(() -> preference.setSummary(summaryFromUri));
+        }
     }
 
     private DynamicDataObserver bindSwitchAndGetObserver(Preference preference, Tile tile) {
@@ -384,18 +392,27 @@ public class DashboardFeatureProviderImpl implements DashboardFeatureProvider {
         });
     }
 
-    private void refreshSwitch(Uri uri, Preference preference, DynamicDataObserver observer) {
-        ThreadUtils.postOnBackgroundThread(() -> {
-            final Map<String, IContentProvider> providerMap = new ArrayMap<>();
-            final boolean checked = TileUtils.getBooleanFromUri(mContext, uri, providerMap,
-                    EXTRA_SWITCH_CHECKED_STATE);
-            observer.post(() -> {
-                setSwitchChecked(preference, checked);
-                setSwitchEnabled(preference, true);
-            });
+    private void refreshSwitch(Uri uri, Preference preference, DynamicDataObserver observer,
+            Map<String, IContentProvider> providerMap) {
+        final long startTime = SystemClock.elapsedRealtime();
+        final boolean checked = TileUtils.getBooleanFromUri(mContext, uri, providerMap,
+                EXTRA_SWITCH_CHECKED_STATE);
+        logTileBindLatency(uri, startTime);
+        observer.post(() -> {
+            setSwitchChecked(preference, checked);
+            setSwitchEnabled(preference, true);
         });
     }
 
+    private void logTileBindLatency(Uri uri, long startTime) {
+        final long latency = SystemClock.elapsedRealtime() - startTime;
+        if (latency >= SLOW_TILE_BIND_MILLIS) {
+            Log.w(TAG, "Slow tile data from " + uri + ": " + latency + " ms");
+        } else {
+            Log.d(TAG, "Tile data from " + uri + ": " + latency + " ms");
+        }
+    }
+
     private void setSwitchChecked(Preference pref, boolean checked) {
         if (pref instanceof PrimarySwitchPreference primarySwitchPreference) {
             primarySwitchPreference.setChecked(checked);
@@ -21,6 +21,8 @@ import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.preference.PreferenceManager.OnActivityResultListener;
 import android.text.TextUtils;
 import android.util.ArrayMap;
@@ -39,6 +41,8 @@ import androidx.preference.PreferenceGroup;
 import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceScreen;
 import androidx.preference.SwitchPreferenceCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
@@ -46,6 +50,8 @@ import com.android.settings.core.BasePreferenceController;
 import com.android.settings.core.CategoryMixin.CategoryHandler;
 import com.android.settings.core.CategoryMixin.CategoryListener;
 import com.android.settings.core.PreferenceControllerListHelper;
+import com.android.settings.core.instrumentation.PageLoadTimings;
+import com.android.settings.core.instrumentation.SettingsMetricsFeatureProvider;
 import com.android.settings.flags.Flags;
 import com.android.settings.overlay.FeatureFactory;
 import com.android.settingslib.PrimarySwitchPreference;
@@ -66,8 +72,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Base fragment for dashboard style UI containing a list of static and dynamic setting items.
@@ -77,7 +81,6 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         BasePreferenceController.UiBlockListener {
     public static final String CATEGORY = "category";
     private static final String TAG = "DashboardFragment";
-    private static final long TIMEOUT_MILLIS = 50L;
 
     private static final List<String> ACCOUNT_INJECTED_KEYS = Arrays.asList(
         "dashboard_tile_pref_com.google.android.gms.backup.component.BackupOrRestoreSettingsActivity"
@@ -101,6 +104,9 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
     private final Map<Class, List<AbstractPreferenceController>> mPreferenceControllers =
             new ArrayMap<>();
     private final List<DynamicDataObserver> mRegisteredObservers = new ArrayList<>();
+    @VisibleForTesting
+    final DynamicDataDispatcher mDynamicDataDispatcher =
+            new DynamicDataDispatcher(this::isDynamicDataOnScreen);
     private final List<AbstractPreferenceController> mControllers = new ArrayList<>();
     @VisibleForTesting
     UiBlockerController mBlockerController;
@@ -108,10 +114,18 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
     private DashboardTilePlaceholderPreferenceController mPlaceholderPreferenceController;
     private boolean mListeningToCategoryChange;
     private List<String> mSuppressInjectedTileKeys;
+    @Nullable
+    private PageLoadTimings mPageLoadTimings;
+    private String mPageName;
 
     @Override
     public void onAttach(Context context) {
         super.onAttach(context);
+        mPageName = getClass().getSimpleName();
+        mPageLoadTimings = mMetricsFeatureProvider instanceof SettingsMetricsFeatureProvider
+                ? ((SettingsMetricsFeatureProvider) mMetricsFeatureProvider).getPageLoadTimings()
+                : null;
+        final long createStartNanos = startPhase(PageLoadTimings.PHASE_CREATE_CONTROLLERS);
         mSuppressInjectedTileKeys = Arrays.asList(context.getResources().getStringArray(
                 R.array.config_suppress_injected_tile_keys));
         mDashboardFeatureProvider =
@@ -160,6 +174,7 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         for (AbstractPreferenceController controller : mControllers) {
             addPreferenceController(controller);
         }
+        endPhase(PageLoadTimings.PHASE_CREATE_CONTROLLERS, createStartNanos);
     }
 
     @VisibleForTesting
@@ -176,8 +191,13 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         });
 
         if (!keys.isEmpty()) {
+            final long blockerStartNanos = SystemClock.elapsedRealtimeNanos();
             mBlockerController = new UiBlockerController(keys);
             mBlockerController.start(() -> {
+                if (mPageLoadTimings != null) {
+                    mPageLoadTimings.recordPhase(mPageName, PageLoadTimings.PHASE_UI_BLOCKER_WAIT,
+                            SystemClock.elapsedRealtimeNanos() - blockerStartNanos);
+                }
                 updatePreferenceVisibility(mPreferenceControllers);
                 baseControllers.forEach(controller -> controller.setUiBlockerFinished(true));
             });
@@ -204,6 +224,18 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         for (AbstractPreferenceController controller : mControllers) {
             controller.onViewCreated(viewLifecycleOwner);
         }
+        final RecyclerView listView = getListView();
+        if (listView != null) {
+            listView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView,
+                        int newState) {
+                    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                        mDynamicDataDispatcher.dispatchStale();
+                    }
+                }
+            });
+        }
     }
 
     @Override
@@ -259,6 +291,7 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                         registerDynamicDataObserver(resolver, observer);
                     }
                 });
+        mDynamicDataDispatcher.dispatchStale();
     }
 
     @Override
@@ -296,6 +329,7 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
     public void onStop() {
         super.onStop();
         unregisterDynamicDataObservers(new ArrayList<>(mRegisteredObservers));
+        mDynamicDataDispatcher.stop();
         if (mListeningToCategoryChange) {
             final Activity activity = getActivity();
             if (activity instanceof CategoryHandler) {
@@ -455,7 +489,12 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
      */
     protected void displayResourceTilesToScreen(PreferenceScreen screen) {
         mPreferenceControllers.values().stream().flatMap(Collection::stream).forEach(
-                controller -> controller.displayPreference(screen));
+                controller -> {
+                    final long startNanos = SystemClock.elapsedRealtimeNanos();
+                    controller.displayPreference(screen);
+                    recordControllerStep(controller, PageLoadTimings.STEP_DISPLAY_PREFERENCE,
+                            startNanos);
+                });
     }
 
     /**
@@ -469,12 +508,16 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
      * Update state of each preference managed by PreferenceController.
      */
     protected void updatePreferenceStates() {
+        final long phaseStartNanos = startPhase(PageLoadTimings.PHASE_UPDATE_PREFERENCE_STATES);
         final PreferenceScreen screen = getPreferenceScreen();
         Collection<List<AbstractPreferenceController>> controllerLists =
                 mPreferenceControllers.values();
         for (List<AbstractPreferenceController> controllerList : controllerLists) {
             for (AbstractPreferenceController controller : controllerList) {
-                if (!controller.isAvailable()) {
+                long startNanos = SystemClock.elapsedRealtimeNanos();
+                final boolean available = controller.isAvailable();
+                recordControllerStep(controller, PageLoadTimings.STEP_IS_AVAILABLE, startNanos);
+                if (!available) {
                     continue;
                 }
 
@@ -491,9 +534,38 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                             key, controller.getClass().getSimpleName()));
                     continue;
                 }
+                startNanos = SystemClock.elapsedRealtimeNanos();
                 controller.updateState(preference);
+                recordControllerStep(controller, PageLoadTimings.STEP_UPDATE_STATE, startNanos);
             }
         }
+        endPhase(PageLoadTimings.PHASE_UPDATE_PREFERENCE_STATES, phaseStartNanos);
+    }
+
+    /**
+     * Starts a trace section for {@param phase} of opening this page.
+     *
+     * @return the start time to pass to {@link #endPhase}
+     */
+    private long startPhase(String phase) {
+        Trace.beginSection(phase);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    private void endPhase(String phase, long startNanos) {
+        Trace.endSection();
+        if (mPageLoadTimings != null) {
+            mPageLoadTimings.recordPhase(mPageName, phase,
+                    SystemClock.elapsedRealtimeNanos() - startNanos);
+        }
+    }
+
+    private void recordControllerStep(AbstractPreferenceController controller, int step,
+            long startNanos) {
+        if (mPageLoadTimings != null) {
+            mPageLoadTimings.recordController(mPageName, controller.getClass().getName(), step,
+                    SystemClock.elapsedRealtimeNanos() - startNanos);
+        }
     }
 
     /**
@@ -509,9 +581,13 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
         }
 
         // Add resource based tiles.
+        long startNanos = startPhase(PageLoadTimings.PHASE_DISPLAY_RESOURCE_TILES);
         displayResourceTiles();
+        endPhase(PageLoadTimings.PHASE_DISPLAY_RESOURCE_TILES, startNanos);
 
+        startNanos = startPhase(PageLoadTimings.PHASE_REFRESH_DASHBOARD_TILES);
         refreshDashboardTiles(tag);
+        endPhase(PageLoadTimings.PHASE_REFRESH_DASHBOARD_TILES, startNanos);
 
         final Activity activity = getActivity();
         if (activity != null) {
@@ -684,21 +760,14 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                 }
             }
             unregisterDynamicDataObservers(entry.getValue());
+            if (entry.getValue() != null) {
+                entry.getValue().forEach(mDynamicDataDispatcher::remove);
+            }
         }
 
-        // Wait for pending observers to update UI.
-        if (!pendingObservers.isEmpty()) {
-            final CountDownLatch mainLatch = new CountDownLatch(1);
-            new Thread(() -> {
-                pendingObservers.forEach(observer ->
-                        awaitObserverLatch(observer.getCountDownLatch()));
-                mainLatch.countDown();
-            }).start();
-            Log.d(tag, "Start waiting observers");
-            awaitObserverLatch(mainLatch);
-            Log.d(tag, "Stop waiting observers");
-            pendingObservers.forEach(DynamicDataObserver::updateUi);
-        }
+        // Apply the dynamic data that has already arrived. Data still being loaded is applied
+        // as soon as each provider returns, so the main thread never waits on slow providers.
+        pendingObservers.forEach(DynamicDataObserver::updateUi);
     }
 
     @Override
@@ -747,12 +816,42 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
                 + ", uri: " + observer.getUri());
         try {
             resolver.registerContentObserver(observer.getUri(), false, observer);
+            observer.setDispatcher(mDynamicDataDispatcher);
             mRegisteredObservers.add(observer);
         } catch (Exception e) {
             Log.w(TAG, "Cannot register observer: " + observer.getUri(), e);
         }
     }
 
+    /**
+     * Returns whether the tile updated by {@param observer} is laid out on screen. Tiles that
+     * can't be located are treated as on screen.
+     */
+    @VisibleForTesting
+    boolean isDynamicDataOnScreen(DynamicDataObserver observer) {
+        final RecyclerView listView = getListView();
+        if (listView == null
+                || !(listView.getLayoutManager() instanceof LinearLayoutManager layoutManager)
+                || !(listView.getAdapter()
+                        instanceof PreferenceGroup.PreferencePositionCallback callback)) {
+            return true;
+        }
+        final int first = layoutManager.findFirstVisibleItemPosition();
+        final int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            // Not laid out yet.
+            return true;
+        }
+        for (Map.Entry<String, List<DynamicDataObserver>> entry
+                : mDashboardTilePrefKeys.entrySet()) {
+            if (entry.getValue() != null && entry.getValue().contains(observer)) {
+                final int position = callback.getPreferenceAdapterPosition(entry.getKey());
+                return position >= first && position <= last;
+            }
+        }
+        return true;
+    }
+
     private void unregisterDynamicDataObservers(List<DynamicDataObserver> observers) {
         if (observers == null || observers.isEmpty()) {
             return;
@@ -770,12 +869,4 @@ public abstract class DashboardFragment extends SettingsPreferenceFragment
             }
         });
     }
-
-    private void awaitObserverLatch(CountDownLatch latch) {
-        try {
-            latch.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            // Do nothing
-        }
-    }
 }
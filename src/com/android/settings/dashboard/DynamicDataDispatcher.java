@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import android.content.IContentProvider;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces the change notifications of the {@link DynamicDataObserver}s of a dashboard page.
+ *
+ * <p>Notifications arriving within a frame are dispatched together, with one background task per
+ * provider authority that shares the acquired provider. Observers of off-screen tiles are marked
+ * stale instead, and refreshed by {@link #dispatchStale} once their tiles are back on screen.
+ */
+class DynamicDataDispatcher {
+
+    private static final String TAG = "DynamicDataDispatcher";
+
+    @VisibleForTesting
+    static final long DISPATCH_DELAY_MS = 16;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Predicate<DynamicDataObserver> mIsOnScreen;
+    private final Set<DynamicDataObserver> mPendingObservers = new LinkedHashSet<>();
+    private final Set<DynamicDataObserver> mStaleObservers = new LinkedHashSet<>();
+    private final Runnable mDispatchRunnable = this::dispatch;
+
+    DynamicDataDispatcher(Predicate<DynamicDataObserver> isOnScreen) {
+        mIsOnScreen = isOnScreen;
+    }
+
+    /** Queues a refresh of {@param observer}. Must be called on the main thread. */
+    void onChange(DynamicDataObserver observer) {
+        if (mPendingObservers.add(observer) && mPendingObservers.size() == 1) {
+            mHandler.postDelayed(mDispatchRunnable, DISPATCH_DELAY_MS);
+        }
+    }
+
+    /** Refreshes the stale observers whose tiles are now on screen. */
+    void dispatchStale() {
+        final Iterator<DynamicDataObserver> iterator = mStaleObservers.iterator();
+        while (iterator.hasNext()) {
+            final DynamicDataObserver observer = iterator.next();
+            if (mIsOnScreen.test(observer)) {
+                iterator.remove();
+                onChange(observer);
+            }
+        }
+    }
+
+    /** Forgets {@param observer}, whose tile was removed. */
+    void remove(DynamicDataObserver observer) {
+        mPendingObservers.remove(observer);
+        mStaleObservers.remove(observer);
+    }
+
+    /** Cancels the pending dispatch. Its observers are refreshed once on screen again. */
+    void stop() {
+        mHandler.removeCallbacks(mDispatchRunnable);
+        mStaleObservers.addAll(mPendingObservers);
+        mPendingObservers.clear();
+    }
+
+    @VisibleForTesting
+    void dispatch() {
+        mHandler.removeCallbacks(mDispatchRunnable);
+        final Map<String, List<DynamicDataObserver>> observersByAuthority = new ArrayMap<>();
+        for (DynamicDataObserver observer : mPendingObservers) {
+            if (!mIsOnScreen.test(observer)) {
+                mStaleObservers.add(observer);
+                continue;
+            }
+            observersByAuthority.computeIfAbsent(observer.getUri().getAuthority(),
+                    authority -> new ArrayList<>()).add(observer);
+        }
+        mPendingObservers.clear();
+        for (List<DynamicDataObserver> observers : observersByAuthority.values()) {
+            ThreadUtils.postOnBackgroundThread(() -> {
+                final Map<String, IContentProvider> providerMap = new ArrayMap<>();
+                for (DynamicDataObserver observer : observers) {
+                    observer.onDataChanged(providerMap);
+                }
+            });
+        }
+        Log.d(TAG, "Dispatched " + observersByAuthority.size() + " authorities, "
+                + mStaleObservers.size() + " stale");
+    }
+}
@@ -15,14 +15,18 @@
  */
 package com.android.settings.dashboard;
 
+import android.content.IContentProvider;
 import android.database.ContentObserver;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
 import com.android.settingslib.utils.ThreadUtils;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.Map;
 
 /**
  * Observer for updating injected dynamic data.
@@ -30,12 +34,11 @@ import java.util.concurrent.CountDownLatch;
 public abstract class DynamicDataObserver extends ContentObserver {
 
     private Runnable mUpdateRunnable;
-    private CountDownLatch mCountDownLatch;
     private boolean mUpdateDelegated;
+    private DynamicDataDispatcher mDispatcher;
 
     protected DynamicDataObserver() {
         super(new Handler(Looper.getMainLooper()));
-        mCountDownLatch = new CountDownLatch(1);
         // Load data for the first time
         onDataChanged();
     }
@@ -46,6 +49,20 @@ public abstract class DynamicDataObserver extends ContentObserver {
     /** Called when data changes. */
     public abstract void onDataChanged();
 
+    /**
+     * Called on a background thread when data changes, with the providers already acquired for
+     * the other observers of the same authority.
+     */
+    @WorkerThread
+    public void onDataChanged(Map<String, IContentProvider> providerMap) {
+        onDataChanged();
+    }
+
+    /** Routes change notifications through {@param dispatcher} instead of handling each one. */
+    void setDispatcher(@Nullable DynamicDataDispatcher dispatcher) {
+        mDispatcher = dispatcher;
+    }
+
     /** Calls the runnable to update UI */
     public synchronized void updateUi() {
         mUpdateDelegated = true;
@@ -54,13 +71,12 @@ public abstract class DynamicDataObserver extends ContentObserver {
         }
     }
 
-    /** Returns the count-down latch */
-    public CountDownLatch getCountDownLatch() {
-        return mCountDownLatch;
-    }
-
     @Override
     public void onChange(boolean selfChange) {
+        if (mDispatcher != null) {
+            mDispatcher.onChange(this);
+            return;
+        }
         onDataChanged();
     }
 
@@ -69,7 +85,6 @@ public abstract class DynamicDataObserver extends ContentObserver {
             ThreadUtils.postOnMainThread(runnable);
         } else {
             mUpdateRunnable = runnable;
-            mCountDownLatch.countDown();
         }
     }
 }
@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.settings.dashboard;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.ChangedPackages;
+import android.content.pm.ComponentInfo;
+import android.content.pm.PackageManager;
+import android.content.pm.ProviderInfo;
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.Log;
+import android.util.SparseIntArray;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settings.utils.ParcelSnapshotFile;
+import com.android.settingslib.drawer.ActivityTile;
+import com.android.settingslib.drawer.DashboardCategory;
+import com.android.settingslib.drawer.ProviderTile;
+import com.android.settingslib.drawer.Tile;
+import com.android.settingslib.drawer.TileUtils;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persists the injected {@link DashboardCategory} list on disk so a cold-started process can
+ * skip the PackageManager queries behind {@link CategoryManager}.
+ * <p/>
+ * Only what is needed to rebuild the tiles is kept: the component, the profiles, the Settings
+ * meta-data keys and the order of the tiles in their category. The remaining meta-data is read
+ * back from PackageManager the first time a tile is displayed, see
+ * {@code Tile#ensureMetadataNotStale}.
+ * <p/>
+ * A snapshot is only handed back while it is still accurate: same build, same boot, same
+ * resource configuration, same profiles and no package changed in any of them since it was
+ * written.
+ */
+class TileSnapshotStore {
+
+    private static final String TAG = "TileSnapshotStore";
+    @VisibleForTesting
+    static final String FILE_NAME = "dashboard_tiles_snapshot";
+    // Bump when the snapshot layout changes.
+    private static final int VERSION = 3;
+    // Meta-data outside this namespace isn't read by Settings before the tile is refreshed.
+    private static final String SETTINGS_META_DATA_PREFIX = "com.android.settings.";
+
+    private final Context mContext;
+    private final ParcelSnapshotFile mFile;
+    // Last package change sequence number seen per user, so later reads only list the packages
+    // changed since then rather than every change since boot.
+    private final SparseIntArray mKnownSequenceNumbers = new SparseIntArray();
+    private final AtomicInteger mSaveGeneration = new AtomicInteger();
+    // Guarded by this, which is only taken in the background.
+    private int mWrittenGeneration;
+
+    TileSnapshotStore(Context context) {
+        mContext = context.getApplicationContext() != null
+                ? context.getApplicationContext() : context;
+        mFile = new ParcelSnapshotFile(mContext, FILE_NAME, VERSION, true /* perBoot */);
+    }
+
+    /**
+     * Returns the persisted categories, or null if there is no snapshot or it is stale.
+     */
+    @Nullable
+    List<DashboardCategory> load(Context context) {
+        return mFile.read(ParcelSnapshotFile.getConfigFingerprint(context), this::readSnapshot);
+    }
+
+    @Nullable
+    private List<DashboardCategory> readSnapshot(Parcel parcel) {
+        final List<UserHandle> profiles = getProfiles();
+        final int profileCount = parcel.readInt();
+        if (profileCount != profiles.size()) {
+            Log.d(TAG, "Profiles changed since snapshot");
+            return null;
+        }
+        final SparseIntArray sequenceNumbers = new SparseIntArray(profileCount);
+        for (int i = 0; i < profileCount; i++) {
+            sequenceNumbers.put(parcel.readInt(), parcel.readInt());
+        }
+        for (UserHandle profile : profiles) {
+            final int userId = profile.getIdentifier();
+            final int index = sequenceNumbers.indexOfKey(userId);
+            if (index < 0) {
+                Log.d(TAG, "Profiles changed since snapshot");
+                return null;
+            }
+            final int sequenceNumber = sequenceNumbers.valueAt(index);
+            final ChangedPackages changed =
+                    getPackageManager(userId).getChangedPackages(sequenceNumber);
+            if (changed != null && !changed.getPackageNames().isEmpty()) {
+                Log.d(TAG, "Packages of user " + userId + " changed since snapshot: "
+                        + changed.getPackageNames());
+                return null;
+            }
+            synchronized (mKnownSequenceNumbers) {
+                mKnownSequenceNumbers.put(userId, sequenceNumber);
+            }
+        }
+        return readCategories(parcel);
+    }
+
+    /**
+     * Persists the categories. Only the fields needed to rebuild the tiles are copied on the
+     * calling thread, since the categories are modified right after loading; checking the package
+     * changes, marshalling and writing happen in the background.
+     *
+     * @param knownSequenceNumbers package change sequence number of each profile, read before the
+     *                             categories were queried, see
+     *                             {@link #getKnownSequenceNumbers()}. The snapshot is dropped if
+     *                             any package changed since, as the query might have missed it.
+     */
+    void save(Context context, List<DashboardCategory> categories,
+            SparseIntArray knownSequenceNumbers) {
+        final List<CategoryRecord> records = new ArrayList<>(categories.size());
+        for (DashboardCategory category : categories) {
+            records.add(new CategoryRecord(category));
+        }
+        final String configFingerprint = ParcelSnapshotFile.getConfigFingerprint(context);
+        final int generation = mSaveGeneration.incrementAndGet();
+        ThreadUtils.postOnBackgroundThread(() ->
+                persist(generation, configFingerprint, records, knownSequenceNumbers));
+    }
+
+    /** Drops the snapshot. */
+    void clear() {
+        mFile.delete();
+    }
+
+    private synchronized void persist(int generation, String configFingerprint,
+            List<CategoryRecord> records, SparseIntArray knownSequenceNumbers) {
+        if (generation < mWrittenGeneration) {
+            // A newer query was persisted already.
+            return;
+        }
+        mWrittenGeneration = generation;
+        final SparseIntArray sequenceNumbers = getSequenceNumbers();
+        for (int i = 0; i < sequenceNumbers.size(); i++) {
+            if (knownSequenceNumbers.get(sequenceNumbers.keyAt(i), -1)
+                    != sequenceNumbers.valueAt(i)) {
+                Log.d(TAG, "Packages changed while querying, not saving snapshot");
+                return;
+            }
+        }
+        final byte[] data = mFile.marshall(configFingerprint, parcel -> {
+            parcel.writeInt(sequenceNumbers.size());
+            for (int i = 0; i < sequenceNumbers.size(); i++) {
+                parcel.writeInt(sequenceNumbers.keyAt(i));
+                parcel.writeInt(sequenceNumbers.valueAt(i));
+            }
+            parcel.writeInt(records.size());
+            for (CategoryRecord record : records) {
+                record.writeToParcel(parcel);
+            }
+        });
+        if (data != null) {
+            mFile.write(data);
+        }
+    }
+
+    private static List<DashboardCategory> readCategories(Parcel parcel) {
+        final int categoryCount = parcel.readInt();
+        final List<DashboardCategory> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            final DashboardCategory category = new DashboardCategory(parcel.readString());
+            final int tileCount = parcel.readInt();
+            for (int j = 0; j < tileCount; j++) {
+                category.addTile(TileRecord.readTile(parcel));
+            }
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * Returns the package change sequence number of each profile as of the last check, without
+     * querying PackageManager.
+     */
+    SparseIntArray getKnownSequenceNumbers() {
+        synchronized (mKnownSequenceNumbers) {
+            return mKnownSequenceNumbers.clone();
+        }
+    }
+
+    /**
+     * Returns the current package change sequence number of each profile the tiles are loaded
+     * from, keyed by user id.
+     */
+    @VisibleForTesting
+    SparseIntArray getSequenceNumbers() {
+        final List<UserHandle> profiles = getProfiles();
+        final SparseIntArray sequenceNumbers = new SparseIntArray(profiles.size());
+        for (UserHandle profile : profiles) {
+            final int userId = profile.getIdentifier();
+            final int known;
+            synchronized (mKnownSequenceNumbers) {
+                known = mKnownSequenceNumbers.get(userId);
+            }
+            final ChangedPackages changed =
+                    getPackageManager(userId).getChangedPackages(known);
+            final int sequenceNumber = changed == null ? known : changed.getSequenceNumber();
+            synchronized (mKnownSequenceNumbers) {
+                mKnownSequenceNumbers.put(userId, sequenceNumber);
+            }
+            sequenceNumbers.put(userId, sequenceNumber);
+        }
+        return sequenceNumbers;
+    }
+
+    /** Returns the profiles {@code TileUtils.getCategories} loads tiles from. */
+    private List<UserHandle> getProfiles() {
+        return mContext.getSystemService(UserManager.class).getUserProfiles();
+    }
+
+    @VisibleForTesting
+    PackageManager getPackageManager(int userId) {
+        if (userId == mContext.getUserId()) {
+            return mContext.getPackageManager();
+        }
+        return mContext.createContextAsUser(UserHandle.of(userId), 0 /* flags */)
+                .getPackageManager();
+    }
+
+    /** The category key and the tiles of a category, in order. */
+    private static final class CategoryRecord {
+        private final String mKey;
+        private final List<TileRecord> mTiles;
+
+        CategoryRecord(DashboardCategory category) {
+            mKey = category.key;
+            mTiles = new ArrayList<>(category.getTilesCount());
+            for (Tile tile : category.getTiles()) {
+                mTiles.add(new TileRecord(tile));
+            }
+        }
+
+        void writeToParcel(Parcel parcel) {
+            parcel.writeString(mKey);
+            parcel.writeInt(mTiles.size());
+            for (TileRecord tile : mTiles) {
+                tile.writeToParcel(parcel);
+            }
+        }
+    }
+
+    /** The fields a {@link Tile} is rebuilt from. */
+    private static final class TileRecord {
+        private final boolean mIsProvider;
+        private final String mPackageName;
+        private final String mClassName;
+        @Nullable
+        private final String mAuthority;
+        private final String mCategory;
+        private final int[] mUserIds;
+        private final Bundle mMetaData;
+
+        TileRecord(Tile tile) {
+            mIsProvider = tile instanceof ProviderTile;
+            mPackageName = tile.getComponentPackageName();
+            mClassName = tile.getComponentName();
+            mCategory = tile.getCategory();
+            mUserIds = new int[tile.userHandle.size()];
+            for (int i = 0; i < mUserIds.length; i++) {
+                mUserIds[i] = tile.userHandle.get(i).getIdentifier();
+            }
+            final Bundle metaData = tile.getMetaData();
+            mMetaData = metaData == null ? new Bundle() : new Bundle(metaData);
+            if (mIsProvider) {
+                // Provider tiles get their meta-data from the provider rather than from the
+                // manifest, so all of it is kept.
+                mAuthority = getAuthority(tile.getDescription(),
+                        mMetaData.getString(TileUtils.META_DATA_PREFERENCE_KEYHINT));
+            } else {
+                for (String key : new ArrayList<>(mMetaData.keySet())) {
+                    if (!key.startsWith(SETTINGS_META_DATA_PREFIX)) {
+                        mMetaData.remove(key);
+                    }
+                }
+                mAuthority = null;
+            }
+        }
+
+        void writeToParcel(Parcel parcel) {
+            parcel.writeBoolean(mIsProvider);
+            parcel.writeString(mPackageName);
+            parcel.writeString(mClassName);
+            parcel.writeString(mAuthority);
+            parcel.writeString(mCategory);
+            parcel.writeIntArray(mUserIds);
+            parcel.writeBundle(mMetaData);
+        }
+
+        static Tile readTile(Parcel parcel) {
+            final boolean isProvider = parcel.readBoolean();
+            final String packageName = parcel.readString();
+            final String className = parcel.readString();
+            final String authority = parcel.readString();
+            final String category = parcel.readString();
+            final int[] userIds = parcel.createIntArray();
+            final Bundle metaData = parcel.readBundle(TileSnapshotStore.class.getClassLoader());
+            final Tile tile;
+            if (isProvider) {
+                final ProviderInfo info = new ProviderInfo();
+                fillComponentInfo(info, packageName, className);
+                info.authority = authority;
+                tile = new ProviderTile(info, category, metaData);
+            } else {
+                final ActivityInfo info = new ActivityInfo();
+                fillComponentInfo(info, packageName, className);
+                info.metaData = metaData;
+                tile = new ActivityTile(info, category);
+            }
+            for (int userId : userIds) {
+                final UserHandle user = UserHandle.of(userId);
+                if (!tile.userHandle.contains(user)) {
+                    tile.userHandle.add(user);
+                }
+            }
+            return tile;
+        }
+
+        private static void fillComponentInfo(ComponentInfo info, String packageName,
+                String className) {
+            info.packageName = packageName;
+            info.name = className;
+            info.applicationInfo = new ApplicationInfo();
+            info.applicationInfo.packageName = packageName;
+        }
+
+        /** The description of a provider tile is {@code <authority>/<key>}. */
+        @Nullable
+        private static String getAuthority(String description, @Nullable String key) {
+            if (description == null || key == null || !description.endsWith("/" + key)) {
+                return null;
+            }
+            return description.substring(0, description.length() - key.length() - 1);
+        }
+    }
+}
@@ -36,7 +36,6 @@ import android.net.NetworkTemplate;
 import android.os.Bundle;
 import android.os.UserHandle;
 import android.util.ArraySet;
-import android.util.IconDrawableFactory;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
@@ -47,6 +46,7 @@ import androidx.recyclerview.widget.DefaultItemAnimator;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.android.settings.R;
+import com.android.settings.applications.AppIconLabelCache;
 import com.android.settings.applications.AppInfoBase;
 import com.android.settings.datausage.lib.AppDataUsageDetailsRepository;
 import com.android.settings.datausage.lib.NetworkTemplates;
@@ -168,8 +168,10 @@ public class AppDataUsage extends DataUsageBaseFragment implements OnPreferenceC
                     try {
                         final ApplicationInfo info = mPackageManager.getApplicationInfoAsUser(
                                 mPackages.valueAt(0), 0, userId);
-                        mIcon = IconDrawableFactory.newInstance(getActivity()).getBadgedIcon(info);
-                        mLabel = info.loadLabel(mPackageManager);
+                        final AppIconLabelCache cache =
+                                AppIconLabelCache.getInstance(getActivity());
+                        mIcon = cache.getBadgedIcon(info);
+                        mLabel = cache.getLabel(info);
                         mPackageName = info.packageName;
                     } catch (PackageManager.NameNotFoundException e) {
                     }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.development;
+
+import com.android.settings.core.PreferenceControllerRegistry;
+import com.android.settings.location.LocationIndicatorsPreferenceController;
+import com.android.settings.notification.ImportanceResetPreferenceController;
+import com.android.settings.spa.development.compat.PlatformCompatPreferenceController;
+
+/**
+ * Registers the controllers declared in the developer options xml with
+ * {@link PreferenceControllerRegistry}. The other controllers of the screen are built in
+ * {@link DevelopmentSettingsDashboardFragment#createPreferenceControllers} and never go through
+ * reflection.
+ */
+final class DevelopmentControllerFactories {
+
+    private DevelopmentControllerFactories() {
+    }
+
+    static void register() {
+        PreferenceControllerRegistry.registerKeyedFactory(
+                PlatformCompatPreferenceController.class, PlatformCompatPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                ImportanceResetPreferenceController.class,
+                ImportanceResetPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                LocationIndicatorsPreferenceController.class,
+                LocationIndicatorsPreferenceController::new);
+    }
+}
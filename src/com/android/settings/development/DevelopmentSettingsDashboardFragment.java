@@ -123,6 +123,10 @@ public class DevelopmentSettingsDashboardFragment extends RestrictedDashboardFra
     private List<AbstractPreferenceController> mPreferenceControllers = new ArrayList<>();
     private BluetoothA2dp mBluetoothA2dp;
 
+    static {
+        DevelopmentControllerFactories.register();
+    }
+
     private final BroadcastReceiver mEnableAdbReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
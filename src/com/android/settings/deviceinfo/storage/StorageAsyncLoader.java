@@ -41,12 +41,17 @@ import android.util.ArraySet;
 import android.util.Log;
 import android.util.SparseArray;
 
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settings.applications.InstalledAppsSnapshot;
 import com.android.settingslib.applications.StorageStatsSource;
 import com.android.settingslib.utils.AsyncLoaderCompat;
+import com.android.settingslib.utils.ThreadUtils;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * StorageAsyncLoader is a Loader which loads categorized app information and external stats for all
@@ -61,6 +66,7 @@ public class StorageAsyncLoader
     private StorageStatsSource mStatsManager;
     private PackageManager mPackageManager;
     private ArraySet<String> mSeenPackages;
+    private InstalledAppsSnapshot mSnapshot;
 
     public StorageAsyncLoader(Context context, UserManager userManager,
             String uuid, StorageStatsSource source, PackageManager pm) {
@@ -69,6 +75,7 @@ public class StorageAsyncLoader
         mUuid = uuid;
         mStatsManager = source;
         mPackageManager = pm;
+        mSnapshot = InstalledAppsSnapshot.getInstance(context);
     }
 
     @Override
@@ -85,50 +92,56 @@ public class StorageAsyncLoader
         Collections.sort(infos,
                 (userInfo, otherUser) -> Integer.compare(userInfo.id, otherUser.id));
 
+        // Queries the media sizes of every user in parallel while the app sizes are loaded.
+        final int userCount = infos.size();
+        final StorageResult[] mediaResults = new StorageResult[userCount];
+        final CountDownLatch latch = new CountDownLatch(userCount);
+        for (int i = 0; i < userCount; i++) {
+            final int index = i;
+            final int userId = infos.get(i).id;
+            ThreadUtils.postOnBackgroundThread(() -> {
+                try {
+                    mediaResults[index] = getMediaSizes(userId);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        // App sizes are loaded in user id order, so shared code is attributed to the first user.
         for (UserInfo info : infos) {
-            final StorageResult result = getAppsAndGamesSize(info.id);
-            final Bundle media = new Bundle();
-            media.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, MediaColumns.VOLUME_NAME
-                    + "= '" + MediaStore.VOLUME_EXTERNAL_PRIMARY + "'");
-            result.imagesSize = getFilesSize(info.id, MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
-                    media /* queryArgs */);
-            result.videosSize = getFilesSize(info.id, MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
-                    media /* queryArgs */);
-            result.audioSize = getFilesSize(info.id, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI,
-                    media /* queryArgs */);
-            result.systemSize = getSystemSize();
-
-            final Bundle documentsQueryArgs = new Bundle();
-            documentsQueryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION,
-                    FileColumns.MEDIA_TYPE + "=" + FileColumns.MEDIA_TYPE_DOCUMENT);
-            result.documentsSize = getFilesSize(info.id,
-                    MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
-                    documentsQueryArgs);
-
-            final Bundle otherQueryArgs = new Bundle();
-            otherQueryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION,
-                    FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_IMAGE
-                            + " AND " + FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_VIDEO
-                            + " AND " + FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_AUDIO
-                            + " AND " + FileColumns.MEDIA_TYPE + "!="
-                            + FileColumns.MEDIA_TYPE_DOCUMENT
-                            + " AND " + FileColumns.MIME_TYPE + " IS NOT NULL");
-            result.otherSize = getFilesSize(info.id,
-                    MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
-                    otherQueryArgs);
-
-            final Bundle trashQueryArgs = new Bundle();
-            trashQueryArgs.putInt(MediaStore.QUERY_ARG_MATCH_TRASHED, MediaStore.MATCH_ONLY);
-            result.trashSize = getFilesSize(info.id,
-                    MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
-                    trashQueryArgs);
-
-            results.put(info.id, result);
+            results.put(info.id, getAppsAndGamesSize(info.id));
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Log.w(TAG, "Interrupted while loading media sizes", e);
+            Thread.currentThread().interrupt();
+        }
+        final long systemSize = getSystemSize();
+        for (int i = 0; i < userCount; i++) {
+            final StorageResult result = results.get(infos.get(i).id);
+            final StorageResult media = mediaResults[i];
+            if (media != null) {
+                result.imagesSize = media.imagesSize;
+                result.videosSize = media.videosSize;
+                result.audioSize = media.audioSize;
+                result.documentsSize = media.documentsSize;
+                result.otherSize = media.otherSize;
+                result.trashSize = media.trashSize;
+            }
+            result.systemSize = systemSize;
         }
         return results;
     }
 
-    private long getFilesSize(int userId, Uri uri, Bundle queryArgs) {
+    /**
+     * Returns a {@link StorageResult} holding the file based sizes of the user, and refreshes
+     * those sizes in the {@link StorageCacheHelper} of the user.
+     */
+    private StorageResult getMediaSizes(int userId) {
+        final StorageResult result = new StorageResult();
         final Context perUserContext;
         try {
             perUserContext = getContext().createPackageContextAsUser(
@@ -137,10 +150,120 @@ public class StorageAsyncLoader
                 UserHandle.of(userId));
         } catch (NameNotFoundException e) {
             Log.e(TAG, "Not able to get Context for user ID " + userId);
-            return 0L;
+            return result;
+        }
+
+        final ContentResolver resolver = perUserContext.getContentResolver();
+        if (!loadGroupedMediaSizes(resolver, result)) {
+            loadMediaSizesPerCategory(resolver, result);
+        }
+
+        final StorageCacheHelper cacheHelper = new StorageCacheHelper(getContext(), userId);
+        // Only refreshes an existing cache, a partial one would be shown as complete next time.
+        if (cacheHelper.hasCachedSizeInfo()) {
+            cacheHelper.cacheFileSizeInfo(result.imagesSize, result.videosSize, result.audioSize,
+                    result.documentsSize, result.otherSize, result.trashSize);
         }
+        return result;
+    }
+
+    /**
+     * Sums the file sizes of every category in a single query grouped by media type.
+     *
+     * @return false if the query isn't supported and the sizes have to be queried one by one
+     */
+    @VisibleForTesting
+    static boolean loadGroupedMediaSizes(ContentResolver resolver, StorageResult result) {
+        final Bundle queryArgs = new Bundle();
+        // Matches the per category queries: the trash counts every trashed file, while the other
+        // categories skip files without a MIME type.
+        queryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION,
+                FileColumns.IS_TRASHED + "=1 OR " + FileColumns.MIME_TYPE + " IS NOT NULL");
+        queryArgs.putString(ContentResolver.QUERY_ARG_SQL_GROUP_BY,
+                FileColumns.IS_TRASHED + ", " + FileColumns.MEDIA_TYPE);
+        queryArgs.putInt(MediaStore.QUERY_ARG_MATCH_TRASHED, MediaStore.MATCH_INCLUDE);
+        try (Cursor cursor = resolver.query(
+                MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                new String[] {
+                        FileColumns.IS_TRASHED,
+                        FileColumns.MEDIA_TYPE,
+                        "sum(" + MediaColumns.SIZE + ")"},
+                queryArgs,
+                null /* cancellationSignal */)) {
+            if (cursor == null) {
+                return false;
+            }
+            while (cursor.moveToNext()) {
+                final long size = cursor.getLong(2);
+                if (cursor.getInt(0) != 0) {
+                    result.trashSize += size;
+                    continue;
+                }
+                switch (cursor.getInt(1)) {
+                    case FileColumns.MEDIA_TYPE_IMAGE:
+                        result.imagesSize += size;
+                        break;
+                    case FileColumns.MEDIA_TYPE_VIDEO:
+                        result.videosSize += size;
+                        break;
+                    case FileColumns.MEDIA_TYPE_AUDIO:
+                        result.audioSize += size;
+                        break;
+                    case FileColumns.MEDIA_TYPE_DOCUMENT:
+                        result.documentsSize += size;
+                        break;
+                    default:
+                        result.otherSize += size;
+                        break;
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException | SecurityException e) {
+            Log.w(TAG, "Grouped media query is not supported", e);
+            return false;
+        }
+    }
+
+    @VisibleForTesting
+    static void loadMediaSizesPerCategory(ContentResolver resolver, StorageResult result) {
+        final Bundle media = new Bundle();
+        media.putString(ContentResolver.QUERY_ARG_SQL_SELECTION, MediaColumns.VOLUME_NAME
+                + "= '" + MediaStore.VOLUME_EXTERNAL_PRIMARY + "'");
+        result.imagesSize = getFilesSize(resolver, MediaStore.Images.Media.EXTERNAL_CONTENT_URI,
+                media /* queryArgs */);
+        result.videosSize = getFilesSize(resolver, MediaStore.Video.Media.EXTERNAL_CONTENT_URI,
+                media /* queryArgs */);
+        result.audioSize = getFilesSize(resolver, MediaStore.Audio.Media.EXTERNAL_CONTENT_URI,
+                media /* queryArgs */);
+
+        final Bundle documentsQueryArgs = new Bundle();
+        documentsQueryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION,
+                FileColumns.MEDIA_TYPE + "=" + FileColumns.MEDIA_TYPE_DOCUMENT);
+        result.documentsSize = getFilesSize(resolver,
+                MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                documentsQueryArgs);
+
+        final Bundle otherQueryArgs = new Bundle();
+        otherQueryArgs.putString(ContentResolver.QUERY_ARG_SQL_SELECTION,
+                FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_IMAGE
+                        + " AND " + FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_VIDEO
+                        + " AND " + FileColumns.MEDIA_TYPE + "!=" + FileColumns.MEDIA_TYPE_AUDIO
+                        + " AND " + FileColumns.MEDIA_TYPE + "!="
+                        + FileColumns.MEDIA_TYPE_DOCUMENT
+                        + " AND " + FileColumns.MIME_TYPE + " IS NOT NULL");
+        result.otherSize = getFilesSize(resolver,
+                MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                otherQueryArgs);
+
+        final Bundle trashQueryArgs = new Bundle();
+        trashQueryArgs.putInt(MediaStore.QUERY_ARG_MATCH_TRASHED, MediaStore.MATCH_ONLY);
+        result.trashSize = getFilesSize(resolver,
+                MediaStore.Files.getContentUri(MediaStore.VOLUME_EXTERNAL_PRIMARY),
+                trashQueryArgs);
+    }
 
-        try (Cursor cursor = perUserContext.getContentResolver().query(
+    private static long getFilesSize(ContentResolver resolver, Uri uri, Bundle queryArgs) {
+        try (Cursor cursor = resolver.query(
                 uri,
                 new String[] {"sum(" + MediaColumns.SIZE + ")"},
                 queryArgs,
@@ -164,8 +287,10 @@ public class StorageAsyncLoader
 
     private StorageResult getAppsAndGamesSize(int userId) {
         Log.d(TAG, "Loading apps");
-        final List<ApplicationInfo> applicationInfos =
-                mPackageManager.getInstalledApplicationsAsUser(0, userId);
+        final List<ApplicationInfo> applicationInfos = mSnapshot != null
+                ? mSnapshot.getInstalledApplicationsAsUser(userId, 0 /* flags */,
+                        () -> mPackageManager.getInstalledApplicationsAsUser(0, userId))
+                : mPackageManager.getInstalledApplicationsAsUser(0, userId);
         final StorageResult result = new StorageResult();
         final UserHandle myUser = UserHandle.of(userId);
         for (int i = 0, size = applicationInfos.size(); i < size; i++) {
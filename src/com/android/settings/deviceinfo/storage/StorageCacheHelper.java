@@ -73,6 +73,22 @@ public class StorageCacheHelper {
                 .apply();
     }
 
+    /**
+     * Cache the file based sizes only, keeping the other cached sizes.
+     */
+    public void cacheFileSizeInfo(long imagesSize, long videosSize, long audioSize,
+            long documentsSize, long otherSize, long trashSize) {
+        mSharedPreferences
+                .edit()
+                .putLong(IMAGES_SIZE_KEY, imagesSize)
+                .putLong(VIDEOS_SIZE_KEY, videosSize)
+                .putLong(AUDIO_SIZE_KEY, audioSize)
+                .putLong(DOCUMENTS_SIZE_KEY, documentsSize)
+                .putLong(OTHER_SIZE_KEY, otherSize)
+                .putLong(TRASH_SIZE_KEY, trashSize)
+                .apply();
+    }
+
     /**
      * Cache total size and total used size
      */
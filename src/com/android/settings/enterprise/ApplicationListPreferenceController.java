@@ -17,19 +17,23 @@
 package com.android.settings.enterprise;
 
 import android.content.Context;
-import android.content.pm.PackageManager;
-import android.util.IconDrawableFactory;
+import android.content.pm.ApplicationInfo;
+import android.graphics.drawable.Drawable;
 
 import androidx.preference.Preference;
 import androidx.preference.PreferenceScreen;
 
+import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
+import com.android.settings.applications.AppIconLabelCache;
 import com.android.settings.applications.ApplicationFeatureProvider;
 import com.android.settings.applications.UserAppInfo;
 import com.android.settings.core.PreferenceControllerMixin;
 import com.android.settingslib.core.AbstractPreferenceController;
+import com.android.settingslib.utils.ThreadUtils;
 import com.android.settingslib.widget.AppPreference;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,13 +42,11 @@ import java.util.List;
  */
 public class ApplicationListPreferenceController extends AbstractPreferenceController implements
         PreferenceControllerMixin, ApplicationFeatureProvider.ListOfAppsCallback {
-    private final PackageManager mPm;
     private SettingsPreferenceFragment mParent;
 
     public ApplicationListPreferenceController(Context context, ApplicationListBuilder builder,
-            PackageManager packageManager, SettingsPreferenceFragment parent) {
+            SettingsPreferenceFragment parent) {
         super(context);
-        mPm = packageManager;
         mParent = parent;
         builder.buildApplicationList(context, this);
     }
@@ -65,17 +67,32 @@ public class ApplicationListPreferenceController extends AbstractPreferenceContr
         if (screen == null) {
             return;
         }
-        final IconDrawableFactory iconDrawableFactory = IconDrawableFactory.newInstance(mContext);
         final Context prefContext = mParent.getPreferenceManager().getContext();
+        final List<Preference> preferences = new ArrayList<>(result.size());
         for (int position = 0; position < result.size(); position++) {
             final UserAppInfo item = result.get(position);
             final Preference preference = new AppPreference(prefContext);
-            preference.setTitle(item.appInfo.loadLabel(mPm));
-            preference.setIcon(iconDrawableFactory.getBadgedIcon(item.appInfo));
+            // Keeps the row height until the label is loaded.
+            preference.setTitle(R.string.summary_placeholder);
             preference.setOrder(position);
             preference.setSelectable(false);
             screen.addPreference(preference);
+            preferences.add(preference);
         }
+        // Labels and icons are loaded in the background and shared with the other app lists.
+        final AppIconLabelCache iconCache = AppIconLabelCache.getInstance(mContext);
+        ThreadUtils.postOnBackgroundThread(() -> {
+            for (int position = 0; position < result.size(); position++) {
+                final Preference preference = preferences.get(position);
+                final ApplicationInfo appInfo = result.get(position).appInfo;
+                final CharSequence label = iconCache.getLabel(appInfo);
+                final Drawable icon = iconCache.getBadgedIcon(appInfo);
+                ThreadUtils.postOnMainThread(() -> {
+                    preference.setTitle(label);
+                    preference.setIcon(icon);
+                });
+            }
+        });
     }
 
     /**
@@ -131,9 +131,7 @@ public final class ConvertUtils {
                         batteryStatus,
                         batteryHealth,
                         bootTimestamp);
-        values.put(
-                BatteryHistEntry.KEY_BATTERY_INFORMATION,
-                convertBatteryInformationToString(batteryInformation));
+        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, batteryInformation.toByteArray());
         // Save the BatteryInformation unencoded string into database for debugging.
         if (Build.TYPE.equals("userdebug")) {
             values.put(
@@ -169,9 +167,7 @@ public final class ConvertUtils {
             final BatteryUsageSlot batteryUsageSlot) {
         final ContentValues values = new ContentValues(2);
         values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, batteryUsageSlot.getStartTimestamp());
-        values.put(
-                BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT,
-                Base64.encodeToString(batteryUsageSlot.toByteArray(), Base64.DEFAULT));
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, batteryUsageSlot.toByteArray());
         return values;
     }
 
@@ -184,22 +180,60 @@ public final class ConvertUtils {
     /** Gets the {@link BatteryInformation} instance from {@link ContentValues}. */
     public static BatteryInformation getBatteryInformation(
             final ContentValues values, final String key) {
-        final BatteryInformation defaultInstance = BatteryInformation.getDefaultInstance();
-        if (values != null && values.containsKey(key)) {
-            return BatteryUtils.parseProtoFromString(values.getAsString(key), defaultInstance);
-        }
-        return defaultInstance;
+        return BatteryUtils.parseProtoFromBytes(
+                getProtoBytes(values, key), BatteryInformation.getDefaultInstance());
     }
 
     /** Gets the {@link BatteryInformation} instance from {@link Cursor}. */
     public static BatteryInformation getBatteryInformation(final Cursor cursor, final String key) {
-        final BatteryInformation defaultInstance = BatteryInformation.getDefaultInstance();
-        final int columnIndex = cursor.getColumnIndex(key);
-        if (columnIndex >= 0) {
-            return BatteryUtils.parseProtoFromString(
-                    cursor.getString(columnIndex), defaultInstance);
+        return BatteryUtils.parseProtoFromBytes(
+                getProtoBytes(cursor, cursor.getColumnIndex(key)),
+                BatteryInformation.getDefaultInstance());
+    }
+
+    /**
+     * Gets the serialized proto stored under {@code key}. Protos are stored as bytes, the Base64
+     * string form written by older versions is still accepted.
+     */
+    @Nullable
+    public static byte[] getProtoBytes(final ContentValues values, final String key) {
+        if (values == null || !values.containsKey(key)) {
+            return null;
+        }
+        final Object value = values.get(key);
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        return value instanceof String ? decodeBase64((String) value) : null;
+    }
+
+    /**
+     * Gets the serialized proto stored in the column. Protos are stored as bytes, the Base64
+     * string form written by older versions is still accepted.
+     */
+    @Nullable
+    public static byte[] getProtoBytes(final Cursor cursor, final int columnIndex) {
+        if (columnIndex < 0) {
+            return null;
+        }
+        switch (cursor.getType(columnIndex)) {
+            case Cursor.FIELD_TYPE_BLOB:
+                return cursor.getBlob(columnIndex);
+            case Cursor.FIELD_TYPE_STRING:
+                return decodeBase64(cursor.getString(columnIndex));
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    private static byte[] decodeBase64(String encoded) {
+        try {
+            return Base64.decode(encoded, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, "Failed to decode Base64 proto", e);
+            return null;
         }
-        return defaultInstance;
     }
 
     /** Gets the encoded string from {@link BatteryReattribute} instance. */
@@ -359,12 +393,10 @@ public final class ConvertUtils {
 
     /** Converts from {@link Cursor} to {@link BatteryUsageSlot} */
     public static BatteryUsageSlot convertToBatteryUsageSlot(final Cursor cursor) {
-        final BatteryUsageSlot defaultInstance = BatteryUsageSlot.getDefaultInstance();
         final int columnIndex =
                 cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
-        return columnIndex < 0
-                ? defaultInstance
-                : BatteryUtils.parseProtoFromString(cursor.getString(columnIndex), defaultInstance);
+        return BatteryUtils.parseProtoFromBytes(
+                getProtoBytes(cursor, columnIndex), BatteryUsageSlot.getDefaultInstance());
     }
 
     /** Converts from {@link Map<Long, BatteryDiffData>} to {@link List<BatteryUsageSlot>} */
@@ -60,6 +60,7 @@ import com.google.common.base.Preconditions;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
@@ -414,16 +415,21 @@ public final class DataProcessor {
             Context context, final Map<Long, Map<String, BatteryHistEntry>> batteryHistoryMap) {
         final long startTime = System.currentTimeMillis();
         final List<Long> rawTimestampList = new ArrayList<>(batteryHistoryMap.keySet());
-        final Map<Long, Map<String, BatteryHistEntry>> resultMap = new ArrayMap();
         if (rawTimestampList.isEmpty()) {
             Log.d(TAG, "empty batteryHistoryMap in getHistoryMapWithExpectedTimestamps()");
-            return resultMap;
+            return new ArrayMap<>();
         }
         Collections.sort(rawTimestampList);
         final long currentTime = getCurrentTimeMillis();
         final List<Long> expectedTimestampList = getTimestampSlots(rawTimestampList, currentTime);
+        final Map<Long, Map<String, BatteryHistEntry>> resultMap =
+                new ArrayMap<>(expectedTimestampList.size());
         interpolateHistory(
-                context, rawTimestampList, expectedTimestampList, batteryHistoryMap, resultMap);
+                context,
+                toLongArray(rawTimestampList),
+                expectedTimestampList,
+                batteryHistoryMap,
+                resultMap);
         Log.d(
                 TAG,
                 String.format(
@@ -512,6 +518,35 @@ public final class DataProcessor {
         return results;
     }
 
+    /**
+     * Same as above with a binary search, for timestamps already sorted in ascending order once
+     * by the caller.
+     */
+    @VisibleForTesting
+    static long[] findNearestTimestamp(final long[] sortedTimestamps, final long target) {
+        final long[] results = new long[2];
+        final int index = Arrays.binarySearch(sortedTimestamps, target);
+        if (index >= 0) {
+            results[0] = target;
+            results[1] = target;
+            return results;
+        }
+        // Uses zero value to represent invalid searching result.
+        final int insertionPoint = -index - 1;
+        results[0] = insertionPoint > 0 ? sortedTimestamps[insertionPoint - 1] : 0;
+        results[1] =
+                insertionPoint < sortedTimestamps.length ? sortedTimestamps[insertionPoint] : 0;
+        return results;
+    }
+
+    private static long[] toLongArray(final List<Long> timestampList) {
+        final long[] timestamps = new long[timestampList.size()];
+        for (int index = 0; index < timestamps.length; index++) {
+            timestamps[index] = timestampList.get(index);
+        }
+        return timestamps;
+    }
+
     static Map<Long, BatteryDiffData> getBatteryDiffDataMap(
             Context context,
             final UserIdsSeries userIdsSeries,
@@ -1101,11 +1136,11 @@ public final class DataProcessor {
      */
     private static void interpolateHistory(
             Context context,
-            final List<Long> rawTimestampList,
+            final long[] rawTimestamps,
             final List<Long> expectedTimestampSlots,
             final Map<Long, Map<String, BatteryHistEntry>> batteryHistoryMap,
             final Map<Long, Map<String, BatteryHistEntry>> resultMap) {
-        if (rawTimestampList.isEmpty() || expectedTimestampSlots.isEmpty()) {
+        if (rawTimestamps.length == 0 || expectedTimestampSlots.isEmpty()) {
             return;
         }
         final int expectedTimestampSlotsSize = expectedTimestampSlots.size();
@@ -1117,7 +1152,7 @@ public final class DataProcessor {
             interpolateHistoryForSlot(
                     context,
                     expectedTimestampSlots.get(index),
-                    rawTimestampList,
+                    rawTimestamps,
                     batteryHistoryMap,
                     resultMap);
         }
@@ -1129,10 +1164,10 @@ public final class DataProcessor {
     private static void interpolateHistoryForSlot(
             Context context,
             final long currentSlot,
-            final List<Long> rawTimestampList,
+            final long[] rawTimestamps,
             final Map<Long, Map<String, BatteryHistEntry>> batteryHistoryMap,
             final Map<Long, Map<String, BatteryHistEntry>> resultMap) {
-        final long[] nearestTimestamps = findNearestTimestamp(rawTimestampList, currentSlot);
+        final long[] nearestTimestamps = findNearestTimestamp(rawTimestamps, currentSlot);
         final long lowerTimestamp = nearestTimestamps[0];
         final long upperTimestamp = nearestTimestamps[1];
         // Case 1: upper timestamp is zero since scheduler is delayed!
@@ -1190,13 +1225,15 @@ public final class DataProcessor {
             return;
         }
         log(context, "apply interpolation arithmetic", currentSlot, null);
-        final Map<String, BatteryHistEntry> newHistEntryMap = new ArrayMap<>();
+        final Map<String, BatteryHistEntry> newHistEntryMap =
+                new ArrayMap<>(upperEntryDataMap.size());
         final double timestampLength = upperTimestamp - lowerTimestamp;
         final double timestampDiff = currentSlot - lowerTimestamp;
         // Applies interpolation arithmetic for each BatteryHistEntry.
-        for (String entryKey : upperEntryDataMap.keySet()) {
+        for (Map.Entry<String, BatteryHistEntry> upperMapEntry : upperEntryDataMap.entrySet()) {
+            final String entryKey = upperMapEntry.getKey();
             final BatteryHistEntry lowerEntry = lowerEntryDataMap.get(entryKey);
-            final BatteryHistEntry upperEntry = upperEntryDataMap.get(entryKey);
+            final BatteryHistEntry upperEntry = upperMapEntry.getValue();
             // Checks whether there is any abnormal battery reset conditions.
             if (lowerEntry != null) {
                 final boolean invalidForegroundUsageTime =
@@ -1339,7 +1376,11 @@ public final class DataProcessor {
         final List<BatteryDiffEntry> systemEntries = new ArrayList<>();
 
         // Collects all keys in these three time slot records as all populations.
-        final Set<String> allBatteryHistEntryKeys = new ArraySet<>();
+        final Set<String> allBatteryHistEntryKeys =
+                new ArraySet<>(
+                        slotBatteryHistoryList.isEmpty()
+                                ? 0
+                                : slotBatteryHistoryList.get(0).size());
         for (Map<String, BatteryHistEntry> slotBatteryHistMap : slotBatteryHistoryList) {
             if (slotBatteryHistMap.isEmpty()) {
                 // We should not get the empty list since we have at least one fake data to record
@@ -1361,18 +1402,20 @@ public final class DataProcessor {
             allBatteryHistEntryKeys.addAll(slotBatteryHistMap.keySet());
         }
 
-        // Calculates all packages diff usage data in a specific time slot.
+        // Calculates all packages diff usage data in a specific time slot. The entries of each
+        // key are collected into one array reused across keys.
+        final int slotCount = slotBatteryHistoryList.size();
+        final BatteryHistEntry[] batteryHistEntries = new BatteryHistEntry[slotCount];
         for (String key : allBatteryHistEntryKeys) {
             if (key == null) {
                 continue;
             }
 
             BatteryHistEntry selectedBatteryEntry = null;
-            final List<BatteryHistEntry> batteryHistEntries = new ArrayList<>();
-            for (Map<String, BatteryHistEntry> slotBatteryHistMap : slotBatteryHistoryList) {
-                BatteryHistEntry entry =
-                        slotBatteryHistMap.getOrDefault(key, EMPTY_BATTERY_HIST_ENTRY);
-                batteryHistEntries.add(entry);
+            for (int i = 0; i < slotCount; i++) {
+                final BatteryHistEntry entry =
+                        slotBatteryHistoryList.get(i).getOrDefault(key, EMPTY_BATTERY_HIST_ENTRY);
+                batteryHistEntries[i] = entry;
                 if (selectedBatteryEntry == null && entry != EMPTY_BATTERY_HIST_ENTRY) {
                     selectedBatteryEntry = entry;
                 }
@@ -1397,9 +1440,9 @@ public final class DataProcessor {
             double foregroundServiceUsageConsumePower = 0;
             double backgroundUsageConsumePower = 0;
             double cachedUsageConsumePower = 0;
-            for (int i = 0; i < batteryHistEntries.size() - 1; i++) {
-                final BatteryHistEntry currentEntry = batteryHistEntries.get(i);
-                final BatteryHistEntry nextEntry = batteryHistEntries.get(i + 1);
+            for (int i = 0; i < slotCount - 1; i++) {
+                final BatteryHistEntry currentEntry = batteryHistEntries[i];
+                final BatteryHistEntry nextEntry = batteryHistEntries[i + 1];
                 foregroundUsageTimeInMs +=
                         getDiffValue(
                                 currentEntry.mForegroundUsageTimeInMs,
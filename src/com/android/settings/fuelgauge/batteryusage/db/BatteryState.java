@@ -19,6 +19,7 @@ package com.android.settings.fuelgauge.batteryusage.db;
 import android.content.ContentValues;
 
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 
 import com.android.settings.fuelgauge.BatteryUtils;
@@ -42,7 +43,8 @@ public class BatteryState {
     public final long timestamp;
     public final int consumerType;
     public final boolean isFullChargeCycleStart;
-    public final String batteryInformation;
+    /** Serialized {@link BatteryInformation}. */
+    public final byte[] batteryInformation;
 
     /**
      * This field is filled only when build type is "userdebug".
@@ -57,6 +59,13 @@ public class BatteryState {
      */
     public final String batteryInformationDebug;
 
+    // Frequently read values copied out of batteryInformation, so they can be queried without
+    // parsing the proto.
+    public final double consumePower;
+    public final long foregroundUsageTimeInMs;
+    public final long backgroundUsageTimeInMs;
+    public final int batteryLevel;
+
     public BatteryState(
             long uid,
             long userId,
@@ -64,8 +73,12 @@ public class BatteryState {
             long timestamp,
             int consumerType,
             boolean isFullChargeCycleStart,
-            String batteryInformation,
-            String batteryInformationDebug) {
+            byte[] batteryInformation,
+            String batteryInformationDebug,
+            double consumePower,
+            long foregroundUsageTimeInMs,
+            long backgroundUsageTimeInMs,
+            int batteryLevel) {
         // Records the app relative information.
         this.uid = uid;
         this.userId = userId;
@@ -75,6 +88,59 @@ public class BatteryState {
         this.isFullChargeCycleStart = isFullChargeCycleStart;
         this.batteryInformation = batteryInformation;
         this.batteryInformationDebug = batteryInformationDebug;
+        this.consumePower = consumePower;
+        this.foregroundUsageTimeInMs = foregroundUsageTimeInMs;
+        this.backgroundUsageTimeInMs = backgroundUsageTimeInMs;
+        this.batteryLevel = batteryLevel;
+    }
+
+    @Ignore
+    public BatteryState(
+            long uid,
+            long userId,
+            String packageName,
+            long timestamp,
+            int consumerType,
+            boolean isFullChargeCycleStart,
+            byte[] batteryInformation,
+            String batteryInformationDebug) {
+        this(
+                uid,
+                userId,
+                packageName,
+                timestamp,
+                consumerType,
+                isFullChargeCycleStart,
+                batteryInformation,
+                batteryInformationDebug,
+                BatteryUtils.parseProtoFromBytes(
+                        batteryInformation, BatteryInformation.getDefaultInstance()));
+    }
+
+    @Ignore
+    private BatteryState(
+            long uid,
+            long userId,
+            String packageName,
+            long timestamp,
+            int consumerType,
+            boolean isFullChargeCycleStart,
+            byte[] batteryInformation,
+            String batteryInformationDebug,
+            BatteryInformation parsedBatteryInformation) {
+        this(
+                uid,
+                userId,
+                packageName,
+                timestamp,
+                consumerType,
+                isFullChargeCycleStart,
+                batteryInformation,
+                batteryInformationDebug,
+                parsedBatteryInformation.getConsumePower(),
+                parsedBatteryInformation.getForegroundUsageTimeInMs(),
+                parsedBatteryInformation.getBackgroundUsageTimeInMs(),
+                parsedBatteryInformation.getDeviceBatteryState().getBatteryLevel());
     }
 
     /** Sets the auto-generated content ID. */
@@ -91,7 +157,7 @@ public class BatteryState {
     public String toString() {
         final String recordAtDateTime = ConvertUtils.utcToLocalTimeForLogging(timestamp);
         final BatteryInformation batteryInformationInstance =
-                BatteryUtils.parseProtoFromString(
+                BatteryUtils.parseProtoFromBytes(
                         batteryInformation, BatteryInformation.getDefaultInstance());
         final StringBuilder builder =
                 new StringBuilder()
@@ -137,7 +203,8 @@ public class BatteryState {
             builder.setIsFullChargeCycleStart(contentValues.getAsBoolean("isFullChargeCycleStart"));
         }
         if (contentValues.containsKey("batteryInformation")) {
-            builder.setBatteryInformation(contentValues.getAsString("batteryInformation"));
+            builder.setBatteryInformation(
+                    ConvertUtils.getProtoBytes(contentValues, "batteryInformation"));
         }
         if (contentValues.containsKey("batteryInformationDebug")) {
             builder.setBatteryInformationDebug(
@@ -159,7 +226,7 @@ public class BatteryState {
         private long mTimestamp;
         private int mConsumerType;
         private boolean mIsFullChargeCycleStart;
-        private String mBatteryInformation;
+        private byte[] mBatteryInformation;
         private String mBatteryInformationDebug;
 
         /** Sets the uid. */
@@ -206,7 +273,7 @@ public class BatteryState {
 
         /** Sets the battery information. */
         @CanIgnoreReturnValue
-        public Builder setBatteryInformation(String batteryInformation) {
+        public Builder setBatteryInformation(byte[] batteryInformation) {
             this.mBatteryInformation = batteryInformation;
             return this;
         }
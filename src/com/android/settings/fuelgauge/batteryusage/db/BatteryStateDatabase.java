@@ -16,13 +16,24 @@
 
 package com.android.settings.fuelgauge.batteryusage.db;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.android.settings.fuelgauge.BatteryUtils;
+import com.android.settings.fuelgauge.batteryusage.BatteryInformation;
+import com.android.settings.fuelgauge.batteryusage.ConvertUtils;
 
 /** A {@link RoomDatabase} for battery usage states history. */
 @Database(
@@ -33,13 +44,28 @@ import androidx.room.RoomDatabase;
             BatteryUsageSlotEntity.class,
             BatteryReattributeEntity.class
         },
-        version = 3)
+        version = 4)
 public abstract class BatteryStateDatabase extends RoomDatabase {
     private static final String TAG = "BatteryStateDatabase";
     private static final String DB_FILE_NAME = "battery-usage-db-v11";
 
     private static BatteryStateDatabase sBatteryStateDatabase;
 
+    /**
+     * Moves the {@link BatteryState} and {@link BatteryUsageSlotEntity} protos from Base64
+     * strings to BLOBs, and copies the frequently read {@link BatteryInformation} values of
+     * each {@link BatteryState} into their own columns.
+     */
+    @VisibleForTesting
+    static final Migration MIGRATION_3_4 =
+            new Migration(3, 4) {
+                @Override
+                public void migrate(@NonNull SupportSQLiteDatabase db) {
+                    migrateBatteryStateTo4(db);
+                    migrateBatteryUsageSlotTo4(db);
+                }
+            };
+
     /** Provides DAO for app usage event table. */
     public abstract AppUsageEventDao appUsageEventDao();
 
@@ -63,6 +89,7 @@ public abstract class BatteryStateDatabase extends RoomDatabase {
                     Room.databaseBuilder(context, BatteryStateDatabase.class, DB_FILE_NAME)
                             // Allows accessing data in the main thread for dumping bugreport.
                             .allowMainThreadQueries()
+                            .addMigrations(MIGRATION_3_4)
                             .fallbackToDestructiveMigration()
                             .build();
             Log.d(TAG, "initialize battery states database");
@@ -74,4 +101,69 @@ public abstract class BatteryStateDatabase extends RoomDatabase {
     public static void setBatteryStateDatabase(BatteryStateDatabase database) {
         BatteryStateDatabase.sBatteryStateDatabase = database;
     }
+
+    private static void migrateBatteryStateTo4(SupportSQLiteDatabase db) {
+        db.execSQL(
+                "CREATE TABLE `BatteryState_new` ("
+                        + "`mId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "`uid` INTEGER NOT NULL, "
+                        + "`userId` INTEGER NOT NULL, "
+                        + "`packageName` TEXT, "
+                        + "`timestamp` INTEGER NOT NULL, "
+                        + "`consumerType` INTEGER NOT NULL, "
+                        + "`isFullChargeCycleStart` INTEGER NOT NULL, "
+                        + "`batteryInformation` BLOB, "
+                        + "`batteryInformationDebug` TEXT, "
+                        + "`consumePower` REAL NOT NULL, "
+                        + "`foregroundUsageTimeInMs` INTEGER NOT NULL, "
+                        + "`backgroundUsageTimeInMs` INTEGER NOT NULL, "
+                        + "`batteryLevel` INTEGER NOT NULL)");
+        try (Cursor cursor = db.query("SELECT * FROM `BatteryState`")) {
+            final int informationIndex = cursor.getColumnIndex("batteryInformation");
+            final ContentValues values = new ContentValues();
+            while (cursor.moveToNext()) {
+                values.clear();
+                DatabaseUtils.cursorRowToContentValues(cursor, values);
+                final byte[] batteryInformation =
+                        ConvertUtils.getProtoBytes(cursor, informationIndex);
+                final BatteryInformation parsed =
+                        BatteryUtils.parseProtoFromBytes(
+                                batteryInformation, BatteryInformation.getDefaultInstance());
+                values.put("batteryInformation", batteryInformation);
+                values.put("consumePower", parsed.getConsumePower());
+                values.put("foregroundUsageTimeInMs", parsed.getForegroundUsageTimeInMs());
+                values.put("backgroundUsageTimeInMs", parsed.getBackgroundUsageTimeInMs());
+                values.put("batteryLevel", parsed.getDeviceBatteryState().getBatteryLevel());
+                db.insert("BatteryState_new", SQLiteDatabase.CONFLICT_REPLACE, values);
+            }
+        }
+        db.execSQL("DROP TABLE `BatteryState`");
+        db.execSQL("ALTER TABLE `BatteryState_new` RENAME TO `BatteryState`");
+    }
+
+    private static void migrateBatteryUsageSlotTo4(SupportSQLiteDatabase db) {
+        db.execSQL(
+                "CREATE TABLE `BatteryUsageSlotEntity_new` ("
+                        + "`mId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                        + "`timestamp` INTEGER NOT NULL, "
+                        + "`batteryUsageSlot` BLOB)");
+        try (Cursor cursor = db.query("SELECT * FROM `BatteryUsageSlotEntity`")) {
+            final int idIndex = cursor.getColumnIndex("mId");
+            final int timestampIndex = cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_TIMESTAMP);
+            final int slotIndex =
+                    cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT);
+            final ContentValues values = new ContentValues();
+            while (cursor.moveToNext()) {
+                values.clear();
+                values.put("mId", cursor.getLong(idIndex));
+                values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, cursor.getLong(timestampIndex));
+                values.put(
+                        BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT,
+                        ConvertUtils.getProtoBytes(cursor, slotIndex));
+                db.insert("BatteryUsageSlotEntity_new", SQLiteDatabase.CONFLICT_REPLACE, values);
+            }
+        }
+        db.execSQL("DROP TABLE `BatteryUsageSlotEntity`");
+        db.execSQL("ALTER TABLE `BatteryUsageSlotEntity_new` RENAME TO `BatteryUsageSlotEntity`");
+    }
 }
@@ -39,9 +39,10 @@ public class BatteryUsageSlotEntity {
     private long mId;
 
     public final long timestamp;
-    public final String batteryUsageSlot;
+    /** Serialized {@link com.android.settings.fuelgauge.batteryusage.BatteryUsageSlot}. */
+    public final byte[] batteryUsageSlot;
 
-    public BatteryUsageSlotEntity(final long timestamp, final String batteryUsageSlot) {
+    public BatteryUsageSlotEntity(final long timestamp, final byte[] batteryUsageSlot) {
         this.timestamp = timestamp;
         this.batteryUsageSlot = batteryUsageSlot;
     }
@@ -65,9 +66,9 @@ public class BatteryUsageSlotEntity {
                         .append(
                                 String.format(
                                         Locale.US,
-                                        "\n\ttimestamp=%s|batteryUsageSlot=%s",
+                                        "\n\ttimestamp=%s|batteryUsageSlot=%d bytes",
                                         recordAtDateTime,
-                                        batteryUsageSlot))
+                                        batteryUsageSlot == null ? 0 : batteryUsageSlot.length))
                         .append("\n}");
         return builder.toString();
     }
@@ -79,7 +80,8 @@ public class BatteryUsageSlotEntity {
             builder.setTimestamp(contentValues.getAsLong(KEY_TIMESTAMP));
         }
         if (contentValues.containsKey(KEY_BATTERY_USAGE_SLOT)) {
-            builder.setBatteryUsageSlot(contentValues.getAsString(KEY_BATTERY_USAGE_SLOT));
+            builder.setBatteryUsageSlot(
+                    ConvertUtils.getProtoBytes(contentValues, KEY_BATTERY_USAGE_SLOT));
         }
         return builder.build();
     }
@@ -92,7 +94,7 @@ public class BatteryUsageSlotEntity {
     /** A convenience builder class to improve readability. */
     public static class Builder {
         private long mTimestamp;
-        private String mBatteryUsageSlot;
+        private byte[] mBatteryUsageSlot;
 
         /** Sets the timestamp. */
         @CanIgnoreReturnValue
@@ -103,7 +105,7 @@ public class BatteryUsageSlotEntity {
 
         /** Sets the battery usage slot. */
         @CanIgnoreReturnValue
-        public Builder setBatteryUsageSlot(final String batteryUsageSlot) {
+        public Builder setBatteryUsageSlot(final byte[] batteryUsageSlot) {
             mBatteryUsageSlot = batteryUsageSlot;
             return this;
         }
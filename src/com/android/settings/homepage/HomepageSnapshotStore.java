@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.ArrayMap;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.android.settings.utils.ParcelSnapshotFile;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Persists the titles and summaries last shown on the top level settings page, so a cold
+ * start can draw them before the controllers and injected tiles have loaded their live values.
+ * <p/>
+ * A snapshot is only handed back for the build and resource configuration it was written with.
+ * It is read in the background, starting when the homepage activity is created, see
+ * {@link #preload}.
+ */
+class HomepageSnapshotStore {
+
+    @VisibleForTesting
+    static final String FILE_NAME = "homepage_snapshot";
+    // Bump when the snapshot layout changes.
+    private static final int VERSION = 1;
+
+    private static HomepageSnapshotStore sInstance;
+
+    private final ParcelSnapshotFile mFile;
+
+    // The state of the preload, guarded by this.
+    private boolean mLoading;
+    private boolean mLoaded;
+    @Nullable
+    private Map<String, Entry> mEntries;
+    @Nullable
+    private Consumer<Map<String, Entry>> mCallback;
+
+    static synchronized HomepageSnapshotStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new HomepageSnapshotStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    HomepageSnapshotStore(Context context) {
+        mFile = new ParcelSnapshotFile(context, FILE_NAME, VERSION, false /* perBoot */);
+    }
+
+    /** Starts reading the snapshot in the background, unless it is read already. */
+    void preload(Context context) {
+        final String configFingerprint = getConfigFingerprint(context);
+        synchronized (this) {
+            if (mLoading || mLoaded) {
+                return;
+            }
+            mLoading = true;
+        }
+        ThreadUtils.postOnBackgroundThread(() -> {
+            final Map<String, Entry> entries = load(configFingerprint);
+            final Consumer<Map<String, Entry>> callback;
+            synchronized (this) {
+                mLoading = false;
+                callback = mCallback;
+                mCallback = null;
+                if (callback == null) {
+                    mLoaded = true;
+                    mEntries = entries;
+                }
+            }
+            if (callback != null) {
+                ThreadUtils.postOnMainThread(() -> callback.accept(entries));
+            }
+        });
+    }
+
+    /**
+     * Hands the snapshot to {@param callback} on the main thread, right away if it is read
+     * already or once it is. The entries are null if there is no snapshot or it was written for
+     * another build or configuration. The snapshot is read again for the next caller.
+     */
+    void getEntries(Context context, Consumer<Map<String, Entry>> callback) {
+        preload(context);
+        final Map<String, Entry> entries;
+        synchronized (this) {
+            if (!mLoaded) {
+                mCallback = callback;
+                return;
+            }
+            entries = mEntries;
+            mLoaded = false;
+            mEntries = null;
+        }
+        callback.accept(entries);
+    }
+
+    /**
+     * Returns the persisted entries keyed by preference key, or null if there is no snapshot or
+     * it was written for another build or configuration.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    @Nullable
+    Map<String, Entry> load(Context context) {
+        return load(getConfigFingerprint(context));
+    }
+
+    @WorkerThread
+    @Nullable
+    private Map<String, Entry> load(String configFingerprint) {
+        return mFile.read(configFingerprint, parcel -> {
+            final int size = parcel.readInt();
+            final Map<String, Entry> entries = new ArrayMap<>(size);
+            for (int i = 0; i < size; i++) {
+                final String key = parcel.readString();
+                final CharSequence title = TextUtils.CHAR_SEQUENCE_CREATOR.createFromParcel(parcel);
+                final CharSequence summary =
+                        TextUtils.CHAR_SEQUENCE_CREATOR.createFromParcel(parcel);
+                entries.put(key, new Entry(title, summary));
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * Persists the entries. They are marshalled on the calling thread and written to disk in the
+     * background.
+     */
+    void save(Context context, Map<String, Entry> entries) {
+        final byte[] data = mFile.marshall(getConfigFingerprint(context), parcel -> {
+            parcel.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                parcel.writeString(entry.getKey());
+                TextUtils.writeToParcel(entry.getValue().mTitle, parcel, 0 /* flags */);
+                TextUtils.writeToParcel(entry.getValue().mSummary, parcel, 0 /* flags */);
+            }
+        });
+        if (data != null) {
+            ThreadUtils.postOnBackgroundThread(() -> mFile.write(data));
+        }
+    }
+
+    private static String getConfigFingerprint(Context context) {
+        // Titles and summaries are text, so the font scale changes them too.
+        return ParcelSnapshotFile.getConfigFingerprint(context) + "/"
+                + context.getResources().getConfiguration().fontScale;
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        sInstance = null;
+    }
+
+    /** Title and summary of a preference as last shown. */
+    static class Entry {
+        @Nullable
+        final CharSequence mTitle;
+        @Nullable
+        final CharSequence mSummary;
+
+        Entry(@Nullable CharSequence title, @Nullable CharSequence summary) {
+            mTitle = title;
+            mSummary = summary;
+        }
+    }
+}
@@ -252,6 +252,11 @@ public class SettingsHomepageActivity extends FragmentActivity implements
             return;
         }
 
+        if (savedInstanceState == null) {
+            // Read the last shown summaries while the layout inflates, see TopLevelSettings.
+            HomepageSnapshotStore.getInstance(this).preload(this);
+        }
+
         setupEdgeToEdge();
         setContentView(
                 Flags.homepageRevamp()
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import com.android.settings.accessibility.TopLevelAccessibilityPreferenceController;
+import com.android.settings.accounts.TopLevelAccountEntryPreferenceController;
+import com.android.settings.communal.CommunalPreferenceController;
+import com.android.settings.connecteddevice.TopLevelConnectedDevicesPreferenceController;
+import com.android.settings.core.PreferenceControllerRegistry;
+import com.android.settings.deviceinfo.TopLevelStoragePreferenceController;
+import com.android.settings.deviceinfo.aboutphone.TopLevelAboutDevicePreferenceController;
+import com.android.settings.display.TopLevelDisplayPreferenceController;
+import com.android.settings.display.TopLevelWallpaperPreferenceController;
+import com.android.settings.fuelgauge.TopLevelBatteryPreferenceController;
+import com.android.settings.location.TopLevelLocationPreferenceController;
+import com.android.settings.network.TopLevelNetworkEntryPreferenceController;
+import com.android.settings.notification.modes.ZenModesLinkPreferenceController;
+import com.android.settings.privacy.TopLevelPrivacyEntryPreferenceController;
+import com.android.settings.safetycenter.TopLevelSafetyCenterEntryPreferenceController;
+import com.android.settings.security.TopLevelSecurityEntryPreferenceController;
+import com.android.settings.sound.TopLevelSoundPreferenceController;
+import com.android.settings.support.SupportPreferenceController;
+
+/**
+ * Registers the controllers declared in the homepage xml with
+ * {@link PreferenceControllerRegistry}, so the homepage doesn't create them through reflection on
+ * every cold start.
+ */
+final class TopLevelControllerFactories {
+
+    private TopLevelControllerFactories() {
+    }
+
+    static void register() {
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelAccessibilityPreferenceController.class,
+                TopLevelAccessibilityPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelAccountEntryPreferenceController.class,
+                TopLevelAccountEntryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                CommunalPreferenceController.class, CommunalPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelConnectedDevicesPreferenceController.class,
+                TopLevelConnectedDevicesPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelStoragePreferenceController.class,
+                TopLevelStoragePreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelAboutDevicePreferenceController.class,
+                TopLevelAboutDevicePreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelDisplayPreferenceController.class,
+                TopLevelDisplayPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelWallpaperPreferenceController.class,
+                TopLevelWallpaperPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelBatteryPreferenceController.class,
+                TopLevelBatteryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelLocationPreferenceController.class,
+                TopLevelLocationPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelNetworkEntryPreferenceController.class,
+                TopLevelNetworkEntryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                ZenModesLinkPreferenceController.class, ZenModesLinkPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelPrivacyEntryPreferenceController.class,
+                TopLevelPrivacyEntryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelSafetyCenterEntryPreferenceController.class,
+                TopLevelSafetyCenterEntryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelSecurityEntryPreferenceController.class,
+                TopLevelSecurityEntryPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                TopLevelSoundPreferenceController.class, TopLevelSoundPreferenceController::new);
+        PreferenceControllerRegistry.registerKeyedFactory(
+                SupportPreferenceController.class, SupportPreferenceController::new);
+    }
+}
@@ -27,11 +27,13 @@ import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.provider.SearchIndexableResource;
 import android.text.TextUtils;
+import android.util.ArrayMap;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.fragment.app.Fragment;
 import androidx.preference.Preference;
@@ -61,6 +63,8 @@ import com.android.settingslib.search.SearchIndexable;
 import com.android.settingslib.widget.SettingsThemeHelper;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @SearchIndexable(forTarget = MOBILE)
 public class TopLevelSettings extends DashboardFragment implements SplitLayoutListener,
@@ -69,6 +73,11 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
     private static final String TAG = "TopLevelSettings";
     private static final String SAVED_HIGHLIGHT_MIXIN = "highlight_mixin";
     private static final String PREF_KEY_SUPPORT = "top_level_support";
+    private static final String PREF_KEY_BATTERY = "top_level_battery";
+    private static final String PREF_KEY_STORAGE = "top_level_storage";
+    // Preferences whose summaries load in the background and are always replaced by their
+    // controllers. Only these are snapshotted, so a stale value can't outlive the first load.
+    private static final Set<String> SNAPSHOT_KEYS = Set.of(PREF_KEY_BATTERY, PREF_KEY_STORAGE);
 
     private boolean mIsEmbeddingActivityEnabled;
     private TopLevelHighlightMixin mHighlightMixin;
@@ -76,6 +85,11 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
     private boolean mScrollNeeded = true;
     private boolean mFirstStarted = true;
     private ActivityEmbeddingController mActivityEmbeddingController;
+    private HomepageSnapshotStore mSnapshotStore;
+
+    static {
+        TopLevelControllerFactories.register();
+    }
 
     public TopLevelSettings() {
         final Bundle args = new Bundle();
@@ -110,6 +124,7 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
     public void onAttach(Context context) {
         super.onAttach(context);
         HighlightableMenu.fromXml(context, getPreferenceScreenResId());
+        mSnapshotStore = HomepageSnapshotStore.getInstance(context);
         use(SupportPreferenceController.class).setActivity(getActivity());
     }
 
@@ -200,6 +215,12 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
         super.onStart();
     }
 
+    @Override
+    public void onStop() {
+        super.onStop();
+        saveSnapshot();
+    }
+
     private boolean isOnlyOneActivityInTask() {
         final ActivityManager.RunningTaskInfo taskInfo = getSystemService(ActivityManager.class)
                 .getRunningTasks(1).get(0);
@@ -217,6 +238,9 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
         super.onCreatePreferences(savedInstanceState, rootKey);
+        if (savedInstanceState == null) {
+            mSnapshotStore.getEntries(getContext(), this::applySnapshot);
+        }
         if (Flags.homepageRevamp()) {
             return;
         }
@@ -229,6 +253,57 @@ public class TopLevelSettings extends DashboardFragment implements SplitLayoutLi
         });
     }
 
+    /**
+     * Shows the titles and summaries of the last visit until the controllers replace them with
+     * live values, so the first frame doesn't show placeholders. The snapshot is read in the
+     * background and may arrive after a controller, so only placeholders are replaced.
+     */
+    private void applySnapshot(@Nullable Map<String, HomepageSnapshotStore.Entry> entries) {
+        if (entries == null || getContext() == null || getPreferenceScreen() == null) {
+            return;
+        }
+        final CharSequence placeholder = getContext().getText(R.string.summary_placeholder);
+        iteratePreferences(preference -> {
+            if (TextUtils.isEmpty(preference.getKey())
+                    || !SNAPSHOT_KEYS.contains(preference.getKey())) {
+                return;
+            }
+            final HomepageSnapshotStore.Entry entry = entries.get(preference.getKey());
+            if (entry == null) {
+                return;
+            }
+            if (entry.mTitle != null && (preference.getTitle() == null
+                    || TextUtils.equals(preference.getTitle(), placeholder))) {
+                preference.setTitle(entry.mTitle);
+            }
+            if (entry.mSummary != null && preference.getSummaryProvider() == null
+                    && (preference.getSummary() == null
+                    || TextUtils.equals(preference.getSummary(), placeholder))) {
+                preference.setSummary(entry.mSummary);
+            }
+        });
+    }
+
+    private void saveSnapshot() {
+        if (mSnapshotStore == null) {
+            return;
+        }
+        final Map<String, HomepageSnapshotStore.Entry> entries = new ArrayMap<>();
+        final CharSequence placeholder = getContext().getText(R.string.summary_placeholder);
+        iteratePreferences(preference -> {
+            if (TextUtils.isEmpty(preference.getKey())
+                    || !SNAPSHOT_KEYS.contains(preference.getKey())) {
+                return;
+            }
+            final CharSequence title = preference.getTitle();
+            final CharSequence summary = preference.getSummary();
+            entries.put(preference.getKey(), new HomepageSnapshotStore.Entry(
+                    TextUtils.equals(title, placeholder) ? null : title,
+                    TextUtils.equals(summary, placeholder) ? null : summary));
+        });
+        mSnapshotStore.save(getContext(), entries);
+    }
+
     @Override
     public void onConfigurationChanged(Configuration newConfig) {
         super.onConfigurationChanged(newConfig);
@@ -26,6 +26,7 @@ import android.database.Cursor;
 import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.util.Log;
 
@@ -40,11 +41,16 @@ import com.android.settingslib.utils.AsyncLoaderCompat;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 public class ContextualCardLoader extends AsyncLoaderCompat<List<ContextualCard>> {
 
@@ -56,11 +62,20 @@ public class ContextualCardLoader extends AsyncLoaderCompat<List<ContextualCard>
 
     private static final String TAG = "ContextualCardLoader";
     private static final long ELIGIBILITY_CHECKER_TIMEOUT_MS = 400;
+    private static final int ELIGIBILITY_CHECKER_THREADS = 4;
+    private static final int ELIGIBILITY_CHECKER_QUEUE_SIZE = 32;
+    private static final long ELIGIBILITY_CHECKER_KEEP_ALIVE_MS = 30000;
+
+    private static ExecutorService sEligibilityExecutor;
 
     private final ContentObserver mObserver = new ContentObserver(
             new Handler(Looper.getMainLooper())) {
         @Override
         public void onChange(boolean selfChange, Uri uri) {
+            if (CardContentProvider.REFRESH_CARD_URI.equals(uri)) {
+                // A card failed to render its slice, so cached eligibility can't be trusted.
+                EligibleCardCache.getInstance().clear();
+            }
             if (isStarted()) {
                 mNotifyUri = uri;
                 forceLoad();
@@ -181,48 +196,124 @@ public class ContextualCardLoader extends AsyncLoaderCompat<List<ContextualCard>
         return cardFeatureProvider.getContextualCards();
     }
 
+    /**
+     * Returns the eligible cards in candidate order. Cards checked within
+     * {@link EligibleCardCache#TTL_MS} are served from {@link EligibleCardCache}. A check already
+     * in flight for a slice uri is joined instead of started again, and checks that miss the
+     * timeout are cancelled.
+     */
     @VisibleForTesting
     List<ContextualCard> filterEligibleCards(List<ContextualCard> candidates) {
         if (candidates.isEmpty()) {
             return candidates;
         }
 
-        final ExecutorService executor = Executors.newFixedThreadPool(candidates.size());
-        final List<ContextualCard> cards = new ArrayList<>();
-        List<Future<ContextualCard>> eligibleCards = new ArrayList<>();
+        final EligibleCardCache cache = EligibleCardCache.getInstance();
+        final ExecutorService executor = getEligibilityExecutor();
+        final ContextualCard[] results = new ContextualCard[candidates.size()];
+        final List<Future<ContextualCard>> pendingChecks = new ArrayList<>(candidates.size());
 
-        final List<EligibleCardChecker> checkers = candidates.stream()
-                .map(card -> new EligibleCardChecker(mContext, card))
-                .collect(Collectors.toList());
-        try {
-            eligibleCards = executor.invokeAll(checkers, ELIGIBILITY_CHECKER_TIMEOUT_MS,
-                    TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            Log.w(TAG, "Failed to get eligible states for all cards", e);
+        for (int i = 0; i < candidates.size(); i++) {
+            final ContextualCard candidate = candidates.get(i);
+            final EligibleCardCache.Entry entry = cache.get(candidate.getSliceUri());
+            if (entry == null) {
+                pendingChecks.add(startCheck(executor, candidate));
+                continue;
+            }
+            pendingChecks.add(null);
+            final boolean eligible = entry.isEligible() && candidate.getRankingScore() >= 0;
+            if (eligible) {
+                results[i] = entry.applyTo(candidate);
+            }
+            // Nothing was loaded, so only the eligibility is logged, not a load time.
+            EligibleCardChecker.logEligibility(candidate, eligible);
         }
-        executor.shutdown();
 
-        // Collect future and eligible cards
-        for (int i = 0; i < eligibleCards.size(); i++) {
-            final Future<ContextualCard> cardFuture = eligibleCards.get(i);
-            if (cardFuture.isCancelled()) {
-                Log.w(TAG, "Timeout getting eligible state for card: "
-                        + candidates.get(i).getSliceUri());
+        final long deadline = SystemClock.elapsedRealtime() + ELIGIBILITY_CHECKER_TIMEOUT_MS;
+        for (int i = 0; i < pendingChecks.size(); i++) {
+            final Future<ContextualCard> cardFuture = pendingChecks.get(i);
+            if (cardFuture == null) {
                 continue;
             }
-
+            final ContextualCard candidate = candidates.get(i);
             try {
-                final ContextualCard card = cardFuture.get();
-                if (card != null) {
-                    cards.add(card);
+                final ContextualCard card = cardFuture.get(
+                        Math.max(0, deadline - SystemClock.elapsedRealtime()),
+                        TimeUnit.MILLISECONDS);
+                // The check may have been started for the same uri by an earlier load.
+                if (card != null && candidate.getRankingScore() >= 0) {
+                    results[i] = EligibleCardCache.applySliceState(card, candidate);
                 }
-            } catch (Exception e) {
+            } catch (TimeoutException e) {
+                Log.w(TAG, "Timeout getting eligible state for card: "
+                        + candidate.getSliceUri());
+                cardFuture.cancel(true /* mayInterruptIfRunning */);
+            } catch (InterruptedException e) {
+                Log.w(TAG, "Failed to get eligible states for all cards", e);
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | CancellationException e) {
                 Log.w(TAG, "Failed to get eligible state for card", e);
             }
         }
+
+        final List<ContextualCard> cards = new ArrayList<>(candidates.size());
+        for (ContextualCard card : results) {
+            if (card != null) {
+                cards.add(card);
+            }
+        }
         return cards;
     }
 
+    @VisibleForTesting
+    EligibleCardChecker createEligibleCardChecker(ContextualCard card) {
+        return new EligibleCardChecker(mContext, card);
+    }
+
+    /** Returns the in-flight check of the card's slice uri, starting one if there is none. */
+    private Future<ContextualCard> startCheck(ExecutorService executor, ContextualCard card) {
+        final Uri uri = card.getSliceUri();
+        final EligibleCardCache cache = EligibleCardCache.getInstance();
+        final EligibleCardChecker checker = createEligibleCardChecker(card);
+        final FutureTask<ContextualCard> check = new FutureTask<ContextualCard>(() -> {
+            final ContextualCard result = checker.call();
+            // Ranking is per candidate, so only slice state is worth remembering.
+            if (card.getRankingScore() >= 0) {
+                cache.put(uri, result);
+            }
+            return result;
+        }) {
+            @Override
+            protected void done() {
+                cache.finishCheck(uri, this);
+            }
+        };
+        final Future<ContextualCard> inFlightCheck = cache.putCheckIfAbsent(uri, check);
+        if (inFlightCheck != null) {
+            return inFlightCheck;
+        }
+        try {
+            executor.execute(check);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Too many pending eligibility checks, skipping card: " + uri);
+            check.cancel(false /* mayInterruptIfRunning */);
+        }
+        return check;
+    }
+
+    private static synchronized ExecutorService getEligibilityExecutor() {
+        if (sEligibilityExecutor == null) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    ELIGIBILITY_CHECKER_THREADS, ELIGIBILITY_CHECKER_THREADS,
+                    ELIGIBILITY_CHECKER_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(ELIGIBILITY_CHECKER_QUEUE_SIZE));
+            executor.allowCoreThreadTimeOut(true);
+            sEligibilityExecutor = executor;
+        }
+        return sEligibilityExecutor;
+    }
+
     private boolean isLargeCard(ContextualCard card) {
         return card.getSliceUri().equals(BLUETOOTH_DEVICES_SLICE_URI);
     }
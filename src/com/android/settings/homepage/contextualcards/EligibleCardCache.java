@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage.contextualcards;
+
+import android.net.Uri;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Process-wide cache of {@link EligibleCardChecker} results keyed by slice uri, so reopening the
+ * homepage doesn't bind every card slice again. A result is only served for {@link #TTL_MS}, so
+ * a cached slice is never older than that.
+ */
+class EligibleCardCache {
+
+    @VisibleForTesting
+    static final long TTL_MS = 10000;
+
+    private static final EligibleCardCache sInstance = new EligibleCardCache();
+
+    private final Map<Uri, Entry> mEntries = new ConcurrentHashMap<>();
+    private final Map<Uri, Future<ContextualCard>> mInFlightChecks = new ConcurrentHashMap<>();
+
+    static EligibleCardCache getInstance() {
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    EligibleCardCache() {
+    }
+
+    /**
+     * Returns the cached result for the slice uri, or null if the uri was never checked or its
+     * result is older than {@link #TTL_MS}.
+     */
+    @Nullable
+    Entry get(Uri uri) {
+        final Entry entry = mEntries.get(uri);
+        if (entry != null && entry.isExpired()) {
+            mEntries.remove(uri, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /** Records the checker result; a null card means the slice is not eligible. */
+    void put(Uri uri, @Nullable ContextualCard card) {
+        mEntries.put(uri, new Entry(card, SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Records {@code check} as the in-flight check of the slice uri, unless one is already in
+     * flight; returns the existing check in that case, null otherwise.
+     */
+    @Nullable
+    Future<ContextualCard> putCheckIfAbsent(Uri uri, Future<ContextualCard> check) {
+        return mInFlightChecks.putIfAbsent(uri, check);
+    }
+
+    void finishCheck(Uri uri, Future<ContextualCard> check) {
+        mInFlightChecks.remove(uri, check);
+    }
+
+    void clear() {
+        mEntries.clear();
+        mInFlightChecks.clear();
+    }
+
+    static class Entry {
+        @Nullable
+        final ContextualCard mCard;
+        final long mCheckedTime;
+
+        Entry(@Nullable ContextualCard card, long checkedTime) {
+            mCard = card;
+            mCheckedTime = checkedTime;
+        }
+
+        boolean isEligible() {
+            return mCard != null;
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - mCheckedTime > TTL_MS;
+        }
+
+        /** Applies the cached slice state to a freshly loaded candidate. */
+        ContextualCard applyTo(ContextualCard candidate) {
+            return applySliceState(mCard, candidate);
+        }
+    }
+
+    /** Copies the slice state of a checked card onto a freshly loaded candidate. */
+    static ContextualCard applySliceState(ContextualCard checked, ContextualCard candidate) {
+        return candidate.mutate()
+                .setSlice(checked.getSlice())
+                .setHasInlineAction(checked.hasInlineAction())
+                .build();
+    }
+}
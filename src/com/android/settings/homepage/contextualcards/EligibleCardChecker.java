@@ -55,31 +55,30 @@ public class EligibleCardChecker implements Callable<ContextualCard> {
     @Override
     public ContextualCard call() {
         final long startTime = System.currentTimeMillis();
+        final ContextualCard result = isCardEligibleToDisplay(mCard) ? mCard : null;
+        logResult(mCard, result != null, System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /** Logs the eligibility of a card, also for results served from {@link EligibleCardCache}. */
+    static void logEligibility(ContextualCard card, boolean eligible) {
+        FeatureFactory.getFeatureFactory().getMetricsFeatureProvider().action(
+                SettingsEnums.PAGE_UNKNOWN,
+                SettingsEnums.ACTION_CONTEXTUAL_CARD_ELIGIBILITY,
+                SettingsEnums.SETTINGS_HOMEPAGE,
+                card.getTextSliceUri() /* key */, eligible ? 1 /* true */ : 0 /* false */);
+    }
+
+    private static void logResult(ContextualCard card, boolean eligible, long loadTimeMs) {
+        logEligibility(card, eligible);
         final MetricsFeatureProvider metricsFeatureProvider =
                 FeatureFactory.getFeatureFactory().getMetricsFeatureProvider();
-        ContextualCard result;
-
-        if (isCardEligibleToDisplay(mCard)) {
-            metricsFeatureProvider.action(SettingsEnums.PAGE_UNKNOWN,
-                    SettingsEnums.ACTION_CONTEXTUAL_CARD_ELIGIBILITY,
-                    SettingsEnums.SETTINGS_HOMEPAGE,
-                    mCard.getTextSliceUri() /* key */, 1 /* true */);
-            result = mCard;
-        } else {
-            metricsFeatureProvider.action(SettingsEnums.PAGE_UNKNOWN,
-                    SettingsEnums.ACTION_CONTEXTUAL_CARD_ELIGIBILITY,
-                    SettingsEnums.SETTINGS_HOMEPAGE,
-                    mCard.getTextSliceUri() /* key */, 0 /* false */);
-            result = null;
-        }
         // Log individual card loading time
         metricsFeatureProvider.action(SettingsEnums.PAGE_UNKNOWN,
                 SettingsEnums.ACTION_CONTEXTUAL_CARD_LOAD,
                 SettingsEnums.SETTINGS_HOMEPAGE,
-                mCard.getTextSliceUri() /* key */,
-                (int) (System.currentTimeMillis() - startTime) /* value */);
-
-        return result;
+                card.getTextSliceUri() /* key */,
+                (int) loadTimeMs /* value */);
     }
 
     @VisibleForTesting
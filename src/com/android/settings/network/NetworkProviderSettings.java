@@ -37,6 +37,7 @@ import android.net.wifi.WifiConfiguration;
 import android.net.wifi.WifiManager;
 import android.os.Bundle;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.os.UserHandle;
 import android.os.UserManager;
 import android.provider.Settings;
@@ -114,6 +115,7 @@ import com.google.android.setupcompat.template.FooterButtonStyleUtils;
 import com.google.android.setupcompat.util.WizardManagerHelper;
 import com.google.android.setupdesign.GlifPreferenceLayout;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -214,6 +216,16 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
             view.postDelayed(mRemoveLoadingRunnable, 10);
         }
     };
+    // Coalesces bursts of WifiPickerTracker callbacks into one update per frame.
+    private boolean mIsWifiEntriesUpdatePending;
+    private int mPendingWifiEntriesCallbacks;
+    @VisibleForTesting
+    final Runnable mWifiEntriesChangedRunnable = () -> {
+        mIsWifiEntriesUpdatePending = false;
+        updateWifiEntryPreferences();
+    };
+    @VisibleForTesting
+    WifiEntryDiffer mWifiEntryDiffer = new WifiEntryDiffer();
     @VisibleForTesting
     final Runnable mHideProgressBarRunnable = () -> {
         setProgressBarVisible(false);
@@ -660,6 +672,8 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
     public void onStop() {
         getView().removeCallbacks(mRemoveLoadingRunnable);
         getView().removeCallbacks(mUpdateWifiEntryPreferencesRunnable);
+        getView().removeCallbacks(mWifiEntriesChangedRunnable);
+        mIsWifiEntriesUpdatePending = false;
         getView().removeCallbacks(mHideProgressBarRunnable);
         mAirplaneModeEnabler.stop();
         mDataStateListener.stop();
@@ -1047,7 +1061,7 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
         if (isFinishingOrDestroyed()) {
             return;
         }
-        updateWifiEntryPreferences();
+        scheduleWifiEntryPreferencesUpdate();
         if (reason == WifiPickerTracker.WIFI_ENTRIES_CHANGED_REASON_SCAN_RESULTS) {
             setProgressBarVisible(false);
         }
@@ -1087,6 +1101,17 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
         setAdditionalSettingsSummaries();
     }
 
+    @VisibleForTesting
+    void scheduleWifiEntryPreferencesUpdate() {
+        mPendingWifiEntriesCallbacks++;
+        final View view = getView();
+        if (mIsWifiEntriesUpdatePending || view == null) {
+            return;
+        }
+        mIsWifiEntriesUpdatePending = true;
+        view.postOnAnimation(mWifiEntriesChangedRunnable);
+    }
+
     protected void updateWifiEntryPreferences() {
         // bypass the update if the activity and the view are not ready, or it's restricted UI.
         if (getActivity() == null || getView() == null || mIsRestricted) {
@@ -1137,38 +1162,53 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
             connectedWifiPreferenceCategory.removeAll();
         }
 
+        final long startTime = SystemClock.elapsedRealtimeNanos();
+        int added = 0;
+        int rebound = 0;
         int index = 0;
         cacheRemoveAllPrefs(mWifiEntryPreferenceCategory);
         List<WifiEntry> wifiEntries = mWifiPickerTracker.getWifiEntries();
+        final List<String> keys = new ArrayList<>(wifiEntries.size());
         for (WifiEntry wifiEntry : wifiEntries) {
             hasAvailableWifiEntries = true;
 
             String key = wifiEntry.getKey();
+            keys.add(key);
+            final boolean displayChanged = mWifiEntryDiffer.hasDisplayChanged(wifiEntry);
             LongPressWifiEntryPreference pref =
                     (LongPressWifiEntryPreference) getCachedPreference(key);
             if (pref != null) {
-                if (pref.getWifiEntry() == wifiEntry) {
-                    pref.setOrder(index++);
-                    continue;
-                } else {
-                    // Create a new preference if the underlying WifiEntry object has changed
-                    removePreference(key);
+                // Keep the preference for the same key and only rebind it if it would display
+                // differently. Its order is unchanged unless the entry moved.
+                if (pref.getWifiEntry() != wifiEntry) {
+                    pref.setWifiEntry(wifiEntry, displayChanged);
+                    if (displayChanged) {
+                        rebound++;
+                    }
                 }
+                pref.setOrder(index++);
+                continue;
             }
 
             pref = createLongPressWifiEntryPreference(wifiEntry);
             pref.setKey(wifiEntry.getKey());
             pref.setOrder(index++);
             pref.refresh();
-
-            if (wifiEntry.getHelpUriString() != null) {
-                pref.setOnButtonClickListener(preference -> {
-                    openSubscriptionHelpPage(wifiEntry);
-                });
-            }
+            pref.setOnButtonClickListener(preference -> {
+                openSubscriptionHelpPage(preference.getWifiEntry());
+            });
             mWifiEntryPreferenceCategory.addPreference(pref);
+            added++;
         }
         removeCachedPrefs(mWifiEntryPreferenceCategory);
+        mWifiEntryDiffer.retainAll(keys);
+        if (mWifiPickerTracker.isVerboseLoggingEnabled()) {
+            Log.i(TAG, "Updated " + wifiEntries.size() + " Wi-Fi entries for "
+                    + mPendingWifiEntriesCallbacks + " callbacks in "
+                    + (SystemClock.elapsedRealtimeNanos() - startTime) / 1000 + "us, added "
+                    + added + ", rebound " + rebound);
+        }
+        mPendingWifiEntriesCallbacks = 0;
 
         if (!hasAvailableWifiEntries) {
             Preference pref = new Preference(getPrefContext());
@@ -1288,6 +1328,7 @@ public class NetworkProviderSettings extends RestrictedDashboardFragment
     }
 
     private void removeWifiEntryPreference() {
+        mWifiEntryDiffer.clear();
         mWifiEntryPreferenceCategory.removeAll();
         mWifiEntryPreferenceCategory.setVisible(false);
     }
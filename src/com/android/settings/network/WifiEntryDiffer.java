@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import android.text.TextUtils;
+import android.util.ArrayMap;
+
+import androidx.annotation.NonNull;
+
+import com.android.settings.wifi.WifiEntryPreference;
+import com.android.wifitrackerlib.WifiEntry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keyed diff of the Wi-Fi entries listed by {@link NetworkProviderSettings}. It remembers what the
+ * preference of each key last displayed, so a list update only rebinds the preferences whose
+ * entry would look different.
+ */
+class WifiEntryDiffer {
+
+    private final Map<String, DisplayState> mBoundStates = new ArrayMap<>();
+
+    /**
+     * Records the displayed fields of {@param wifiEntry}.
+     *
+     * @return true if they differ from the fields recorded for the same key, or if the key is new.
+     */
+    boolean hasDisplayChanged(@NonNull WifiEntry wifiEntry) {
+        final DisplayState state = new DisplayState(wifiEntry);
+        final DisplayState previous = mBoundStates.put(wifiEntry.getKey(), state);
+        return !state.equals(previous);
+    }
+
+    /** Forgets the keys that are no longer listed. */
+    void retainAll(@NonNull Collection<String> keys) {
+        mBoundStates.keySet().retainAll(keys);
+    }
+
+    void clear() {
+        mBoundStates.clear();
+    }
+
+    int size() {
+        return mBoundStates.size();
+    }
+
+    /** Fields of a {@link WifiEntry} shown by {@link WifiEntryPreference}. */
+    private static final class DisplayState {
+        final String mTitle;
+        final CharSequence mSummary;
+        final int mLevel;
+        final boolean mShowX;
+        final int mSecurity;
+        final int mConnectedState;
+        final boolean mHasInternetAccess;
+        final boolean mCanConnect;
+        final boolean mCanDisconnect;
+        final boolean mIsSaved;
+        final String mHelpUriString;
+
+        DisplayState(WifiEntry wifiEntry) {
+            mTitle = wifiEntry.getTitle();
+            mSummary = wifiEntry.getSummary(false /* concise */);
+            mLevel = wifiEntry.getLevel();
+            mShowX = wifiEntry.shouldShowXLevelIcon();
+            mSecurity = wifiEntry.getSecurity();
+            mConnectedState = wifiEntry.getConnectedState();
+            mHasInternetAccess = wifiEntry.hasInternetAccess();
+            mCanConnect = wifiEntry.canConnect();
+            mCanDisconnect = wifiEntry.canDisconnect();
+            mIsSaved = wifiEntry.isSaved();
+            mHelpUriString = wifiEntry.getHelpUriString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DisplayState)) {
+                return false;
+            }
+            final DisplayState other = (DisplayState) o;
+            return mLevel == other.mLevel
+                    && mShowX == other.mShowX
+                    && mSecurity == other.mSecurity
+                    && mConnectedState == other.mConnectedState
+                    && mHasInternetAccess == other.mHasInternetAccess
+                    && mCanConnect == other.mCanConnect
+                    && mCanDisconnect == other.mCanDisconnect
+                    && mIsSaved == other.mIsSaved
+                    && TextUtils.equals(mTitle, other.mTitle)
+                    && TextUtils.equals(mSummary, other.mSummary)
+                    && TextUtils.equals(mHelpUriString, other.mHelpUriString);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mTitle, mLevel, mSecurity, mConnectedState);
+        }
+    }
+}
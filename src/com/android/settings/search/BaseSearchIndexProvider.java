@@ -31,6 +31,7 @@ import android.provider.SearchIndexableResource;
 import android.util.Log;
 
 import androidx.annotation.CallSuper;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.settings.core.BasePreferenceController;
@@ -221,6 +222,16 @@ public class BaseSearchIndexProvider implements Indexable.SearchIndexProvider {
         return true;
     }
 
+    /**
+     * Returns the changes which can alter the non-indexable keys of this page. The keys of pages
+     * which declare triggers are cached until one of them fires; pages returning null, the
+     * default, are evaluated on every query.
+     */
+    @Nullable
+    public NonIndexableKeysTriggers getNonIndexableKeysTriggers() {
+        return null;
+    }
+
     /**
      * Get all non-indexable keys from xml. If {@param suppressAllPage} is set, all keys are
      * considered non-indexable. Otherwise, only keys with searchable="false" are included.
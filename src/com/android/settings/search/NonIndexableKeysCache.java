@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.search;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.UserManager;
+import android.provider.DeviceConfig;
+import android.util.ArrayMap;
+import android.util.ArraySet;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the non-indexable keys of each search index provider, so repeated queries from the
+ * search app don't build every controller again.
+ *
+ * <p>Only providers which declare their {@link NonIndexableKeysTriggers} are cached. An entry is
+ * dropped when one of the triggers of its provider fires, and reloaded in the background so the
+ * next query finds it ready. Package changes, locale changes, user restriction changes and users
+ * or profiles being added or removed drop every entry.
+ */
+class NonIndexableKeysCache {
+
+    private static final String TAG = "NonIndexableKeysCache";
+    private static final String DATA_SCHEME_PKG = "package";
+
+    private static NonIndexableKeysCache sInstance;
+
+    private final Context mContext;
+    private final Map<String, List<String>> mEntries = new ConcurrentHashMap<>();
+    private final Map<String, Long> mLoadTimeMs = new ConcurrentHashMap<>();
+    // Providers to invalidate per trigger, guarded by this.
+    private final Map<Uri, Set<String>> mProvidersBySettingUri = new ArrayMap<>();
+    private final Map<String, Set<String>> mProvidersByBroadcastAction = new ArrayMap<>();
+    private final Map<String, Set<String>> mProvidersByDeviceConfigNamespace = new ArrayMap<>();
+    // Reloads the keys of a provider, see put().
+    private final Map<String, Runnable> mReloaders = new ConcurrentHashMap<>();
+    private final Set<String> mPendingReloads = Collections.newSetFromMap(
+            new ConcurrentHashMap<>());
+    private volatile int mGeneration;
+
+    private final BroadcastReceiver mGlobalReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidateAll("broadcast " + intent.getAction());
+        }
+    };
+
+    private final BroadcastReceiver mTriggerReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Set<String> providers;
+            synchronized (NonIndexableKeysCache.this) {
+                providers = copy(mProvidersByBroadcastAction.get(intent.getAction()));
+            }
+            invalidate(providers, "broadcast " + intent.getAction());
+        }
+    };
+
+    private final ContentObserver mSettingsObserver = new ContentObserver(null /* handler */) {
+        @Override
+        public void onChange(boolean selfChange, Uri uri) {
+            final Set<String> providers;
+            synchronized (NonIndexableKeysCache.this) {
+                providers = copy(mProvidersBySettingUri.get(uri));
+            }
+            invalidate(providers, "setting " + uri);
+        }
+    };
+
+    private final DeviceConfig.OnPropertiesChangedListener mDeviceConfigListener =
+            properties -> {
+                final Set<String> providers;
+                synchronized (NonIndexableKeysCache.this) {
+                    providers = copy(
+                            mProvidersByDeviceConfigNamespace.get(properties.getNamespace()));
+                }
+                invalidate(providers, "device config " + properties.getNamespace());
+            };
+
+    static synchronized NonIndexableKeysCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new NonIndexableKeysCache(context.getApplicationContext());
+            sInstance.startWatching();
+        }
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    NonIndexableKeysCache(Context context) {
+        mContext = context;
+    }
+
+    /**
+     * @return the cached keys of {@param providerName}, or {@code null} if they need to be loaded.
+     */
+    @Nullable
+    List<String> get(String providerName) {
+        final List<String> keys = mEntries.get(providerName);
+        return keys == null ? null : new ArrayList<>(keys);
+    }
+
+    /**
+     * @return the generation to pass to {@link #put} once a load started now completes.
+     */
+    int getGeneration() {
+        return mGeneration;
+    }
+
+    /**
+     * Stores the keys loaded for {@param providerName}, unless the provider declares no
+     * triggers or the cache was invalidated since {@param generation} was read.
+     *
+     * @param reloader loads the keys of the provider again and stores them, run in the
+     *                 background once a trigger of the provider fires
+     */
+    synchronized void put(String providerName, List<String> keys,
+            @Nullable NonIndexableKeysTriggers triggers, int generation, long loadTimeMs,
+            Runnable reloader) {
+        mLoadTimeMs.put(providerName, loadTimeMs);
+        if (triggers == null || generation != mGeneration) {
+            return;
+        }
+        if (mReloaders.put(providerName, reloader) == null) {
+            watch(providerName, triggers);
+        }
+        mEntries.put(providerName, keys);
+    }
+
+    synchronized void invalidateAll(String reason) {
+        Log.d(TAG, "Invalidated by " + reason);
+        mGeneration++;
+        mEntries.clear();
+    }
+
+    private void invalidate(Set<String> providers, String reason) {
+        if (providers.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Log.d(TAG, "Invalidated " + providers + " by " + reason);
+            // A load in flight may have read the old state; which provider it belongs to isn't
+            // tracked, so none of the loads in flight is stored.
+            mGeneration++;
+            for (String providerName : providers) {
+                mEntries.remove(providerName);
+            }
+        }
+        for (String providerName : providers) {
+            final Runnable reloader = mReloaders.get(providerName);
+            if (reloader != null && mPendingReloads.add(providerName)) {
+                ThreadUtils.postOnBackgroundThread(() -> {
+                    mPendingReloads.remove(providerName);
+                    reloader.run();
+                });
+            }
+        }
+    }
+
+    /** Prints the last load time of every provider, slowest first. */
+    void dump(PrintWriter writer) {
+        writer.println(TAG + ": " + mEntries.size() + " cached providers");
+        final Map<Long, List<String>> providersByTime = new TreeMap<>(Collections.reverseOrder());
+        for (Map.Entry<String, Long> entry : mLoadTimeMs.entrySet()) {
+            providersByTime.computeIfAbsent(entry.getValue(), time -> new ArrayList<>())
+                    .add(entry.getKey());
+        }
+        for (Map.Entry<Long, List<String>> entry : providersByTime.entrySet()) {
+            for (String providerName : entry.getValue()) {
+                writer.println("  " + providerName + ": " + entry.getKey() + "ms"
+                        + (mReloaders.containsKey(providerName) ? "" : " (not cached)"));
+            }
+        }
+    }
+
+    private void startWatching() {
+        final IntentFilter packageFilter = new IntentFilter(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        packageFilter.addDataScheme(DATA_SCHEME_PKG);
+        mContext.registerReceiver(mGlobalReceiver, packageFilter);
+
+        final IntentFilter stateFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
+        stateFilter.addAction(UserManager.ACTION_USER_RESTRICTIONS_CHANGED);
+        stateFilter.addAction(Intent.ACTION_USER_ADDED);
+        stateFilter.addAction(Intent.ACTION_USER_REMOVED);
+        stateFilter.addAction(Intent.ACTION_MANAGED_PROFILE_ADDED);
+        stateFilter.addAction(Intent.ACTION_MANAGED_PROFILE_REMOVED);
+        mContext.registerReceiver(mGlobalReceiver, stateFilter);
+    }
+
+    /** Starts watching the triggers of a provider. Must hold this. */
+    private void watch(String providerName, NonIndexableKeysTriggers triggers) {
+        for (Uri uri : triggers.mSettingUris) {
+            if (add(mProvidersBySettingUri, uri, providerName)) {
+                mContext.getContentResolver().registerContentObserver(uri,
+                        false /* notifyForDescendants */, mSettingsObserver);
+            }
+        }
+        for (String action : triggers.mBroadcastActions) {
+            if (add(mProvidersByBroadcastAction, action, providerName)) {
+                mContext.registerReceiver(mTriggerReceiver, new IntentFilter(action));
+            }
+        }
+        for (String namespace : triggers.mDeviceConfigNamespaces) {
+            if (add(mProvidersByDeviceConfigNamespace, namespace, providerName)) {
+                DeviceConfig.addOnPropertiesChangedListener(namespace,
+                        mContext.getMainExecutor(), mDeviceConfigListener);
+            }
+        }
+    }
+
+    /** Adds the provider to the trigger, returns whether the trigger is new. */
+    private static <T> boolean add(Map<T, Set<String>> providersByTrigger, T trigger,
+            String providerName) {
+        Set<String> providers = providersByTrigger.get(trigger);
+        final boolean isNew = providers == null;
+        if (isNew) {
+            providers = new ArraySet<>();
+            providersByTrigger.put(trigger, providers);
+        }
+        providers.add(providerName);
+        return isNew;
+    }
+
+    private static Set<String> copy(@Nullable Set<String> providers) {
+        return providers == null ? Collections.emptySet() : new ArraySet<>(providers);
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        sInstance = null;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.search;
+
+import android.net.Uri;
+import android.util.ArraySet;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The changes which can alter the non-indexable keys of a search index provider, see
+ * {@link BaseSearchIndexProvider#getNonIndexableKeysTriggers}.
+ * <p/>
+ * Package changes, locale changes, user restriction changes and users or profiles being added
+ * or removed are always watched and don't need to be declared.
+ */
+public final class NonIndexableKeysTriggers {
+
+    final Set<Uri> mSettingUris;
+    final Set<String> mBroadcastActions;
+    final Set<String> mDeviceConfigNamespaces;
+
+    private NonIndexableKeysTriggers(Builder builder) {
+        mSettingUris = Collections.unmodifiableSet(new ArraySet<>(builder.mSettingUris));
+        mBroadcastActions = Collections.unmodifiableSet(new ArraySet<>(builder.mBroadcastActions));
+        mDeviceConfigNamespaces =
+                Collections.unmodifiableSet(new ArraySet<>(builder.mDeviceConfigNamespaces));
+    }
+
+    /** Builder of {@link NonIndexableKeysTriggers}. */
+    public static final class Builder {
+        private final Set<Uri> mSettingUris = new ArraySet<>();
+        private final Set<String> mBroadcastActions = new ArraySet<>();
+        private final Set<String> mDeviceConfigNamespaces = new ArraySet<>();
+
+        /**
+         * Adds a setting uri, e.g. from {@link android.provider.Settings.Global#getUriFor}.
+         */
+        public Builder addSettingUri(Uri uri) {
+            mSettingUris.add(uri);
+            return this;
+        }
+
+        /** Adds the action of a protected broadcast, e.g. a radio state change. */
+        public Builder addBroadcastAction(String action) {
+            mBroadcastActions.add(action);
+            return this;
+        }
+
+        /** Adds a {@link android.provider.DeviceConfig} namespace. */
+        public Builder addDeviceConfigNamespace(String namespace) {
+            mDeviceConfigNamespaces.add(namespace);
+            return this;
+        }
+
+        public NonIndexableKeysTriggers build() {
+            return new NonIndexableKeysTriggers(this);
+        }
+    }
+}
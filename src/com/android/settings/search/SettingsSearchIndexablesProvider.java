@@ -78,6 +78,8 @@ import com.android.settingslib.search.Indexable;
 import com.android.settingslib.search.SearchIndexableData;
 import com.android.settingslib.search.SearchIndexableRaw;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -98,6 +100,10 @@ public class SettingsSearchIndexablesProvider extends SearchIndexablesProvider {
 
     private static final Collection<String> INVALID_KEYS;
 
+    // Search index providers aren't thread-safe, and keys are also reloaded in the background
+    // by NonIndexableKeysCache, so only one provider is evaluated at a time.
+    private static final Object sProviderLock = new Object();
+
     // Search enabled states for injection (key: category key, value: search enabled)
     private Map<String, Boolean> mSearchEnabledByCategoryKeyMap;
 
@@ -271,54 +277,82 @@ public class SettingsSearchIndexablesProvider extends SearchIndexablesProvider {
         return cursor;
     }
 
+    @Override
+    public void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        NonIndexableKeysCache.getInstance(getContext()).dump(writer);
+    }
+
+    /**
+     * Collects the non-indexable keys of every provider. Providers are not thread-safe, so the
+     * ones without a cached result are evaluated one at a time, see {@link #sProviderLock}.
+     */
     private List<String> getNonIndexableKeysFromProvider(Context context) {
         final Collection<SearchIndexableData> bundles = FeatureFactory.getFeatureFactory()
                 .getSearchFeatureProvider().getSearchIndexableResources().getProviderValues();
+        final NonIndexableKeysCache cache = NonIndexableKeysCache.getInstance(context);
+        final int generation = cache.getGeneration();
+        final long startTime = System.currentTimeMillis();
 
         final List<String> nonIndexableKeys = new ArrayList<>();
-
         for (SearchIndexableData bundle : bundles) {
-            final long startTime = System.currentTimeMillis();
-            Indexable.SearchIndexProvider provider = bundle.getSearchIndexProvider();
-            List<String> providerNonIndexableKeys;
-            try {
-                providerNonIndexableKeys = provider.getNonIndexableKeys(context);
-            } catch (Exception e) {
-                String msg = "Error trying to get non-indexable keys from: "
-                        + bundle.getTargetClass().getName();
-                // Catch a generic crash. In the absence of the catch, the background thread will
-                // silently fail anyway, so we aren't losing information by catching the exception.
-                // We crash on debuggable build or when the system property exists, so that we can
-                // test if crashes need to be fixed.
-                if (Build.IS_DEBUGGABLE || System.getProperty(SYSPROP_CRASH_ON_ERROR) != null) {
-                    throw new RuntimeException(msg, e);
-                }
-                Log.e(TAG, msg, e);
-                continue;
+            List<String> providerNonIndexableKeys = cache.get(bundle.getTargetClass().getName());
+            if (providerNonIndexableKeys == null) {
+                providerNonIndexableKeys =
+                        loadNonIndexableKeys(context, bundle, cache, generation);
             }
-
-            if (providerNonIndexableKeys == null || providerNonIndexableKeys.isEmpty()) {
-                if (DEBUG) {
-                    final long totalTime = System.currentTimeMillis() - startTime;
-                    Log.d(TAG, "No indexable, total time " + totalTime);
-                }
-                continue;
+            if (providerNonIndexableKeys != null) {
+                nonIndexableKeys.addAll(providerNonIndexableKeys);
             }
+        }
 
-            if (providerNonIndexableKeys.removeAll(INVALID_KEYS)) {
-                Log.v(TAG, provider + " tried to add an empty non-indexable key");
-            }
+        Log.d(TAG, "Non-indexables " + nonIndexableKeys.size() + ", total time "
+                + (System.currentTimeMillis() - startTime));
+        return nonIndexableKeys;
+    }
 
-            if (DEBUG) {
-                final long totalTime = System.currentTimeMillis() - startTime;
-                Log.d(TAG, "Non-indexables " + providerNonIndexableKeys.size() + ", total time "
-                        + totalTime);
+    @Nullable
+    private static List<String> loadNonIndexableKeys(Context context, SearchIndexableData bundle,
+            NonIndexableKeysCache cache, int generation) {
+        final String providerName = bundle.getTargetClass().getName();
+        Indexable.SearchIndexProvider provider = bundle.getSearchIndexProvider();
+        List<String> providerNonIndexableKeys;
+        final long totalTime;
+        try {
+            synchronized (sProviderLock) {
+                final long startTime = System.currentTimeMillis();
+                providerNonIndexableKeys = provider.getNonIndexableKeys(context);
+                totalTime = System.currentTimeMillis() - startTime;
+            }
+        } catch (Exception e) {
+            String msg = "Error trying to get non-indexable keys from: " + providerName;
+            // Catch a generic crash. In the absence of the catch, the background thread will
+            // silently fail anyway, so we aren't losing information by catching the exception.
+            // We crash on debuggable build or when the system property exists, so that we can
+            // test if crashes need to be fixed.
+            if (Build.IS_DEBUGGABLE || System.getProperty(SYSPROP_CRASH_ON_ERROR) != null) {
+                throw new RuntimeException(msg, e);
             }
+            Log.e(TAG, msg, e);
+            return null;
+        }
 
-            nonIndexableKeys.addAll(providerNonIndexableKeys);
+        if (providerNonIndexableKeys == null) {
+            providerNonIndexableKeys = new ArrayList<>();
+        } else if (providerNonIndexableKeys.removeAll(INVALID_KEYS)) {
+            Log.v(TAG, provider + " tried to add an empty non-indexable key");
         }
 
-        return nonIndexableKeys;
+        if (DEBUG) {
+            Log.d(TAG, "Non-indexables " + providerNonIndexableKeys.size() + " from "
+                    + providerName + ", total time " + totalTime);
+        }
+        final NonIndexableKeysTriggers triggers = provider instanceof BaseSearchIndexProvider
+                ? ((BaseSearchIndexProvider) provider).getNonIndexableKeysTriggers()
+                : null;
+        cache.put(providerName, new ArrayList<>(providerNonIndexableKeys), triggers, generation,
+                totalTime, () -> loadNonIndexableKeys(context, bundle, cache,
+                        cache.getGeneration()));
+        return providerNonIndexableKeys;
     }
 
     private List<SearchIndexableResource> getSearchIndexableResourcesFromProvider(Context context) {
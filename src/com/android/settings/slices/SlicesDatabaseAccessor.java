@@ -73,8 +73,14 @@ public class SlicesDatabaseAccessor {
         if (pathData == null) {
             throw new IllegalStateException("Invalid Slices uri: " + uri);
         }
+        final SliceData warmData = getWarmSliceData(pathData.second /* key */);
+        if (warmData != null) {
+            return copySliceData(warmData, uri, pathData.first /* isIntentOnly */);
+        }
         try (Cursor cursor = getIndexedSliceData(pathData.second /* key */)) {
-            return buildSliceData(cursor, uri, pathData.first /* isIntentOnly */);
+            final SliceData data = buildSliceData(cursor, null /* uri */, false /* isIntentOnly */);
+            mHelper.putWarmSliceData(List.of(data));
+            return copySliceData(data, uri, pathData.first /* isIntentOnly */);
         }
     }
 
@@ -143,6 +149,24 @@ public class SlicesDatabaseAccessor {
         return resultCursor;
     }
 
+    /**
+     * @return the last indexed {@link SliceData} for {@param key}. While the index is out of date
+     * it is still served, and the rebuild is left to run in the background.
+     */
+    private SliceData getWarmSliceData(String key) {
+        final SliceData warmData = mHelper.getWarmSliceData(key);
+        if (warmData != null && !mHelper.isSliceDataIndexed()) {
+            final long uidToken = Binder.clearCallingIdentity();
+            try {
+                FeatureFactory.getFeatureFactory().getSlicesFeatureProvider()
+                        .indexSliceDataAsync(mContext);
+            } finally {
+                Binder.restoreCallingIdentity(uidToken);
+            }
+        }
+        return warmData;
+    }
+
     private String buildKeyMatchWhereClause() {
         return new StringBuilder(IndexColumns.KEY)
                 .append(" = ?")
@@ -191,6 +215,25 @@ public class SlicesDatabaseAccessor {
                 .build();
     }
 
+    private static SliceData copySliceData(SliceData data, Uri uri, boolean isIntentOnly) {
+        return new SliceData.Builder()
+                .setKey(data.getKey())
+                .setTitle(data.getTitle())
+                .setSummary(data.getSummary())
+                .setScreenTitle(data.getScreenTitle())
+                .setKeywords(data.getKeywords())
+                .setIcon(data.getIconResource())
+                .setFragmentName(data.getFragmentClassName())
+                .setPreferenceControllerClassName(data.getPreferenceController())
+                .setUri(uri)
+                .setSliceType(isIntentOnly ? SliceData.SliceType.INTENT : data.getSliceType())
+                .setUnavailableSliceSubtitle(data.getUnavailableSliceSubtitle())
+                .setIsPublicSlice(data.isPublicSlice())
+                .setHighlightMenuRes(data.getHighlightMenuRes())
+                .setUserRestriction(data.getUserRestriction())
+                .build();
+    }
+
     private void verifyIndexing() {
         final long uidToken = Binder.clearCallingIdentity();
         try {
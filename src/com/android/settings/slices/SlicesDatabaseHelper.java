@@ -24,7 +24,10 @@ import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
 
+import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines the schema for the Slices database.
@@ -36,10 +39,11 @@ public class SlicesDatabaseHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "slices_index.db";
     private static final String SHARED_PREFS_TAG = "slices_shared_prefs";
 
-    private static final int DATABASE_VERSION = 10;
+    private static final int DATABASE_VERSION = 11;
 
     public interface Tables {
         String TABLE_SLICES_INDEX = "slices_index";
+        String TABLE_SLICES_FINGERPRINT = "slices_fingerprint";
     }
 
     public interface IndexColumns {
@@ -115,6 +119,27 @@ public class SlicesDatabaseHelper extends SQLiteOpenHelper {
         String USER_RESTRICTION = "user_restriction";
     }
 
+    public interface FingerprintColumns {
+        /**
+         * Classname of the fragment whose slices are fingerprinted.
+         */
+        String FRAGMENT = "fragment";
+
+        /**
+         * Digest of every indexed column of the fragment's slices.
+         */
+        String FINGERPRINT = "fingerprint";
+    }
+
+    private static final String CREATE_FINGERPRINT_TABLE =
+            "CREATE TABLE " + Tables.TABLE_SLICES_FINGERPRINT
+                    + "("
+                    + FingerprintColumns.FRAGMENT
+                    + " TEXT PRIMARY KEY, "
+                    + FingerprintColumns.FINGERPRINT
+                    + " TEXT"
+                    + ");";
+
     private static final String CREATE_SLICES_TABLE =
             "CREATE VIRTUAL TABLE " + Tables.TABLE_SLICES_INDEX + " USING fts4"
                     + "("
@@ -150,6 +175,9 @@ public class SlicesDatabaseHelper extends SQLiteOpenHelper {
 
     private final Context mContext;
 
+    // Last indexed rows by key, so lookups don't wait for a rebuild of the table.
+    private final Map<String, SliceData> mWarmSliceData = new ConcurrentHashMap<>();
+
     private static SlicesDatabaseHelper sSingleton;
 
     public static synchronized SlicesDatabaseHelper getInstance(Context context) {
@@ -183,12 +211,46 @@ public class SlicesDatabaseHelper extends SQLiteOpenHelper {
      * {@link#isNewIndexingState(Context)} will return {@code true}.
      */
     void reconstruct(SQLiteDatabase db) {
+        clearIndexedState();
+        mWarmSliceData.clear();
+        dropTables(db);
+        createDatabases(db);
+    }
+
+    /**
+     * Un-marks the state of the data without touching the stored rows, so that a stale locale or
+     * build flag can't mark a later index as valid.
+     */
+    void clearIndexedState() {
         mContext.getSharedPreferences(SHARED_PREFS_TAG, Context.MODE_PRIVATE)
                 .edit()
                 .clear()
                 .apply();
-        dropTables(db);
-        createDatabases(db);
+    }
+
+    /**
+     * @return the last indexed {@link SliceData} for {@param key}, or {@code null} if it hasn't
+     * been seen by this process.
+     */
+    SliceData getWarmSliceData(String key) {
+        return mWarmSliceData.get(key);
+    }
+
+    /**
+     * Remembers indexed {@link SliceData} so later lookups can skip the database.
+     */
+    void putWarmSliceData(Collection<SliceData> sliceData) {
+        for (SliceData data : sliceData) {
+            mWarmSliceData.put(data.getKey(), data);
+        }
+    }
+
+    /**
+     * Replaces the remembered {@link SliceData} with a freshly indexed set.
+     */
+    void resetWarmSliceData(Collection<SliceData> sliceData) {
+        mWarmSliceData.clear();
+        putWarmSliceData(sliceData);
     }
 
     /**
@@ -211,11 +273,13 @@ public class SlicesDatabaseHelper extends SQLiteOpenHelper {
 
     private void createDatabases(SQLiteDatabase db) {
         db.execSQL(CREATE_SLICES_TABLE);
+        db.execSQL(CREATE_FINGERPRINT_TABLE);
         Log.d(TAG, "Created databases");
     }
 
     private void dropTables(SQLiteDatabase db) {
         db.execSQL("DROP TABLE IF EXISTS " + Tables.TABLE_SLICES_INDEX);
+        db.execSQL("DROP TABLE IF EXISTS " + Tables.TABLE_SLICES_FINGERPRINT);
     }
 
     private void setBuildIndexed() {
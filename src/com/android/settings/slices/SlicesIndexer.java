@@ -18,7 +18,10 @@ package com.android.settings.slices;
 
 import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.util.ArrayMap;
+import android.util.Base64;
 import android.util.Log;
 
 import androidx.annotation.VisibleForTesting;
@@ -26,10 +29,16 @@ import androidx.annotation.VisibleForTesting;
 import com.android.settings.core.BasePreferenceController;
 import com.android.settings.dashboard.DashboardFragment;
 import com.android.settings.overlay.FeatureFactory;
+import com.android.settings.slices.SlicesDatabaseHelper.FingerprintColumns;
 import com.android.settings.slices.SlicesDatabaseHelper.IndexColumns;
 import com.android.settings.slices.SlicesDatabaseHelper.Tables;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages the conversion of {@link DashboardFragment} and {@link BasePreferenceController} to
@@ -38,6 +47,8 @@ import java.util.List;
 class SlicesIndexer implements Runnable {
 
     private static final String TAG = "SlicesIndexer";
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    private static final char FIELD_SEPARATOR = '\u001f';
 
     private Context mContext;
 
@@ -58,32 +69,71 @@ class SlicesIndexer implements Runnable {
 
     /**
      * Synchronously takes data obtained from {@link SliceDataConverter} and indexes it into a
-     * SQLite database
+     * SQLite database. Only rows of fragments whose fingerprint changed since the last index are
+     * rewritten.
      */
-    protected void indexSliceData() {
+    protected synchronized void indexSliceData() {
         if (mHelper.isSliceDataIndexed()) {
             Log.d(TAG, "Slices already indexed - returning.");
             return;
         }
 
+        long startTime = System.currentTimeMillis();
+        final List<SliceData> indexData = getSliceData();
         final SQLiteDatabase database = mHelper.getWritableDatabase();
 
-        long startTime = System.currentTimeMillis();
         database.beginTransaction();
         try {
-            mHelper.reconstruct(database);
-            List<SliceData> indexData = getSliceData();
-            insertSliceData(database, indexData);
+            mHelper.clearIndexedState();
+            final int updatedFragments = updateSliceData(database, indexData);
 
             mHelper.setIndexedState();
 
             // TODO (b/71503044) Log indexing time.
-            Log.d(TAG,
-                    "Indexing slices database took: " + (System.currentTimeMillis() - startTime));
+            Log.d(TAG, "Indexing slices database took: " + (System.currentTimeMillis() - startTime)
+                    + ", updated fragments: " + updatedFragments);
             database.setTransactionSuccessful();
         } finally {
             database.endTransaction();
         }
+        mHelper.resetWarmSliceData(indexData);
+    }
+
+    /**
+     * Rewrites the rows of every fragment whose slices changed and drops the rows of fragments
+     * that no longer provide any.
+     *
+     * @return the number of fragments whose rows were rewritten or dropped.
+     */
+    @VisibleForTesting
+    int updateSliceData(SQLiteDatabase database, List<SliceData> indexData) {
+        final Map<String, String> storedFingerprints = getStoredFingerprints(database);
+        int updatedFragments = 0;
+
+        for (Map.Entry<String, List<SliceData>> entry : groupByFragment(indexData).entrySet()) {
+            final String fragment = entry.getKey();
+            final String fingerprint = computeFingerprint(entry.getValue());
+            if (fingerprint.equals(storedFingerprints.remove(fragment))) {
+                continue;
+            }
+            deleteSliceData(database, fragment);
+            insertSliceData(database, entry.getValue());
+
+            final ContentValues values = new ContentValues();
+            values.put(FingerprintColumns.FRAGMENT, fragment);
+            values.put(FingerprintColumns.FINGERPRINT, fingerprint);
+            database.replaceOrThrow(Tables.TABLE_SLICES_FINGERPRINT, null /* nullColumnHack */,
+                    values);
+            updatedFragments++;
+        }
+
+        for (String fragment : storedFingerprints.keySet()) {
+            deleteSliceData(database, fragment);
+            database.delete(Tables.TABLE_SLICES_FINGERPRINT, FingerprintColumns.FRAGMENT + " = ?",
+                    new String[]{fragment});
+            updatedFragments++;
+        }
+        return updatedFragments;
     }
 
     @VisibleForTesting
@@ -123,4 +173,69 @@ class SlicesIndexer implements Runnable {
                     values);
         }
     }
+
+    @VisibleForTesting
+    static Map<String, List<SliceData>> groupByFragment(List<SliceData> indexData) {
+        final Map<String, List<SliceData>> dataByFragment = new ArrayMap<>();
+        for (SliceData dataRow : indexData) {
+            List<SliceData> fragmentData = dataByFragment.get(dataRow.getFragmentClassName());
+            if (fragmentData == null) {
+                fragmentData = new ArrayList<>();
+                dataByFragment.put(dataRow.getFragmentClassName(), fragmentData);
+            }
+            fragmentData.add(dataRow);
+        }
+        return dataByFragment;
+    }
+
+    /**
+     * @return a digest of every column written for {@param fragmentData}, in order.
+     */
+    @VisibleForTesting
+    static String computeFingerprint(List<SliceData> fragmentData) {
+        final StringBuilder builder = new StringBuilder();
+        for (SliceData dataRow : fragmentData) {
+            builder.append(dataRow.getKey()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getUri()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getTitle()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getSummary()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getScreenTitle()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getKeywords()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getIconResource()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getPreferenceController()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getSliceType()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getUnavailableSliceSubtitle()).append(FIELD_SEPARATOR)
+                    .append(dataRow.isPublicSlice()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getHighlightMenuRes()).append(FIELD_SEPARATOR)
+                    .append(dataRow.getUserRestriction()).append('\n');
+        }
+        try {
+            final byte[] digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM)
+                    .digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.encodeToString(digest, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException e) {
+            // Every device ships SHA-256; fall back to the raw content just in case.
+            return builder.toString();
+        }
+    }
+
+    private static Map<String, String> getStoredFingerprints(SQLiteDatabase database) {
+        final Map<String, String> fingerprints = new ArrayMap<>();
+        final String[] columns =
+                new String[]{FingerprintColumns.FRAGMENT, FingerprintColumns.FINGERPRINT};
+        try (Cursor cursor = database.query(Tables.TABLE_SLICES_FINGERPRINT, columns,
+                null /* where */, null /* selection */, null /* groupBy */, null /* having */,
+                null /* orderBy */)) {
+            while (cursor.moveToNext()) {
+                fingerprints.put(cursor.getString(0 /* FRAGMENT */),
+                        cursor.getString(1 /* FINGERPRINT */));
+            }
+        }
+        return fingerprints;
+    }
+
+    private static void deleteSliceData(SQLiteDatabase database, String fragment) {
+        database.delete(Tables.TABLE_SLICES_INDEX, IndexColumns.FRAGMENT + " = ?",
+                new String[]{fragment});
+    }
 }
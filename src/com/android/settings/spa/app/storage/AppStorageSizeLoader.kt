@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.spa.app.storage
+
+import android.content.Context
+import android.content.pm.ApplicationInfo
+import android.os.UserHandle
+import com.android.settingslib.spa.framework.util.asyncMap
+import com.android.settingslib.spaprivileged.model.app.AppStorageRepositoryImpl
+import java.util.concurrent.ConcurrentHashMap
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+
+/**
+ * Loads the storage sizes of a list of apps in parallel batches, and memoizes them so the list
+ * and its summaries query each app from StorageStatsManager once.
+ */
+class AppStorageSizeLoader(
+    private val calculateSizeBytes: (ApplicationInfo) -> Long?,
+) {
+    constructor(context: Context) : this(AppStorageRepositoryImpl(context)::calculateSizeBytes)
+
+    private val sizes = ConcurrentHashMap<SizeKey, Long>()
+
+    /**
+     * Emits the records of [apps] with the memoized sizes right away, then again after each
+     * batch of missing sizes is loaded, so the list can render and re-sort progressively.
+     */
+    fun loadRecords(apps: List<ApplicationInfo>): Flow<List<AppRecordWithSize>> = flow {
+        val missingApps = apps.filter { !sizes.containsKey(it.toSizeKey()) }
+        emit(toRecords(apps))
+        for (batch in missingApps.chunked(BATCH_SIZE)) {
+            batch.asyncMap { app ->
+                sizes[app.toSizeKey()] = calculateSizeBytes(app) ?: UNKNOWN_SIZE
+            }
+            emit(toRecords(apps))
+        }
+    }.flowOn(Dispatchers.IO)
+
+    private fun toRecords(apps: List<ApplicationInfo>) = apps.map { app ->
+        val size = sizes[app.toSizeKey()]
+        AppRecordWithSize(
+            app = app,
+            size = size?.takeIf { it != UNKNOWN_SIZE },
+            isSizeLoaded = size != null,
+        )
+    }
+
+    /** Changes whenever the package is updated, which invalidates the memoized size. */
+    private data class SizeKey(
+        val packageName: String,
+        val userId: Int,
+        val versionCode: Long,
+        val sourceDir: String?,
+    )
+
+    private fun ApplicationInfo.toSizeKey() =
+        SizeKey(packageName, UserHandle.getUserId(uid), longVersionCode, sourceDir)
+
+    private companion object {
+        const val BATCH_SIZE = 32
+        const val UNKNOWN_SIZE = -1L
+    }
+}
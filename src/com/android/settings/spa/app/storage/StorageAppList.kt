@@ -19,10 +19,9 @@ package com.android.settings.spa.app.storage
 import android.content.Context
 import android.content.pm.ApplicationInfo
 import android.os.Bundle
+import android.text.format.Formatter
 import androidx.annotation.StringRes
 import androidx.compose.runtime.Composable
-import androidx.compose.runtime.State
-import androidx.compose.runtime.getValue
 import androidx.compose.runtime.remember
 import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.res.stringResource
@@ -30,18 +29,17 @@ import com.android.settings.R
 import com.android.settings.spa.app.appinfo.AppInfoSettingsProvider
 import com.android.settingslib.spa.framework.common.SettingsPageProvider
 import com.android.settingslib.spa.framework.util.filterItem
-import com.android.settingslib.spa.framework.util.mapItem
 import com.android.settingslib.spaprivileged.model.app.AppEntry
 import com.android.settingslib.spaprivileged.model.app.AppListModel
 import com.android.settingslib.spaprivileged.model.app.AppRecord
-import com.android.settingslib.spaprivileged.model.app.AppStorageRepositoryImpl
 import com.android.settingslib.spaprivileged.template.app.AppList
 import com.android.settingslib.spaprivileged.template.app.AppListInput
 import com.android.settingslib.spaprivileged.template.app.AppListItem
 import com.android.settingslib.spaprivileged.template.app.AppListItemModel
 import com.android.settingslib.spaprivileged.template.app.AppListPage
-import com.android.settingslib.spaprivileged.template.app.getStorageSize
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flatMapLatest
 
 sealed class StorageAppListPageProvider(private val type: StorageType) : SettingsPageProvider {
     @Composable
@@ -99,22 +97,21 @@ fun StorageAppListPage(
 
 data class AppRecordWithSize(
     override val app: ApplicationInfo,
-    val size: Long
+    /** The size in bytes, or null if it is not loaded yet or can't be calculated. */
+    val size: Long?,
+    /** Whether loading [size] finished, the summary shows a placeholder until then. */
+    val isSizeLoaded: Boolean = true,
 ) : AppRecord
 
+@OptIn(ExperimentalCoroutinesApi::class)
 class StorageAppListModel(
     private val context: Context,
     private val type: StorageType,
-    private val getStorageSummary: @Composable ApplicationInfo.() -> State<String> = {
-        getStorageSize()
-    }
+    private val sizeLoader: AppStorageSizeLoader = AppStorageSizeLoader(context),
 ) : AppListModel<AppRecordWithSize> {
-    private val appStorageRepository = AppStorageRepositoryImpl(context)
 
     override fun transform(userIdFlow: Flow<Int>, appListFlow: Flow<List<ApplicationInfo>>) =
-        appListFlow.mapItem { app ->
-            AppRecordWithSize(app, appStorageRepository.calculateSizeBytes(app) ?: 0L)
-        }
+        appListFlow.flatMapLatest { apps -> sizeLoader.loadRecords(apps) }
 
     override fun filter(
         userIdFlow: Flow<Int>,
@@ -124,8 +121,13 @@ class StorageAppListModel(
 
     @Composable
     override fun getSummary(option: Int, record: AppRecordWithSize): () -> String {
-        val storageSummary by record.app.getStorageSummary()
-        return { storageSummary }
+        val placeholder = stringResource(R.string.summary_placeholder)
+        return {
+            when {
+                !record.isSizeLoaded -> placeholder
+                else -> record.size?.let { Formatter.formatFileSize(context, it) } ?: ""
+            }
+        }
     }
 
     @Composable
@@ -134,6 +136,6 @@ class StorageAppListModel(
     }
 
     override fun getComparator(option: Int) = compareByDescending<AppEntry<AppRecordWithSize>> {
-        it.record.size
+        it.record.size ?: 0L
     }.then(super.getComparator(option))
 }
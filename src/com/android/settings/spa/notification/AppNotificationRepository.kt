@@ -72,16 +72,24 @@ class AppNotificationRepository(
     ),
 ) : IAppNotificationRepository {
     fun getAggregatedUsageEvents(userIdFlow: Flow<Int>): Flow<Map<String, NotificationSentState>> =
-        userIdFlow.map { userId ->
-            val aggregatedStats = mutableMapOf<String, NotificationSentState>()
-            queryEventsForUser(userId).forEachNotificationEvent { event ->
-                aggregatedStats.getOrPut(event.packageName, ::NotificationSentState).apply {
-                    lastSent = max(lastSent, event.timeStamp)
-                    sentCount++
-                }
+        userIdFlow.map { userId -> getAggregatedSentStates(userId) }
+
+    /**
+     * Returns the sent states of every package of the user, aggregated from one event query and
+     * shared through [NotificationSentStateCache].
+     */
+    private fun getAggregatedSentStates(userId: Int): Map<String, NotificationSentState> {
+        NotificationSentStateCache.get(userId, DAYS_TO_CHECK)?.let { return it }
+        val aggregatedStats = mutableMapOf<String, NotificationSentState>()
+        queryEventsForUser(userId).forEachNotificationEvent { event ->
+            aggregatedStats.getOrPut(event.packageName, ::NotificationSentState).apply {
+                lastSent = max(lastSent, event.timeStamp)
+                sentCount++
             }
-            aggregatedStats
         }
+        NotificationSentStateCache.put(userId, DAYS_TO_CHECK, aggregatedStats)
+        return aggregatedStats
+    }
 
     private fun queryEventsForUser(userId: Int): UsageEvents? {
         val now = System.currentTimeMillis()
@@ -171,6 +179,9 @@ class AppNotificationRepository(
     }
 
     private fun getSentCount(app: ApplicationInfo): Int {
+        NotificationSentStateCache.get(app.userId, DAYS_TO_CHECK)?.let { sentStates ->
+            return sentStates[app.packageName]?.sentCount ?: 0
+        }
         var sentCount = 0
         queryEventsForPackageForUser(app).forEachNotificationEvent { sentCount++ }
         return sentCount
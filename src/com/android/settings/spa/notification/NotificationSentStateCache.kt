@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.spa.notification
+
+import android.os.SystemClock
+import androidx.annotation.VisibleForTesting
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Process-wide cache of the notification sent states of every package of a user, keyed by user
+ * and time window, so the notification list and the app pages share one usage event scan.
+ */
+object NotificationSentStateCache {
+    @VisibleForTesting
+    const val MAX_AGE_MS = 60_000L
+
+    private data class Key(val userId: Int, val days: Long)
+
+    private class Entry(val sentStates: Map<String, NotificationSentState>, val loadedTime: Long)
+
+    private val entries = ConcurrentHashMap<Key, Entry>()
+
+    /** Returns the sent states aggregated in the last [MAX_AGE_MS], or null if there are none. */
+    fun get(userId: Int, days: Long): Map<String, NotificationSentState>? {
+        val entry = entries[Key(userId, days)] ?: return null
+        if (SystemClock.elapsedRealtime() - entry.loadedTime > MAX_AGE_MS) return null
+        return entry.sentStates
+    }
+
+    fun put(userId: Int, days: Long, sentStates: Map<String, NotificationSentState>) {
+        entries[Key(userId, days)] = Entry(sentStates, SystemClock.elapsedRealtime())
+    }
+
+    @VisibleForTesting
+    fun clear() {
+        entries.clear()
+    }
+}
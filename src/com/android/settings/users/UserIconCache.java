@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.users;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.LruCache;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.android.internal.util.UserIcons;
+import com.android.settingslib.utils.ThreadUtils;
+
+import java.util.concurrent.Future;
+
+/**
+ * Process-wide cache of user avatars, downsampled to the size they are shown at.
+ *
+ * <p>Icons are loaded one task per user so they decode in parallel, and each load can be
+ * cancelled. The icon of a user is dropped when its {@link Intent#ACTION_USER_INFO_CHANGED}
+ * broadcast arrives or the user is removed.
+ */
+class UserIconCache {
+
+    @VisibleForTesting
+    static final int MAX_ICON_BYTES = 2 * 1024 * 1024;
+    private static final int MAX_DEFAULT_ICONS = 8;
+
+    private static final UserIconCache sInstance = new UserIconCache(MAX_ICON_BYTES);
+
+    private final LruCache<Integer, Bitmap> mIcons;
+    // Keyed by user id, or UserHandle.USER_NULL for the guest icon.
+    private final LruCache<Integer, Bitmap> mDefaultIcons = new LruCache<>(MAX_DEFAULT_ICONS);
+    // Bumped when a user's icon is invalidated, so loads started before don't cache stale icons.
+    private final SparseIntArray mGenerations = new SparseIntArray();
+    private boolean mWatching;
+
+    private final BroadcastReceiver mUserReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final int userId = intent.getIntExtra(Intent.EXTRA_USER_HANDLE, UserHandle.USER_NULL);
+            if (userId != UserHandle.USER_NULL) {
+                invalidate(userId);
+            }
+        }
+    };
+
+    static UserIconCache getInstance() {
+        return sInstance;
+    }
+
+    @VisibleForTesting
+    UserIconCache(int maxIconBytes) {
+        mIcons = new LruCache<>(maxIconBytes) {
+            @Override
+            protected int sizeOf(Integer userId, Bitmap icon) {
+                return icon.getAllocationByteCount();
+            }
+        };
+    }
+
+    /** Drops the icons of users whose info changes, including while no page is showing them. */
+    synchronized void startWatching(@NonNull Context context) {
+        if (mWatching) {
+            return;
+        }
+        mWatching = true;
+        final IntentFilter filter = new IntentFilter(Intent.ACTION_USER_INFO_CHANGED);
+        filter.addAction(Intent.ACTION_USER_REMOVED);
+        context.getApplicationContext().registerReceiverAsUser(mUserReceiver, UserHandle.ALL,
+                filter, null /* broadcastPermission */, null /* scheduler */,
+                Context.RECEIVER_EXPORTED_UNAUDITED);
+    }
+
+    @Nullable
+    Bitmap get(int userId) {
+        return mIcons.get(userId);
+    }
+
+    @VisibleForTesting
+    void put(int userId, @NonNull Bitmap icon) {
+        mIcons.put(userId, icon);
+    }
+
+    /** Drops the icon of {@param userId}; loads in flight for it won't be cached. */
+    synchronized void invalidate(int userId) {
+        mGenerations.put(userId, mGenerations.get(userId) + 1);
+        mIcons.remove(userId);
+    }
+
+    /**
+     * Loads the icon of {@param userId} in the background, scaled down to {@param sizePx}, and
+     * runs {@param onLoaded} on the main thread once it is done, unless the load was cancelled.
+     * Falls back to the scaled default icon of the user if it has no photo.
+     */
+    @NonNull
+    IconLoad load(@NonNull UserManager userManager, @NonNull Resources resources, int userId,
+            int sizePx, @NonNull Runnable onLoaded) {
+        final IconLoad load = new IconLoad();
+        final int generation;
+        synchronized (this) {
+            generation = mGenerations.get(userId);
+        }
+        load.mFuture = ThreadUtils.postOnBackgroundThread(() -> {
+            if (load.mCancelled) {
+                return;
+            }
+            final Bitmap icon = userManager.getUserIcon(userId);
+            // The default icon is scaled too: at full size it may not fit in the cache, and would
+            // be evicted right away and loaded again on every list update.
+            final Bitmap scaled = scaleToSize(
+                    icon != null ? icon : getDefaultIcon(resources, userId), sizePx);
+            synchronized (this) {
+                if (generation == mGenerations.get(userId)) {
+                    mIcons.put(userId, scaled);
+                }
+            }
+            ThreadUtils.postOnMainThread(() -> {
+                if (!load.mCancelled) {
+                    onLoaded.run();
+                }
+            });
+        });
+        return load;
+    }
+
+    /**
+     * Returns the default icon of {@param userId}, or the guest icon for
+     * {@code UserHandle.USER_NULL}.
+     */
+    @NonNull
+    Bitmap getDefaultIcon(@NonNull Resources resources, int userId) {
+        Bitmap bitmap = mDefaultIcons.get(userId);
+        if (bitmap == null) {
+            bitmap = UserIcons.convertToBitmapAtUserIconSize(resources,
+                    UserIcons.getDefaultUserIcon(resources, userId, false));
+            mDefaultIcons.put(userId, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Scales {@param icon} down so its shorter side is {@param sizePx}; the avatar frame crops the
+     * rest.
+     */
+    @VisibleForTesting
+    static Bitmap scaleToSize(@NonNull Bitmap icon, int sizePx) {
+        final int shortSide = Math.min(icon.getWidth(), icon.getHeight());
+        if (sizePx <= 0 || shortSide <= sizePx) {
+            return icon;
+        }
+        final float scale = (float) sizePx / shortSide;
+        return Bitmap.createScaledBitmap(icon, Math.round(icon.getWidth() * scale),
+                Math.round(icon.getHeight() * scale), true /* filter */);
+    }
+
+    /** A load of one user's icon. */
+    static class IconLoad {
+        private volatile boolean mCancelled;
+        @Nullable
+        private volatile Future<?> mFuture;
+
+        /** Drops the result of the load; its callback won't run. */
+        void cancel() {
+            mCancelled = true;
+            final Future<?> future = mFuture;
+            if (future != null) {
+                future.cancel(true /* mayInterruptIfRunning */);
+            }
+        }
+    }
+}
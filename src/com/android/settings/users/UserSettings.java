@@ -102,8 +102,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -210,7 +208,9 @@ public class UserSettings extends SettingsPreferenceFragment
     @VisibleForTesting
     RestrictedPreference mAddSupervisedUser;
     @VisibleForTesting
-    SparseArray<Bitmap> mUserIcons = new SparseArray<>();
+    UserIconCache mUserIconCache = UserIconCache.getInstance();
+    // Icon loads in flight, keyed by user id.
+    private final SparseArray<UserIconCache.IconLoad> mIconLoads = new SparseArray<>();
     private int mRemovingUserId = -1;
     private boolean mAddingUser;
     private boolean mGuestUserAutoCreated;
@@ -220,7 +220,6 @@ public class UserSettings extends SettingsPreferenceFragment
     private boolean mShouldUpdateUserList = true;
     private final Object mUserLock = new Object();
     private UserManager mUserManager;
-    private static SparseArray<Bitmap> sDarkDefaultUserBitmapCache = new SparseArray<>();
 
     private MultiUserSwitchBarController mSwitchBarController;
 
@@ -237,7 +236,6 @@ public class UserSettings extends SettingsPreferenceFragment
     private TimeoutToDockUserPreferenceController mTimeoutToDockUserPreferenceController;
     private UserCreatingDialog mUserCreatingDialog;
     private final AtomicBoolean mGuestCreationScheduled = new AtomicBoolean();
-    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
 
     private CharSequence mPendingUserName;
     @Nullable
@@ -275,7 +273,9 @@ public class UserSettings extends SettingsPreferenceFragment
             } else if (intent.getAction().equals(Intent.ACTION_USER_INFO_CHANGED)) {
                 int userHandle = intent.getIntExtra(Intent.EXTRA_USER_HANDLE, -1);
                 if (userHandle != -1) {
-                    mUserIcons.remove(userHandle);
+                    // The cache drops it too, but the list may be updated before it does.
+                    cancelIconLoad(userHandle);
+                    mUserIconCache.invalidate(userHandle);
                 }
             }
             mHandler.sendEmptyMessage(MESSAGE_UPDATE_LIST);
@@ -405,6 +405,7 @@ public class UserSettings extends SettingsPreferenceFragment
         activity.registerReceiverAsUser(
                 mUserChangeReceiver, UserHandle.ALL, USER_REMOVED_INTENT_FILTER, null, mHandler,
                 Context.RECEIVER_EXPORTED_UNAUDITED);
+        mUserIconCache.startWatching(activity);
 
         updateUI();
         mShouldUpdateUserList = false;
@@ -442,6 +443,10 @@ public class UserSettings extends SettingsPreferenceFragment
     @Override
     public void onDestroy() {
         super.onDestroy();
+        for (int i = 0; i < mIconLoads.size(); i++) {
+            mIconLoads.valueAt(i).cancel();
+        }
+        mIconLoads.clear();
 
         if (mUserCaps == null || !mUserCaps.mEnabled) {
             return;
@@ -549,11 +554,10 @@ public class UserSettings extends SettingsPreferenceFragment
             return;
         }
         mMePreference.setTitle(getString(R.string.user_you, profileName));
-        int myUserId = UserHandle.myUserId();
-        Bitmap b = mUserManager.getUserIcon(myUserId);
+        // The icon itself is loaded in the background by updateUserList.
+        Bitmap b = mUserIconCache.get(UserHandle.myUserId());
         if (b != null) {
             mMePreference.setIcon(encircleUserIcon(b));
-            mUserIcons.put(myUserId, b);
         }
     }
 
@@ -1214,7 +1218,7 @@ public class UserSettings extends SettingsPreferenceFragment
             // Once mGuestCreationScheduled=true, mAddGuest needs to be updated so that it shows
             // "Resetting guest..."
             mHandler.sendEmptyMessage(MESSAGE_UPDATE_LIST);
-            mExecutor.execute(() -> {
+            Future<?> unusedGuestFuture = ThreadUtils.postOnBackgroundThread(() -> {
                 UserInfo guest = mUserManager.createGuest(getContext());
                 mGuestCreationScheduled.set(false);
                 if (guest == null) {
@@ -1314,7 +1318,7 @@ public class UserSettings extends SettingsPreferenceFragment
                 pref.setSummary(R.string.user_summary_restricted_profile);
             }
             if (user.iconPath != null) {
-                if (mUserIcons.get(user.id) == null) {
+                if (mUserIconCache.get(user.id) == null) {
                     // Icon not loaded yet, print a placeholder
                     missingIcons.add(user.id);
                     pref.setIcon(getEncircledDefaultIcon());
@@ -1644,24 +1648,30 @@ public class UserSettings extends SettingsPreferenceFragment
     }
 
     private void loadIconsAsync(List<Integer> missingIcons) {
-        new AsyncTask<List<Integer>, Void, Void>() {
-            @Override
-            protected void onPostExecute(Void result) {
-                updateUserList();
+        final Resources resources = getContext().getResources();
+        final int iconSize =
+                resources.getDimensionPixelSize(R.dimen.multiple_users_user_icon_size);
+        for (int userId : missingIcons) {
+            if (mIconLoads.get(userId) != null) {
+                continue;
             }
+            mIconLoads.put(userId, mUserIconCache.load(mUserManager, resources, userId, iconSize,
+                    () -> {
+                        mIconLoads.remove(userId);
+                        // Icons finishing together update the list once.
+                        if (!mHandler.hasMessages(MESSAGE_UPDATE_LIST)) {
+                            mHandler.sendEmptyMessage(MESSAGE_UPDATE_LIST);
+                        }
+                    }));
+        }
+    }
 
-            @Override
-            protected Void doInBackground(List<Integer>... values) {
-                for (int userId : values[0]) {
-                    Bitmap bitmap = mUserManager.getUserIcon(userId);
-                    if (bitmap == null) {
-                        bitmap = getDefaultUserIconAsBitmap(getContext().getResources(), userId);
-                    }
-                    mUserIcons.append(userId, bitmap);
-                }
-                return null;
-            }
-        }.execute(missingIcons);
+    private void cancelIconLoad(int userId) {
+        final UserIconCache.IconLoad load = mIconLoads.get(userId);
+        if (load != null) {
+            load.cancel();
+            mIconLoads.remove(userId);
+        }
     }
 
     private Drawable getEncircledDefaultIcon() {
@@ -1673,7 +1683,7 @@ public class UserSettings extends SettingsPreferenceFragment
     }
 
     private void setPhotoId(Preference pref, UserInfo user) {
-        Bitmap bitmap = mUserIcons.get(user.id);
+        Bitmap bitmap = mUserIconCache.get(user.id);
         if (bitmap != null) {
             pref.setIcon(encircleUserIcon(bitmap));
         }
@@ -1767,16 +1777,7 @@ public class UserSettings extends SettingsPreferenceFragment
      * @param userId    the user id or {@code UserHandle.USER_NULL} for a non-user specific icon
      */
     private static Bitmap getDefaultUserIconAsBitmap(Resources resources, int userId) {
-        Bitmap bitmap = null;
-        // Try finding the corresponding bitmap in the dark bitmap cache
-        bitmap = sDarkDefaultUserBitmapCache.get(userId);
-        if (bitmap == null) {
-            bitmap = UserIcons.convertToBitmapAtUserIconSize(resources,
-                    UserIcons.getDefaultUserIcon(resources, userId, false));
-            // Save it to cache
-            sDarkDefaultUserBitmapCache.put(userId, bitmap);
-        }
-        return bitmap;
+        return UserIconCache.getInstance().getDefaultIcon(resources, userId);
     }
 
     /**
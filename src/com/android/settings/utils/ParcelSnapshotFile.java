@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.utils;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Parcel;
+import android.provider.Settings;
+import android.text.TextUtils;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * A snapshot of UI state marshalled into a {@link Parcel} and kept in the cache directory.
+ * <p/>
+ * Each snapshot starts with a header: the layout version, the build fingerprint, optionally the
+ * boot count, and the resource configuration it was written with. A snapshot whose header doesn't
+ * match is ignored, and one which can't be read is deleted.
+ */
+public class ParcelSnapshotFile {
+
+    private static final String TAG = "ParcelSnapshotFile";
+
+    /** Reads the body of a snapshot. */
+    public interface Reader<T> {
+        /** @return the content, or null if the snapshot doesn't apply anymore. */
+        @Nullable
+        T read(Parcel parcel);
+    }
+
+    /** Writes the body of a snapshot. */
+    public interface Writer {
+        void write(Parcel parcel);
+    }
+
+    private final Context mContext;
+    private final AtomicFile mFile;
+    private final int mVersion;
+    private final boolean mPerBoot;
+
+    /**
+     * @param version the layout version, bump it when the layout of the body changes
+     * @param perBoot whether the snapshot is dropped on reboot
+     */
+    public ParcelSnapshotFile(Context context, String fileName, int version, boolean perBoot) {
+        mContext = context;
+        mFile = new AtomicFile(new File(context.getCacheDir(), fileName));
+        mVersion = version;
+        mPerBoot = perBoot;
+    }
+
+    /**
+     * Reads the snapshot.
+     *
+     * @param configFingerprint the configuration the snapshot must have been written with
+     * @return the content, or null if there is no snapshot or it doesn't apply
+     */
+    @WorkerThread
+    @Nullable
+    public <T> T read(String configFingerprint, Reader<T> reader) {
+        final byte[] data;
+        try {
+            data = mFile.readFully();
+        } catch (IOException e) {
+            // No snapshot yet.
+            return null;
+        }
+        final Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(data, 0, data.length);
+            parcel.setDataPosition(0);
+            if (parcel.readInt() != mVersion
+                    || !TextUtils.equals(parcel.readString(), Build.FINGERPRINT)
+                    || (mPerBoot && parcel.readInt() != getBootCount())
+                    || !TextUtils.equals(parcel.readString(), configFingerprint)) {
+                Log.d(TAG, mFile.getBaseFile().getName()
+                        + " is from another build, boot or configuration");
+                return null;
+            }
+            return reader.read(parcel);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot read " + mFile.getBaseFile().getName(), e);
+            mFile.delete();
+            return null;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * Marshalls a snapshot, to be passed to {@link #write}.
+     *
+     * @return the snapshot, or null if it can't be marshalled
+     */
+    @Nullable
+    public byte[] marshall(String configFingerprint, Writer writer) {
+        final Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeInt(mVersion);
+            parcel.writeString(Build.FINGERPRINT);
+            if (mPerBoot) {
+                parcel.writeInt(getBootCount());
+            }
+            parcel.writeString(configFingerprint);
+            writer.write(parcel);
+            return parcel.marshall();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot marshall " + mFile.getBaseFile().getName(), e);
+            return null;
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /** Replaces the snapshot. */
+    @WorkerThread
+    public synchronized void write(byte[] data) {
+        FileOutputStream out = null;
+        try {
+            out = mFile.startWrite();
+            out.write(data);
+            mFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write " + mFile.getBaseFile().getName(), e);
+            mFile.failWrite(out);
+        }
+    }
+
+    /** Drops the snapshot. */
+    public void delete() {
+        mFile.delete();
+    }
+
+    private int getBootCount() {
+        return Settings.Global.getInt(mContext.getContentResolver(),
+                Settings.Global.BOOT_COUNT, 0);
+    }
+
+    /** Returns the parts of the configuration which change the loaded resources. */
+    public static String getConfigFingerprint(Context context) {
+        final Configuration config = context.getResources().getConfiguration();
+        return config.getLocales().toLanguageTags() + "/" + config.densityDpi + "/"
+                + config.uiMode;
+    }
+}
@@ -97,9 +97,19 @@ public class WifiEntryPreference extends RestrictedPreference implements
      * @param wifiEntry An instance of {@link WifiEntry}
      */
     public void setWifiEntry(@NonNull WifiEntry wifiEntry) {
+        setWifiEntry(wifiEntry, true /* refresh */);
+    }
+
+    /**
+     * Set updated {@link WifiEntry}, skipping the refresh when the caller knows it displays the
+     * same as the current one.
+     */
+    public void setWifiEntry(@NonNull WifiEntry wifiEntry, boolean refresh) {
         mWifiEntry = wifiEntry;
         mWifiEntry.setListener(this);
-        refresh();
+        if (refresh) {
+            refresh();
+        }
     }
 
     public WifiEntry getWifiEntry() {
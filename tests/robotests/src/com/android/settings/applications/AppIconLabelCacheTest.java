@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.os.Process;
+import android.os.UserHandle;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowApplication;
+
+@RunWith(RobolectricTestRunner.class)
+public class AppIconLabelCacheTest {
+
+    private static final String PACKAGE_NAME = "com.example.app";
+    private static final String OTHER_PACKAGE_NAME = "com.example.other";
+    private static final int PROFILE_USER_ID = 10;
+
+    private Context mContext;
+    private AppIconLabelCache mCache;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mCache = new AppIconLabelCache(mContext);
+    }
+
+    @After
+    public void tearDown() {
+        AppIconLabelCache.reset();
+    }
+
+    @Test
+    public void getInstance_sameContext_returnSameInstance() {
+        assertThat(AppIconLabelCache.getInstance(mContext))
+                .isSameInstanceAs(AppIconLabelCache.getInstance(mContext));
+    }
+
+    @Test
+    public void reset_shouldUnregisterPackageReceiver() {
+        AppIconLabelCache.getInstance(mContext);
+        final ShadowApplication shadowApplication =
+                Shadows.shadowOf((Application) mContext.getApplicationContext());
+        final Intent intent = new Intent(Intent.ACTION_PACKAGE_ADDED,
+                Uri.fromParts("package", PACKAGE_NAME, null /* fragment */));
+        assertThat(shadowApplication.hasReceiverForIntent(intent)).isTrue();
+
+        AppIconLabelCache.reset();
+
+        assertThat(shadowApplication.hasReceiverForIntent(intent)).isFalse();
+    }
+
+    @Test
+    public void getBadgedIcon_secondCall_shouldHitCache() throws Exception {
+        final ApplicationInfo info = createApplicationInfo(PACKAGE_NAME, "App");
+
+        mCache.getBadgedIcon(info);
+        final Drawable icon = mCache.getBadgedIcon(info);
+
+        assertThat(icon).isNotNull();
+        final JSONObject dump = mCache.dump();
+        assertThat(dump.getInt("icon_hits")).isEqualTo(1);
+        assertThat(dump.getInt("icon_misses")).isEqualTo(1);
+        assertThat(dump.getInt("icon_bytes")).isGreaterThan(0);
+    }
+
+    @Test
+    public void evict_shouldLoadIconAgain() throws Exception {
+        final ApplicationInfo info = createApplicationInfo(PACKAGE_NAME, "App");
+        mCache.getBadgedIcon(info);
+
+        mCache.evict(PACKAGE_NAME, info.uid);
+        mCache.getBadgedIcon(info);
+
+        assertThat(mCache.dump().getInt("icon_misses")).isEqualTo(2);
+    }
+
+    @Test
+    public void evict_otherUser_shouldKeepEntries() throws Exception {
+        final ApplicationInfo info = createApplicationInfo(PACKAGE_NAME, "App");
+        final ApplicationInfo profileInfo = createApplicationInfo(PACKAGE_NAME, "App");
+        profileInfo.uid = UserHandle.getUid(PROFILE_USER_ID, info.uid);
+        mCache.getLabel(info);
+        mCache.getLabel(profileInfo);
+        mCache.getBadgedIcon(info);
+        mCache.getBadgedIcon(profileInfo);
+
+        mCache.evict(PACKAGE_NAME, profileInfo.uid);
+
+        final JSONObject dump = mCache.dump();
+        assertThat(dump.getInt("label_entries")).isEqualTo(1);
+        assertThat(dump.getInt("icon_entries")).isEqualTo(1);
+    }
+
+    @Test
+    public void getLabel_secondCall_shouldHitCache() throws Exception {
+        final ApplicationInfo info = createApplicationInfo(PACKAGE_NAME, "App");
+
+        mCache.getLabel(info);
+        final CharSequence label = mCache.getLabel(info);
+
+        assertThat(label.toString()).isEqualTo("App");
+        final JSONObject dump = mCache.dump();
+        assertThat(dump.getInt("label_hits")).isEqualTo(1);
+        assertThat(dump.getInt("label_misses")).isEqualTo(1);
+    }
+
+    @Test
+    public void getLabel_newVersion_shouldLoadAgain() throws Exception {
+        final ApplicationInfo info = createApplicationInfo(PACKAGE_NAME, "App");
+        mCache.getLabel(info);
+
+        info.longVersionCode++;
+        mCache.getLabel(info);
+
+        assertThat(mCache.dump().getInt("label_misses")).isEqualTo(2);
+    }
+
+    @Test
+    public void evict_shouldOnlyDropThatPackage() throws Exception {
+        mCache.getLabel(createApplicationInfo(PACKAGE_NAME, "App"));
+        mCache.getLabel(createApplicationInfo(OTHER_PACKAGE_NAME, "Other"));
+
+        mCache.evict(PACKAGE_NAME, Process.INVALID_UID);
+
+        assertThat(mCache.dump().getInt("label_entries")).isEqualTo(1);
+    }
+
+    @Test
+    public void trimMemory_complete_shouldDropAllEntries() throws Exception {
+        mCache.getLabel(createApplicationInfo(PACKAGE_NAME, "App"));
+        mCache.getBadgedIcon(createApplicationInfo(PACKAGE_NAME, "App"));
+
+        mCache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        final JSONObject dump = mCache.dump();
+        assertThat(dump.getInt("label_entries")).isEqualTo(0);
+        assertThat(dump.getInt("icon_entries")).isEqualTo(0);
+    }
+
+    @Test
+    public void dumpInstance_noInstance_returnEmpty() throws Exception {
+        assertThat(AppIconLabelCache.dumpInstance().length()).isEqualTo(0);
+    }
+
+    private static ApplicationInfo createApplicationInfo(String packageName, String label) {
+        final ApplicationInfo info = new ApplicationInfo();
+        info.packageName = packageName;
+        info.nonLocalizedLabel = label;
+        info.uid = 10001;
+        return info;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+
+import com.android.settingslib.applications.ApplicationsState;
+import com.android.settingslib.applications.ApplicationsState.AppEntry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+
+@RunWith(RobolectricTestRunner.class)
+public class AppStateBaseBridgeTest {
+
+    private static final String PACKAGE_NAME = "com.example.app";
+    private static final int UID = 10001;
+
+    @Rule
+    public final MockitoRule mMockitoRule = MockitoJUnit.rule();
+    @Mock
+    private ApplicationsState mApplicationsState;
+    @Mock
+    private ApplicationsState.Session mSession;
+    @Mock
+    private AppStateBaseBridge.Callback mCallback;
+    @Mock
+    private AppEntry mAppEntry;
+
+    private TestBridge mBridge;
+
+    @Before
+    public void setUp() {
+        when(mApplicationsState.newSession(any())).thenReturn(mSession);
+        when(mApplicationsState.getBackgroundLooper()).thenReturn(Looper.getMainLooper());
+        mAppEntry.info = new ApplicationInfo();
+        mAppEntry.info.packageName = PACKAGE_NAME;
+        mAppEntry.info.uid = UID;
+        final ArrayList<AppEntry> apps = new ArrayList<>();
+        apps.add(mAppEntry);
+        when(mSession.getAllApps()).thenReturn(apps);
+        mBridge = new TestBridge();
+    }
+
+    @Test
+    public void packageListChangedThenLoadCompleted_shouldLoadAndNotifyOnce() {
+        mBridge.onPackageListChanged();
+        mBridge.onLoadEntriesCompleted();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertThat(mBridge.mLoadAllCount).isEqualTo(1);
+        verify(mCallback, times(1)).onExtraInfoUpdated();
+    }
+
+    @Test
+    public void forceUpdateBeforeLoadAll_shouldOnlyLoadAll() {
+        mBridge.onPackageListChanged();
+        mBridge.forceUpdate(PACKAGE_NAME, UID);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertThat(mBridge.mLoadAllCount).isEqualTo(1);
+        assertThat(mBridge.mUpdateCount).isEqualTo(0);
+        verify(mCallback, times(1)).onExtraInfoUpdated();
+    }
+
+    @Test
+    public void forceUpdate_shouldUpdateMatchingApp() {
+        mBridge.forceUpdate(PACKAGE_NAME, UID);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertThat(mBridge.mUpdateCount).isEqualTo(1);
+        verify(mCallback).onExtraInfoUpdated();
+    }
+
+    private class TestBridge extends AppStateBaseBridge {
+        int mLoadAllCount;
+        int mUpdateCount;
+
+        TestBridge() {
+            super(mApplicationsState, mCallback);
+        }
+
+        @Override
+        protected void loadAllExtraInfo() {
+            mLoadAllCount++;
+        }
+
+        @Override
+        protected void updateExtraInfo(AppEntry app, String pkg, int uid) {
+            mUpdateCount++;
+        }
+    }
+}
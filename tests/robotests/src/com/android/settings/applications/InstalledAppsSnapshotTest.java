@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.Shadows;
+import org.robolectric.shadows.ShadowApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@RunWith(RobolectricTestRunner.class)
+public class InstalledAppsSnapshotTest {
+
+    private static final int USER_ID = 0;
+    private static final long FLAGS = 0;
+    private static final String PACKAGE_NAME = "com.example.uninstalled";
+
+    private Context mContext;
+    private InstalledAppsSnapshot mSnapshot;
+    private AtomicInteger mLoadCount;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mSnapshot = InstalledAppsSnapshot.getInstance(mContext);
+        mLoadCount = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        InstalledAppsSnapshot.reset();
+    }
+
+    @Test
+    public void getInstance_noApplicationContext_returnNull() {
+        assertThat(InstalledAppsSnapshot.getInstance(mock(Context.class))).isNull();
+    }
+
+    @Test
+    public void getInstalledApplicationsAsUser_secondCall_shouldNotLoadAgain() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        final List<ApplicationInfo> infos =
+                mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        assertThat(mLoadCount.get()).isEqualTo(1);
+        assertThat(infos).hasSize(1);
+        assertThat(infos.get(0).packageName).isEqualTo(PACKAGE_NAME);
+    }
+
+    @Test
+    public void getInstalledApplicationsAsUser_otherFlags_shouldLoadAgain() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS + 1, loader(PACKAGE_NAME));
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void refreshPackage_packageUninstalled_shouldRemoveIt() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        mSnapshot.refreshPackage(PACKAGE_NAME);
+
+        assertThat(mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME)))
+                .isEmpty();
+        assertThat(mLoadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidate_shouldLoadAgain() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        mSnapshot.invalidate();
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getInstalledApplicationsAsUser_packageChangedWhileLoading_shouldNotCache() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, () -> {
+            mSnapshot.refreshPackage(PACKAGE_NAME);
+            return loader(PACKAGE_NAME).get();
+        });
+
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+
+        assertThat(mLoadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getInstalledApplicationsAsUser_modifiedResult_shouldNotChangeSnapshot() {
+        mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME))
+                .get(0).flags = ApplicationInfo.FLAG_SUSPENDED;
+
+        final List<ApplicationInfo> infos =
+                mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME));
+        infos.get(0).flags = ApplicationInfo.FLAG_STOPPED;
+
+        assertThat(mSnapshot.getInstalledApplicationsAsUser(USER_ID, FLAGS, loader(PACKAGE_NAME))
+                .get(0).flags).isEqualTo(0);
+    }
+
+    @Test
+    public void getInstance_shouldListenToSuspensionChanges() {
+        final ShadowApplication shadowApplication =
+                Shadows.shadowOf((Application) mContext.getApplicationContext());
+
+        assertThat(shadowApplication.hasReceiverForIntent(
+                new Intent(Intent.ACTION_PACKAGES_SUSPENDED))).isTrue();
+        assertThat(shadowApplication.hasReceiverForIntent(
+                new Intent(Intent.ACTION_PACKAGES_UNSUSPENDED))).isTrue();
+    }
+
+    @Test
+    public void reset_shouldUnregisterReceivers() {
+        final ShadowApplication shadowApplication =
+                Shadows.shadowOf((Application) mContext.getApplicationContext());
+
+        InstalledAppsSnapshot.reset();
+
+        assertThat(shadowApplication.hasReceiverForIntent(
+                new Intent(Intent.ACTION_PACKAGES_SUSPENDED))).isFalse();
+    }
+
+    private Supplier<List<ApplicationInfo>> loader(String... packageNames) {
+        return () -> {
+            mLoadCount.incrementAndGet();
+            final List<ApplicationInfo> infos = new ArrayList<>();
+            for (String packageName : packageNames) {
+                final ApplicationInfo info = new ApplicationInfo();
+                info.packageName = packageName;
+                infos.add(info);
+            }
+            return infos;
+        };
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.applications;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Parcel;
+import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.internal.app.procstats.IProcessStats;
+import com.android.internal.app.procstats.ProcessStats;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+@RunWith(RobolectricTestRunner.class)
+public class ProcStatsDataTest {
+
+    private static final long DURATION_3H = ProcessStatsBase.sDurations[0];
+    private static final long DURATION_6H = ProcessStatsBase.sDurations[1];
+
+    @Rule
+    public final MockitoRule mMockitoRule = MockitoJUnit.rule();
+    @Rule
+    public final TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private IProcessStats mProcessStats;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = ApplicationProvider.getApplicationContext();
+        ProcStatsData.clearStatsCache();
+    }
+
+    @After
+    public void tearDown() {
+        ProcStatsData.clearStatsCache();
+    }
+
+    @Test
+    public void load_sameDurationTwice_shouldReadOnce() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        verify(mProcessStats, times(1)).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void load_otherDuration_shouldReadAgain() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_6H).load(false /* forceLoad */);
+
+        verify(mProcessStats).getStatsOverTime(DURATION_3H);
+        verify(mProcessStats).getStatsOverTime(DURATION_6H);
+    }
+
+    @Test
+    public void load_readError_shouldNotCache() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openEmpty());
+
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void preloadStats_shouldServeLaterLoad() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+        final ProcStatsData data = createProcStatsData(DURATION_3H);
+
+        data.preloadStats(DURATION_6H);
+        data.setDuration(DURATION_6H);
+        data.load(false /* forceLoad */);
+
+        verify(mProcessStats).getStatsOverTime(DURATION_6H);
+        verify(mProcessStats, never()).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void load_otherDuration_shouldKeepOnlyLatestStats() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_6H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        assertThat(ProcStatsData.getCachedStatsCount()).isEqualTo(1);
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void load_forceLoad_shouldReadAgainAndRefreshCache() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+        createProcStatsData(DURATION_3H).load(true /* forceLoad */);
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void load_expiredStats_shouldBeDropped() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        SystemClock.setCurrentTimeMillis(
+                SystemClock.uptimeMillis() + ProcStatsData.STATS_MAX_AGE_MS + 1);
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        verify(mProcessStats, times(2)).getStatsOverTime(DURATION_3H);
+    }
+
+    @Test
+    public void onTrimMemory_uiHidden_shouldClearCache() throws Exception {
+        when(mProcessStats.getStatsOverTime(anyLong())).thenAnswer(invocation -> openStats());
+        createProcStatsData(DURATION_3H).load(false /* forceLoad */);
+
+        ProcStatsData.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertThat(ProcStatsData.getCachedStatsCount()).isEqualTo(1);
+
+        ProcStatsData.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertThat(ProcStatsData.getCachedStatsCount()).isEqualTo(0);
+    }
+
+    private ProcStatsData createProcStatsData(long duration) {
+        final ProcStatsData data = new ProcStatsData(mContext, false /* useXfer */, mProcessStats);
+        data.setDuration(duration);
+        return data;
+    }
+
+    private ParcelFileDescriptor openStats() throws IOException {
+        final Parcel parcel = Parcel.obtain();
+        new ProcessStats(false).writeToParcel(parcel, 0 /* flags */);
+        final byte[] data = parcel.marshall();
+        parcel.recycle();
+        return open(data);
+    }
+
+    private ParcelFileDescriptor openEmpty() throws IOException {
+        return open(new byte[0]);
+    }
+
+    private ParcelFileDescriptor open(byte[] data) throws IOException {
+        final File file = mTemporaryFolder.newFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+    }
+}
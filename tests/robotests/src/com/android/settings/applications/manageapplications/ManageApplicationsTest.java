@@ -456,6 +456,39 @@ public class ManageApplicationsTest {
         assertThat(adapter.getAppEntry(2).label).isEqualTo("Mango");
     }
 
+    @Test
+    public void applicationsAdapter_filterSearch_longerQuery_shouldNarrowMatches() {
+        final ManageApplications.ApplicationsAdapter adapter =
+                new ManageApplications.ApplicationsAdapter(
+                        mState, mFragment, mock(AppFilterItem.class), Bundle.EMPTY);
+        final String[] appNames = {"Apricot", "Banana", "Cantaloupe", "Fig", "Mango"};
+        ReflectionHelpers.setField(adapter, "mOriginalEntries", getTestAppList(appNames));
+
+        adapter.filterSearch("a");
+        adapter.filterSearch("an");
+        adapter.filterSearch("ang");
+
+        assertThat(adapter.getItemCount()).isEqualTo(1);
+        assertThat(adapter.getAppEntry(0).label).isEqualTo("Mango");
+    }
+
+    @Test
+    public void applicationsAdapter_filterSearch_newAppList_shouldSearchNewList() {
+        final ManageApplications.ApplicationsAdapter adapter =
+                new ManageApplications.ApplicationsAdapter(
+                        mState, mFragment, mock(AppFilterItem.class), Bundle.EMPTY);
+        ReflectionHelpers.setField(adapter, "mOriginalEntries",
+                getTestAppList(new String[] {"Apricot", "Banana"}));
+        adapter.filterSearch("an");
+
+        ReflectionHelpers.setField(adapter, "mOriginalEntries",
+                getTestAppList(new String[] {"Cantaloupe", "Fig", "Mango"}));
+        adapter.filterSearch("ang");
+
+        assertThat(adapter.getItemCount()).isEqualTo(1);
+        assertThat(adapter.getAppEntry(0).label).isEqualTo("Mango");
+    }
+
     @Test
     public void sortOrderSavedOnRebuild() {
         when(mUserManager.getProfileIdsWithDisabled(anyInt())).thenReturn(new int[]{});
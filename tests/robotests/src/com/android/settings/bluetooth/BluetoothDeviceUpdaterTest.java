@@ -22,12 +22,15 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothProfile;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.drawable.Drawable;
+import android.os.Looper;
 import android.util.Pair;
 
 import androidx.preference.Preference;
@@ -52,6 +55,7 @@ import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadow.api.Shadow;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -304,7 +308,65 @@ public class BluetoothDeviceUpdaterTest {
         assertThat(mBluetoothDeviceUpdater.mPreferenceMap.containsKey(mBluetoothDevice)).isFalse();
     }
 
+    @Test
+    public void onProfileConnectionStateChanged_batchUpdates_evaluateOnceAfterDelay() {
+        mBluetoothDeviceUpdater.setBatchUpdates(true);
+
+        mBluetoothDeviceUpdater.onProfileConnectionStateChanged(mCachedBluetoothDevice,
+                BluetoothProfile.STATE_CONNECTED, BluetoothProfile.A2DP);
+        mBluetoothDeviceUpdater.onAclConnectionStateChanged(mCachedBluetoothDevice,
+                BluetoothAdapter.STATE_CONNECTED);
+
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+
+        shadowOf(Looper.getMainLooper()).idleFor(
+                Duration.ofMillis(BluetoothDeviceUpdater.BATCH_DELAY_MS));
+
+        assertThat(mBluetoothDeviceUpdater.mFilterMatchedCount).isEqualTo(1);
+        verify(mDevicePreferenceCallback).onDeviceAdded(
+                mBluetoothDeviceUpdater.mPreferenceMap.get(mBluetoothDevice));
+    }
+
+    @Test
+    public void onDeviceAdded_batchUpdatesDisabledBeforeFlush_doNothing() {
+        mBluetoothDeviceUpdater.setBatchUpdates(true);
+
+        mBluetoothDeviceUpdater.onDeviceAdded(mCachedBluetoothDevice);
+        mBluetoothDeviceUpdater.setBatchUpdates(false);
+        shadowOf(Looper.getMainLooper()).idleFor(
+                Duration.ofMillis(BluetoothDeviceUpdater.BATCH_DELAY_MS));
+
+        assertThat(mBluetoothDeviceUpdater.mFilterMatchedCount).isEqualTo(0);
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void onDeviceDeleted_batchUpdatePending_doNotAdd() {
+        mBluetoothDeviceUpdater.setBatchUpdates(true);
+        mBluetoothDeviceUpdater.onDeviceAdded(mCachedBluetoothDevice);
+
+        mBluetoothDeviceUpdater.onDeviceDeleted(mCachedBluetoothDevice);
+        mBluetoothDeviceUpdater.flushPendingUpdates();
+
+        assertThat(mBluetoothDeviceUpdater.mUpdateCount).isEqualTo(0);
+        verify(mDevicePreferenceCallback, never()).onDeviceAdded(any(Preference.class));
+    }
+
+    @Test
+    public void flushPendingUpdates_shouldUpdateThroughOverride() {
+        mBluetoothDeviceUpdater.setBatchUpdates(true);
+        mBluetoothDeviceUpdater.onDeviceAdded(mCachedBluetoothDevice);
+
+        mBluetoothDeviceUpdater.flushPendingUpdates();
+
+        assertThat(mBluetoothDeviceUpdater.mUpdateCount).isEqualTo(1);
+        assertThat(mBluetoothDeviceUpdater.mPreferenceMap.containsKey(mBluetoothDevice)).isTrue();
+    }
+
     public static class TestBluetoothDeviceUpdater extends BluetoothDeviceUpdater {
+        int mFilterMatchedCount;
+        int mUpdateCount;
+
         public TestBluetoothDeviceUpdater(Context context,
                 DevicePreferenceCallback devicePreferenceCallback,
                 LocalBluetoothManager localManager, int metricsCategory) {
@@ -313,9 +375,16 @@ public class BluetoothDeviceUpdaterTest {
 
         @Override
         public boolean isFilterMatched(CachedBluetoothDevice cachedBluetoothDevice) {
+            mFilterMatchedCount++;
             return true;
         }
 
+        @Override
+        protected void update(CachedBluetoothDevice cachedBluetoothDevice) {
+            mUpdateCount++;
+            super.update(cachedBluetoothDevice);
+        }
+
         @Override
         protected String getPreferenceKeyPrefix() {
             return "test_bt";
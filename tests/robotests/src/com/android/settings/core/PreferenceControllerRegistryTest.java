@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.junit.Assert.assertThrows;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class PreferenceControllerRegistryTest {
+
+    private static final String KEY = "test_key";
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        PreferenceControllerRegistry.resetReflectiveFallbacks();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createInstance_registeredControllerWithoutContextConstructor_shouldThrow() {
+        PreferenceControllerRegistry.registerKeyedFactory(RegisteredController.class,
+                RegisteredController::new);
+
+        BasePreferenceController.createInstance(mContext, RegisteredController.class.getName());
+    }
+
+    @Test
+    public void createInstance_registeredFactoryThrows_shouldWrapInIllegalStateException() {
+        final RuntimeException failure = new IllegalArgumentException();
+        PreferenceControllerRegistry.registerKeyedFactory(RegisteredController.class,
+                (context, key) -> {
+                    throw failure;
+                });
+
+        final IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> BasePreferenceController.createInstance(
+                        mContext, RegisteredController.class.getName(), KEY));
+
+        assertThat(e).hasCauseThat().isSameInstanceAs(failure);
+    }
+
+    @Test
+    public void createInstance_unregisteredController_shouldFallBackAndCount() {
+        final String name = UnregisteredController.class.getName();
+
+        BasePreferenceController.createInstance(mContext, name, KEY);
+        final BasePreferenceController controller =
+                BasePreferenceController.createInstance(mContext, name, KEY, false);
+
+        assertThat(controller).isInstanceOf(UnregisteredController.class);
+        assertThat(PreferenceControllerRegistry.getReflectiveFallbackCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void createInstance_registeredFactory_shouldUseFactory() {
+        PreferenceControllerRegistry.registerKeyedFactory(RegisteredController.class,
+                RegisteredController::new);
+
+        final BasePreferenceController controller = BasePreferenceController.createInstance(
+                mContext, RegisteredController.class.getName(), KEY);
+
+        assertThat(controller).isInstanceOf(RegisteredController.class);
+        assertThat(PreferenceControllerRegistry.getReflectiveFallbackCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void createInstance_otherShapeRegistered_shouldFallBackToReflection() {
+        PreferenceControllerRegistry.registerKeyedFactory(TwoConstructorController.class,
+                TwoConstructorController::new);
+
+        final BasePreferenceController controller = BasePreferenceController.createInstance(
+                mContext, TwoConstructorController.class.getName());
+
+        assertThat(controller).isInstanceOf(TwoConstructorController.class);
+        assertThat(PreferenceControllerRegistry.getReflectiveFallbackCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void createInstance_unknownClass_shouldThrowWithCause() {
+        final String name = "com.android.settings.NotAController";
+        for (int i = 0; i < 2; i++) {
+            final IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> BasePreferenceController.createInstance(mContext, name, KEY));
+            assertThat(e).hasCauseThat().isInstanceOf(ClassNotFoundException.class);
+        }
+    }
+
+    public static class UnregisteredController extends UnavailablePreferenceController {
+        public UnregisteredController(Context context, String preferenceKey) {
+            super(context, preferenceKey);
+        }
+    }
+
+    public static class TwoConstructorController extends UnavailablePreferenceController {
+        public TwoConstructorController(Context context) {
+            super(context, KEY);
+        }
+
+        public TwoConstructorController(Context context, String preferenceKey) {
+            super(context, preferenceKey);
+        }
+    }
+
+    public static class RegisteredController extends UnavailablePreferenceController {
+        public RegisteredController(Context context, String preferenceKey) {
+            super(context, preferenceKey);
+        }
+    }
+}
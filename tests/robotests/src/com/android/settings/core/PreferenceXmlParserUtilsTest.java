@@ -58,6 +58,7 @@ public class PreferenceXmlParserUtilsTest {
     @Before
     public void setUp() {
         mContext = getApplicationContext();
+        PreferenceXmlParserUtils.clearMetadataIndex();
     }
 
     @Test
@@ -264,4 +265,53 @@ public class PreferenceXmlParserUtilsTest {
         assertThat(bundleWithKey2Found).isTrue();
     }
 
+    @Test
+    @Config(qualifiers = "mcc999")
+    public void extractMetadata_calledTwice_shouldMatchDirectParse() throws Exception {
+        final int flags = MetadataFlag.FLAG_NEED_KEY | MetadataFlag.FLAG_NEED_PREF_TITLE
+                | MetadataFlag.FLAG_NEED_PREF_CONTROLLER | MetadataFlag.FLAG_INCLUDE_PREF_SCREEN;
+
+        PreferenceXmlParserUtils.extractMetadata(mContext, R.xml.location_settings, flags);
+        final List<Bundle> indexed = PreferenceXmlParserUtils.extractMetadata(mContext,
+                R.xml.location_settings, flags);
+        final List<Bundle> parsed = PreferenceXmlParserUtils.parseMetadata(mContext,
+                R.xml.location_settings, flags);
+
+        assertThat(indexed).hasSize(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertThat(indexed.get(i).keySet()).isEqualTo(parsed.get(i).keySet());
+            assertThat(indexed.get(i).getString(METADATA_KEY))
+                    .isEqualTo(parsed.get(i).getString(METADATA_KEY));
+            assertThat(indexed.get(i).getString(PreferenceXmlParserUtils.METADATA_TITLE))
+                    .isEqualTo(parsed.get(i).getString(PreferenceXmlParserUtils.METADATA_TITLE));
+        }
+    }
+
+    @Test
+    @Config(qualifiers = "mcc999")
+    public void extractMetadata_withoutPrefScreenFlag_shouldSkipPrefScreen() throws Exception {
+        final List<Bundle> withScreen = PreferenceXmlParserUtils.extractMetadata(mContext,
+                R.xml.location_settings,
+                MetadataFlag.FLAG_NEED_KEY | MetadataFlag.FLAG_INCLUDE_PREF_SCREEN);
+        final List<Bundle> withoutScreen = PreferenceXmlParserUtils.extractMetadata(mContext,
+                R.xml.location_settings, MetadataFlag.FLAG_NEED_KEY);
+
+        assertThat(withoutScreen).hasSize(withScreen.size() - 1);
+    }
+
+    @Test
+    @Config(qualifiers = "mcc999")
+    public void extractMetadata_mutateResult_shouldNotAffectLaterCalls() throws Exception {
+        final List<Bundle> first = PreferenceXmlParserUtils.extractMetadata(mContext,
+                R.xml.location_settings, MetadataFlag.FLAG_NEED_KEY);
+        final String key = first.get(0).getString(METADATA_KEY);
+        first.get(0).putString(METADATA_KEY, "mutated");
+        first.clear();
+
+        final List<Bundle> second = PreferenceXmlParserUtils.extractMetadata(mContext,
+                R.xml.location_settings, MetadataFlag.FLAG_NEED_KEY);
+
+        assertThat(second).isNotEmpty();
+        assertThat(second.get(0).getString(METADATA_KEY)).isEqualTo(key);
+    }
 }
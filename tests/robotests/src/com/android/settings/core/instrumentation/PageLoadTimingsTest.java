@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.core.instrumentation;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class PageLoadTimingsTest {
+
+    private static final String PAGE = "TestPage";
+
+    private PageLoadTimings mTimings;
+
+    @Before
+    public void setUp() {
+        mTimings = new PageLoadTimings();
+    }
+
+    @Test
+    public void dump_afterRecordPhase_shouldAggregatePhase() throws Exception {
+        mTimings.recordPhase(PAGE, PageLoadTimings.PHASE_UPDATE_PREFERENCE_STATES, 2000_000);
+        mTimings.recordPhase(PAGE, PageLoadTimings.PHASE_UPDATE_PREFERENCE_STATES, 4000_000);
+
+        final JSONObject phase = mTimings.dump().getJSONObject(PAGE).getJSONObject("phases")
+                .getJSONObject(PageLoadTimings.PHASE_UPDATE_PREFERENCE_STATES);
+
+        assertThat(phase.getLong("count")).isEqualTo(2);
+        assertThat(phase.getLong("avg_us")).isEqualTo(3000);
+        assertThat(phase.getLong("max_us")).isEqualTo(4000);
+    }
+
+    @Test
+    public void dump_afterRecordController_shouldListSlowestControllerFirst() throws Exception {
+        mTimings.recordController(PAGE, "FastController", PageLoadTimings.STEP_UPDATE_STATE,
+                1000);
+        mTimings.recordController(PAGE, "SlowController", PageLoadTimings.STEP_IS_AVAILABLE,
+                5000_000);
+        mTimings.recordController(PAGE, "SlowController", PageLoadTimings.STEP_UPDATE_STATE,
+                1000_000);
+
+        final JSONArray controllers =
+                mTimings.dump().getJSONObject(PAGE).getJSONArray("slowest_controllers");
+
+        assertThat(controllers.length()).isEqualTo(2);
+        final JSONObject slowest = controllers.getJSONObject(0);
+        assertThat(slowest.getString("controller")).isEqualTo("SlowController");
+        assertThat(slowest.getJSONObject("isAvailable").getLong("max_us")).isEqualTo(5000);
+        assertThat(slowest.getJSONObject("updateState").getLong("count")).isEqualTo(1);
+        assertThat(slowest.has("displayPreference")).isFalse();
+    }
+}
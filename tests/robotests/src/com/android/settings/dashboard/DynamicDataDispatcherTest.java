@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.IContentProvider;
+import android.net.Uri;
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RunWith(RobolectricTestRunner.class)
+public class DynamicDataDispatcherTest {
+
+    private final Set<DynamicDataObserver> mOffScreenObservers = new HashSet<>();
+    private DynamicDataDispatcher mDispatcher;
+
+    @Before
+    public void setUp() {
+        mDispatcher = new DynamicDataDispatcher(
+                observer -> !mOffScreenObservers.contains(observer));
+    }
+
+    @Test
+    public void onChange_multipleTimesInFrame_shouldRefreshOnce() {
+        final TestObserver observer = new TestObserver("com.android.test");
+        observer.setDispatcher(mDispatcher);
+
+        observer.onChange(false);
+        observer.onChange(false);
+        observer.onChange(false);
+
+        assertThat(observer.mRefreshCount).isEqualTo(0);
+
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(1);
+    }
+
+    @Test
+    public void dispatch_sameAuthority_shouldShareProviders() {
+        final TestObserver observer1 = new TestObserver("com.android.test");
+        final TestObserver observer2 = new TestObserver("com.android.test");
+        final TestObserver observer3 = new TestObserver("com.android.other");
+
+        mDispatcher.onChange(observer1);
+        mDispatcher.onChange(observer2);
+        mDispatcher.onChange(observer3);
+        idleForFrame();
+
+        assertThat(observer1.mProviderMap).isSameInstanceAs(observer2.mProviderMap);
+        assertThat(observer1.mProviderMap).isNotSameInstanceAs(observer3.mProviderMap);
+    }
+
+    @Test
+    public void dispatch_offScreen_shouldRefreshWhenOnScreen() {
+        final TestObserver observer = new TestObserver("com.android.test");
+        mOffScreenObservers.add(observer);
+
+        mDispatcher.onChange(observer);
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(0);
+
+        mDispatcher.dispatchStale();
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(0);
+
+        mOffScreenObservers.clear();
+        mDispatcher.dispatchStale();
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(1);
+    }
+
+    @Test
+    public void stop_shouldRefreshPendingObserversOnNextDispatchStale() {
+        final TestObserver observer = new TestObserver("com.android.test");
+
+        mDispatcher.onChange(observer);
+        mDispatcher.stop();
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(0);
+
+        mDispatcher.dispatchStale();
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(1);
+    }
+
+    @Test
+    public void remove_shouldNotRefresh() {
+        final TestObserver observer = new TestObserver("com.android.test");
+
+        mDispatcher.onChange(observer);
+        mDispatcher.remove(observer);
+        idleForFrame();
+
+        assertThat(observer.mRefreshCount).isEqualTo(0);
+    }
+
+    private static void idleForFrame() {
+        shadowOf(Looper.getMainLooper())
+                .idleFor(Duration.ofMillis(DynamicDataDispatcher.DISPATCH_DELAY_MS));
+    }
+
+    private static class TestObserver extends DynamicDataObserver {
+
+        private final Uri mUri;
+        private int mRefreshCount;
+        private Map<String, IContentProvider> mProviderMap;
+
+        TestObserver(String authority) {
+            mUri = new Uri.Builder().scheme("content").authority(authority).build();
+        }
+
+        @Override
+        public Uri getUri() {
+            return mUri;
+        }
+
+        @Override
+        public void onDataChanged() {
+        }
+
+        @Override
+        public void onDataChanged(Map<String, IContentProvider> providerMap) {
+            mRefreshCount++;
+            mProviderMap = providerMap;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class DynamicDataObserverTest {
+
+    private TestObserver mObserver;
+    private int mUpdateCount;
+
+    @Before
+    public void setUp() {
+        mObserver = new TestObserver();
+    }
+
+    @Test
+    public void post_beforeUpdateUi_shouldDeferUntilUpdateUi() {
+        mObserver.post(() -> mUpdateCount++);
+
+        assertThat(mUpdateCount).isEqualTo(0);
+
+        mObserver.updateUi();
+
+        assertThat(mUpdateCount).isEqualTo(1);
+    }
+
+    @Test
+    public void post_afterUpdateUi_shouldApplyWhenDataArrives() {
+        mObserver.updateUi();
+
+        mObserver.post(() -> mUpdateCount++);
+
+        assertThat(mUpdateCount).isEqualTo(1);
+    }
+
+    private static class TestObserver extends DynamicDataObserver {
+
+        @Override
+        public Uri getUri() {
+            return Uri.parse("content://com.android.settings/test");
+        }
+
+        @Override
+        public void onDataChanged() {
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.dashboard;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.ChangedPackages;
+import android.content.pm.PackageManager;
+import android.os.Bundle;
+import android.os.UserHandle;
+import android.os.UserManager;
+import android.util.SparseIntArray;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.settingslib.drawer.ActivityTile;
+import com.android.settingslib.drawer.CategoryKey;
+import com.android.settingslib.drawer.DashboardCategory;
+import com.android.settingslib.drawer.Tile;
+import com.android.settingslib.drawer.TileUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class TileSnapshotStoreTest {
+
+    private static final int PROFILE_USER_ID = 10;
+
+    @Mock
+    private PackageManager mPackageManager;
+    @Mock
+    private PackageManager mProfilePackageManager;
+    @Mock
+    private UserManager mUserManager;
+
+    private Context mContext;
+    private TileSnapshotStore mStore;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mContext = spy(ApplicationProvider.getApplicationContext());
+        doReturn(mContext).when(mContext).getApplicationContext();
+        doReturn(mPackageManager).when(mContext).getPackageManager();
+        doReturn(mUserManager).when(mContext).getSystemService(UserManager.class);
+        when(mUserManager.getUserProfiles()).thenReturn(
+                Collections.singletonList(UserHandle.of(mContext.getUserId())));
+        mStore = spy(new TileSnapshotStore(mContext));
+        doReturn(mProfilePackageManager).when(mStore).getPackageManager(PROFILE_USER_ID);
+    }
+
+    @Test
+    public void load_noSnapshot_shouldReturnNull() {
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void load_afterSave_shouldReturnCategories() {
+        mStore.save(mContext, createCategories(), createSequenceNumbers());
+
+        final List<DashboardCategory> categories = mStore.load(mContext);
+
+        assertThat(categories).hasSize(1);
+        assertThat(categories.get(0).key).isEqualTo(CategoryKey.CATEGORY_HOMEPAGE);
+        assertThat(categories.get(0).getTilesCount()).isEqualTo(1);
+        assertThat(categories.get(0).getTile(0).getComponentName()).isEqualTo("class");
+    }
+
+    @Test
+    public void load_packageChangedSinceSave_shouldReturnNull() {
+        mStore.save(mContext, createCategories(), createSequenceNumbers());
+        when(mPackageManager.getChangedPackages(anyInt())).thenReturn(
+                new ChangedPackages(1, Collections.singletonList("pkg")));
+
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void load_profilePackageChangedSinceSave_shouldReturnNull() {
+        givenWorkProfile();
+        mStore.save(mContext, createCategories(), mStore.getSequenceNumbers());
+        when(mProfilePackageManager.getChangedPackages(anyInt())).thenReturn(
+                new ChangedPackages(1, Collections.singletonList("pkg")));
+
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void load_profileAddedSinceSave_shouldReturnNull() {
+        mStore.save(mContext, createCategories(), mStore.getSequenceNumbers());
+        givenWorkProfile();
+
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void getSequenceNumbers_secondCall_shouldOnlyQueryChangesSinceFirst() {
+        when(mPackageManager.getChangedPackages(0)).thenReturn(
+                new ChangedPackages(5, Collections.singletonList("pkg")));
+
+        mStore.getSequenceNumbers();
+        final SparseIntArray sequenceNumbers = mStore.getSequenceNumbers();
+
+        assertThat(sequenceNumbers.get(mContext.getUserId())).isEqualTo(5);
+        verify(mPackageManager).getChangedPackages(0);
+        verify(mPackageManager).getChangedPackages(5);
+    }
+
+    @Test
+    public void load_afterSave_shouldOnlyKeepSettingsMetaData() {
+        final List<DashboardCategory> categories = createCategories();
+        final Bundle metaData = categories.get(0).getTile(0).getMetaData();
+        metaData.putInt(TileUtils.META_DATA_KEY_ORDER, 5);
+        metaData.putString("other.key", "value");
+        mStore.save(mContext, categories, createSequenceNumbers());
+
+        final Tile tile = mStore.load(mContext).get(0).getTile(0);
+
+        assertThat(tile.getOrder()).isEqualTo(5);
+        assertThat(tile.getMetaData().containsKey("other.key")).isFalse();
+    }
+
+    @Test
+    public void save_packageChangedWhileQuerying_shouldNotWriteSnapshot() {
+        when(mPackageManager.getChangedPackages(0)).thenReturn(
+                new ChangedPackages(1, Collections.singletonList("pkg")));
+
+        mStore.save(mContext, createCategories(), createSequenceNumbers());
+
+        assertThat(new File(mContext.getCacheDir(), TileSnapshotStore.FILE_NAME).exists())
+                .isFalse();
+    }
+
+    @Test
+    public void load_afterClear_shouldReturnNull() {
+        mStore.save(mContext, createCategories(), createSequenceNumbers());
+
+        mStore.clear();
+
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    private void givenWorkProfile() {
+        when(mUserManager.getUserProfiles()).thenReturn(Arrays.asList(
+                UserHandle.of(mContext.getUserId()), UserHandle.of(PROFILE_USER_ID)));
+    }
+
+    private SparseIntArray createSequenceNumbers() {
+        final SparseIntArray sequenceNumbers = new SparseIntArray();
+        sequenceNumbers.put(mContext.getUserId(), 0);
+        return sequenceNumbers;
+    }
+
+    private static List<DashboardCategory> createCategories() {
+        final ActivityInfo activityInfo = new ActivityInfo();
+        activityInfo.packageName = "pkg";
+        activityInfo.name = "class";
+        activityInfo.metaData = new Bundle();
+        activityInfo.applicationInfo = new ApplicationInfo();
+        final DashboardCategory category = new DashboardCategory(CategoryKey.CATEGORY_HOMEPAGE);
+        category.addTile(new ActivityTile(activityInfo, CategoryKey.CATEGORY_HOMEPAGE));
+        return Collections.singletonList(category);
+    }
+}
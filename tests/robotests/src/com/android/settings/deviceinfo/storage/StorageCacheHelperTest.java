@@ -78,6 +78,23 @@ public class StorageCacheHelperTest {
         assertThat(storageCache.totalSize).isEqualTo(0);
     }
 
+    @Test
+    public void cacheFileSizeInfo_shouldOnlyUpdateFileSizes() {
+        mHelper.cacheSizeInfo(getFakeStorageCache());
+
+        mHelper.cacheFileSizeInfo(1L, 2L, 3L, 4L, 5L, 6L);
+
+        StorageCacheHelper.StorageCache storageCache = mHelper.retrieveCachedSize();
+        assertThat(storageCache.imagesSize).isEqualTo(1L);
+        assertThat(storageCache.videosSize).isEqualTo(2L);
+        assertThat(storageCache.audioSize).isEqualTo(3L);
+        assertThat(storageCache.documentsSize).isEqualTo(4L);
+        assertThat(storageCache.otherSize).isEqualTo(5L);
+        assertThat(storageCache.trashSize).isEqualTo(6L);
+        assertThat(storageCache.allAppsExceptGamesSize).isEqualTo(FAKE_APPS_SIZE);
+        assertThat(storageCache.systemSize).isEqualTo(FAKE_SYSTEM_SIZE);
+    }
+
     @Test
     public void cacheTotalSizeAndUsedSize_shouldSaveToSharedPreference() {
         mHelper.cacheTotalSizeAndTotalUsedSize(FAKE_TOTAL_SIZE, FAKE_TOTAL_USED_SIZE);
@@ -334,7 +334,10 @@ public final class BatteryUsageContentProviderTest {
         assertThat(states.get(0).timestamp).isEqualTo(2100021L);
         assertThat(states.get(0).consumerType).isEqualTo(2);
         assertThat(states.get(0).isFullChargeCycleStart).isTrue();
-        assertThat(states.get(0).batteryInformation).isEqualTo(expectedBatteryInformationString);
+        assertThat(states.get(0).batteryInformation).isEqualTo(batteryInformation.toByteArray());
+        assertThat(states.get(0).consumePower).isEqualTo(9);
+        assertThat(states.get(0).foregroundUsageTimeInMs).isEqualTo(1000L);
+        assertThat(states.get(0).backgroundUsageTimeInMs).isEqualTo(2000L);
     }
 
     @Test
@@ -364,7 +367,8 @@ public final class BatteryUsageContentProviderTest {
         assertThat(states).hasSize(1);
         assertThat(states.get(0).packageName).isEqualTo("fake_data");
         assertThat(states.get(0).timestamp).isEqualTo(2100022L);
-        assertThat(states.get(0).batteryInformation).isEqualTo(expectedBatteryInformationString);
+        assertThat(states.get(0).batteryInformation).isEqualTo(batteryInformation.toByteArray());
+        assertThat(states.get(0).batteryLevel).isEqualTo(52);
     }
 
     @Test
@@ -441,7 +445,8 @@ public final class BatteryUsageContentProviderTest {
         mProvider.onCreate();
         ContentValues values = new ContentValues();
         values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, 10001L);
-        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, "TEST_STRING");
+        final byte[] batteryUsageSlot = new byte[] {1, 2, 3};
+        values.put(BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT, batteryUsageSlot);
 
         final Uri uri = mProvider.insert(DatabaseUtils.BATTERY_USAGE_SLOT_URI, values);
         // Verifies the BatteryUsageSlotEntity content.
@@ -450,7 +455,7 @@ public final class BatteryUsageContentProviderTest {
                 BatteryStateDatabase.getInstance(mContext).batteryUsageSlotDao().getAll();
         assertThat(entities).hasSize(1);
         assertThat(entities.get(0).timestamp).isEqualTo(10001L);
-        assertThat(entities.get(0).batteryUsageSlot).isEqualTo("TEST_STRING");
+        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(batteryUsageSlot);
 
         final Cursor cursor1 = getCursorOfBatteryUsageSlots(10001L);
         assertThat(cursor1.getCount()).isEqualTo(1);
@@ -458,10 +463,10 @@ public final class BatteryUsageContentProviderTest {
         assertThat(cursor1.getLong(cursor1.getColumnIndex(BatteryUsageSlotEntity.KEY_TIMESTAMP)))
                 .isEqualTo(10001L);
         assertThat(
-                        cursor1.getString(
+                        cursor1.getBlob(
                                 cursor1.getColumnIndex(
                                         BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT)))
-                .isEqualTo("TEST_STRING");
+                .isEqualTo(batteryUsageSlot);
 
         final Cursor cursor2 = getCursorOfBatteryUsageSlots(10002L);
         assertThat(cursor2.getCount()).isEqualTo(0);
@@ -36,7 +36,7 @@ import java.util.List;
 /** Tests for {@link BatteryStateDao}. */
 @RunWith(RobolectricTestRunner.class)
 public final class BatteryStateDaoTest {
-    private static final int CURSOR_COLUMN_SIZE = 9;
+    private static final int CURSOR_COLUMN_SIZE = 13;
     private static final long CURRENT = System.currentTimeMillis();
     private static final long TIMESTAMP1 = CURRENT;
     private static final long TIMESTAMP2 = CURRENT + 2;
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.fuelgauge.batteryusage.db;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.settings.fuelgauge.batteryusage.BatteryInformation;
+import com.android.settings.fuelgauge.batteryusage.BatteryUsageSlot;
+import com.android.settings.fuelgauge.batteryusage.ConvertUtils;
+import com.android.settings.fuelgauge.batteryusage.DeviceBatteryState;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/** Tests for {@link BatteryStateDatabase#MIGRATION_3_4}. */
+@RunWith(RobolectricTestRunner.class)
+public final class BatteryStateDatabaseMigrationTest {
+
+    private SupportSQLiteOpenHelper mOpenHelper;
+    private SupportSQLiteDatabase mDatabase;
+    private BatteryInformation mBatteryInformation;
+    private BatteryUsageSlot mBatteryUsageSlot;
+
+    @Before
+    public void setUp() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        mOpenHelper =
+                new FrameworkSQLiteOpenHelperFactory()
+                        .create(
+                                SupportSQLiteOpenHelper.Configuration.builder(context)
+                                        .name(null)
+                                        .callback(new Version3Callback())
+                                        .build());
+        mDatabase = mOpenHelper.getWritableDatabase();
+        mBatteryInformation =
+                BatteryInformation.newBuilder()
+                        .setDeviceBatteryState(
+                                DeviceBatteryState.newBuilder().setBatteryLevel(67).build())
+                        .setAppLabel("Settings")
+                        .setConsumePower(12.5)
+                        .setForegroundUsageTimeInMs(3000)
+                        .setBackgroundUsageTimeInMs(4000)
+                        .build();
+        mBatteryUsageSlot =
+                BatteryUsageSlot.newBuilder().setStartTimestamp(1L).setEndTimestamp(2L).build();
+    }
+
+    @After
+    public void tearDown() {
+        mOpenHelper.close();
+    }
+
+    @Test
+    public void migrate3To4_batteryState_convertsToBlobAndFillsHotColumns() {
+        final ContentValues values = new ContentValues();
+        values.put("uid", 1001L);
+        values.put("userId", 0L);
+        values.put("packageName", "com.android.settings");
+        values.put("timestamp", 100L);
+        values.put("consumerType", 1);
+        values.put("isFullChargeCycleStart", 0);
+        values.put(
+                "batteryInformation",
+                ConvertUtils.convertBatteryInformationToString(mBatteryInformation));
+        values.put("batteryInformationDebug", "debug");
+        mDatabase.insert("BatteryState", SQLiteDatabase.CONFLICT_REPLACE, values);
+
+        BatteryStateDatabase.MIGRATION_3_4.migrate(mDatabase);
+
+        try (Cursor cursor = mDatabase.query("SELECT * FROM `BatteryState`")) {
+            assertThat(cursor.getCount()).isEqualTo(1);
+            cursor.moveToFirst();
+            assertThat(cursor.getString(cursor.getColumnIndex("packageName")))
+                    .isEqualTo("com.android.settings");
+            assertThat(cursor.getBlob(cursor.getColumnIndex("batteryInformation")))
+                    .isEqualTo(mBatteryInformation.toByteArray());
+            assertThat(cursor.getDouble(cursor.getColumnIndex("consumePower"))).isEqualTo(12.5);
+            assertThat(cursor.getLong(cursor.getColumnIndex("foregroundUsageTimeInMs")))
+                    .isEqualTo(3000L);
+            assertThat(cursor.getLong(cursor.getColumnIndex("backgroundUsageTimeInMs")))
+                    .isEqualTo(4000L);
+            assertThat(cursor.getInt(cursor.getColumnIndex("batteryLevel"))).isEqualTo(67);
+        }
+    }
+
+    @Test
+    public void migrate3To4_batteryUsageSlot_convertsToBlob() {
+        final ContentValues values = new ContentValues();
+        values.put(BatteryUsageSlotEntity.KEY_TIMESTAMP, 100L);
+        values.put(
+                BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT,
+                Base64.encodeToString(mBatteryUsageSlot.toByteArray(), Base64.DEFAULT));
+        mDatabase.insert("BatteryUsageSlotEntity", SQLiteDatabase.CONFLICT_REPLACE, values);
+
+        BatteryStateDatabase.MIGRATION_3_4.migrate(mDatabase);
+
+        try (Cursor cursor = mDatabase.query("SELECT * FROM `BatteryUsageSlotEntity`")) {
+            assertThat(cursor.getCount()).isEqualTo(1);
+            cursor.moveToFirst();
+            assertThat(cursor.getLong(cursor.getColumnIndex(BatteryUsageSlotEntity.KEY_TIMESTAMP)))
+                    .isEqualTo(100L);
+            assertThat(
+                            cursor.getBlob(
+                                    cursor.getColumnIndex(
+                                            BatteryUsageSlotEntity.KEY_BATTERY_USAGE_SLOT)))
+                    .isEqualTo(mBatteryUsageSlot.toByteArray());
+        }
+    }
+
+    /** Creates the version 3 layout of the migrated tables. */
+    private static final class Version3Callback extends SupportSQLiteOpenHelper.Callback {
+        Version3Callback() {
+            super(3);
+        }
+
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL(
+                    "CREATE TABLE `BatteryState` ("
+                            + "`mId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                            + "`uid` INTEGER NOT NULL, "
+                            + "`userId` INTEGER NOT NULL, "
+                            + "`packageName` TEXT, "
+                            + "`timestamp` INTEGER NOT NULL, "
+                            + "`consumerType` INTEGER NOT NULL, "
+                            + "`isFullChargeCycleStart` INTEGER NOT NULL, "
+                            + "`batteryInformation` TEXT, "
+                            + "`batteryInformationDebug` TEXT)");
+            db.execSQL(
+                    "CREATE TABLE `BatteryUsageSlotEntity` ("
+                            + "`mId` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                            + "`timestamp` INTEGER NOT NULL, "
+                            + "`batteryUsageSlot` TEXT)");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {}
+    }
+}
@@ -18,6 +18,7 @@ package com.android.settings.fuelgauge.batteryusage.db;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import android.content.ContentValues;
 import android.os.BatteryManager;
 
 import com.android.settings.fuelgauge.batteryusage.BatteryInformation;
@@ -76,8 +77,30 @@ public final class BatteryStateTest {
         assertThat(state.timestamp).isEqualTo(100001L);
         assertThat(state.consumerType).isEqualTo(2);
         assertThat(state.isFullChargeCycleStart).isTrue();
-        assertThat(state.batteryInformation)
-                .isEqualTo(ConvertUtils.convertBatteryInformationToString(mBatteryInformation));
+        assertThat(state.batteryInformation).isEqualTo(mBatteryInformation.toByteArray());
+    }
+
+    @Test
+    public void testBuilder_copiesHotFieldsFromBatteryInformation() {
+        BatteryState state = create(mBatteryInformation);
+
+        assertThat(state.consumePower).isEqualTo(mBatteryInformation.getConsumePower());
+        assertThat(state.foregroundUsageTimeInMs).isEqualTo(60000L);
+        assertThat(state.backgroundUsageTimeInMs).isEqualTo(10000L);
+        assertThat(state.batteryLevel)
+                .isEqualTo(mBatteryInformation.getDeviceBatteryState().getBatteryLevel());
+    }
+
+    @Test
+    public void create_legacyBase64ContentValues_returnsBytes() {
+        final ContentValues values = new ContentValues();
+        values.put(
+                "batteryInformation",
+                ConvertUtils.convertBatteryInformationToString(mBatteryInformation));
+
+        BatteryState state = BatteryState.create(values);
+
+        assertThat(state.batteryInformation).isEqualTo(mBatteryInformation.toByteArray());
     }
 
     private static BatteryState create(BatteryInformation batteryInformation) {
@@ -88,8 +111,7 @@ public final class BatteryStateTest {
                 .setTimestamp(100001L)
                 .setConsumerType(2)
                 .setIsFullChargeCycleStart(true)
-                .setBatteryInformation(
-                        ConvertUtils.convertBatteryInformationToString(batteryInformation))
+                .setBatteryInformation(batteryInformation.toByteArray())
                 .build();
     }
 }
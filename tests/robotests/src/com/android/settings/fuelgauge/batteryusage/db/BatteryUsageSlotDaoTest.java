@@ -40,8 +40,8 @@ public final class BatteryUsageSlotDaoTest {
     private static final long CURRENT = System.currentTimeMillis();
     private static final long TIMESTAMP1 = CURRENT;
     private static final long TIMESTAMP2 = CURRENT + 2;
-    private static final String BATTERY_USAGE_SLOT_STRING1 = "BATTERY_USAGE_SLOT_STRING1";
-    private static final String BATTERY_USAGE_SLOT_STRING2 = "BATTERY_USAGE_SLOT_STRING2";
+    private static final byte[] BATTERY_USAGE_SLOT_BYTES1 = new byte[] {1, 2, 3};
+    private static final byte[] BATTERY_USAGE_SLOT_BYTES2 = new byte[] {4, 5, 6};
 
     private Context mContext;
     private BatteryStateDatabase mDatabase;
@@ -53,9 +53,9 @@ public final class BatteryUsageSlotDaoTest {
         mDatabase = BatteryTestUtils.setUpBatteryStateDatabase(mContext);
         mBatteryUsageSlotDao = mDatabase.batteryUsageSlotDao();
         mBatteryUsageSlotDao.insert(
-                new BatteryUsageSlotEntity(TIMESTAMP1, BATTERY_USAGE_SLOT_STRING1));
+                new BatteryUsageSlotEntity(TIMESTAMP1, BATTERY_USAGE_SLOT_BYTES1));
         mBatteryUsageSlotDao.insert(
-                new BatteryUsageSlotEntity(TIMESTAMP2, BATTERY_USAGE_SLOT_STRING2));
+                new BatteryUsageSlotEntity(TIMESTAMP2, BATTERY_USAGE_SLOT_BYTES2));
     }
 
     @After
@@ -69,9 +69,9 @@ public final class BatteryUsageSlotDaoTest {
         final List<BatteryUsageSlotEntity> entities = mBatteryUsageSlotDao.getAll();
         assertThat(entities).hasSize(2);
         assertThat(entities.get(0).timestamp).isEqualTo(TIMESTAMP1);
-        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_STRING1);
+        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_BYTES1);
         assertThat(entities.get(1).timestamp).isEqualTo(TIMESTAMP2);
-        assertThat(entities.get(1).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_STRING2);
+        assertThat(entities.get(1).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_BYTES2);
     }
 
     @Test
@@ -98,7 +98,7 @@ public final class BatteryUsageSlotDaoTest {
         final List<BatteryUsageSlotEntity> entities = mBatteryUsageSlotDao.getAll();
         assertThat(entities).hasSize(1);
         assertThat(entities.get(0).timestamp).isEqualTo(TIMESTAMP2);
-        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_STRING2);
+        assertThat(entities.get(0).batteryUsageSlot).isEqualTo(BATTERY_USAGE_SLOT_BYTES2);
     }
 
     @Test
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.util.ArrayMap;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class HomepageSnapshotStoreTest {
+
+    private Context mContext;
+    private HomepageSnapshotStore mStore;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mStore = new HomepageSnapshotStore(mContext);
+    }
+
+    @Test
+    public void load_noSnapshot_shouldReturnNull() {
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void load_afterSave_shouldReturnEntries() {
+        final Map<String, HomepageSnapshotStore.Entry> entries = new ArrayMap<>();
+        entries.put("top_level_battery", new HomepageSnapshotStore.Entry("Battery", "80%"));
+        entries.put("top_level_storage", new HomepageSnapshotStore.Entry("Storage", null));
+        mStore.save(mContext, entries);
+
+        final Map<String, HomepageSnapshotStore.Entry> loaded = mStore.load(mContext);
+
+        assertThat(loaded).hasSize(2);
+        assertThat(loaded.get("top_level_battery").mTitle.toString()).isEqualTo("Battery");
+        assertThat(loaded.get("top_level_battery").mSummary.toString()).isEqualTo("80%");
+        assertThat(loaded.get("top_level_storage").mSummary).isNull();
+    }
+
+    @Test
+    public void load_configurationChanged_shouldReturnNull() {
+        mStore.save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "80%")));
+        RuntimeEnvironment.setQualifiers("+xxhdpi");
+
+        assertThat(mStore.load(mContext)).isNull();
+    }
+
+    @Test
+    public void getEntries_afterPreload_shouldReturnEntries() {
+        mStore.save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "80%")));
+        final List<Map<String, HomepageSnapshotStore.Entry>> results = new ArrayList<>();
+
+        mStore.preload(mContext);
+        mStore.getEntries(mContext, results::add);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).get("top_level_battery").mSummary.toString())
+                .isEqualTo("80%");
+    }
+
+    @Test
+    public void getEntries_snapshotReplaced_shouldReadAgain() {
+        mStore.save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "80%")));
+        mStore.getEntries(mContext, entries -> { });
+        mStore.save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "60%")));
+        final List<Map<String, HomepageSnapshotStore.Entry>> results = new ArrayList<>();
+
+        mStore.getEntries(mContext, results::add);
+
+        assertThat(results.get(0).get("top_level_battery").mSummary.toString())
+                .isEqualTo("60%");
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.homepage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.settings.core.BasePreferenceController;
+import com.android.settings.core.PreferenceControllerRegistry;
+import com.android.settings.sound.TopLevelSoundPreferenceController;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class TopLevelControllerFactoriesTest {
+
+    private static final String KEY = "test_key";
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        TopLevelControllerFactories.register();
+    }
+
+    @Test
+    public void createInstance_homepageController_shouldNotUseReflection() {
+        final int fallbacks = PreferenceControllerRegistry.getReflectiveFallbackCount();
+
+        final BasePreferenceController controller = BasePreferenceController.createInstance(
+                mContext, TopLevelSoundPreferenceController.class.getName(), KEY);
+
+        assertThat(controller).isInstanceOf(TopLevelSoundPreferenceController.class);
+        assertThat(controller.getPreferenceKey()).isEqualTo(KEY);
+        assertThat(PreferenceControllerRegistry.getReflectiveFallbackCount())
+                .isEqualTo(fallbacks);
+    }
+}
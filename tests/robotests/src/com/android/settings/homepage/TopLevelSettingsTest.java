@@ -16,6 +16,8 @@
 
 package com.android.settings.homepage;
 
+import static com.google.common.truth.Truth.assertThat;
+
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doReturn;
@@ -44,6 +46,8 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.util.Map;
+
 @RunWith(RobolectricTestRunner.class)
 public class TopLevelSettingsTest {
     @Rule
@@ -54,6 +58,7 @@ public class TopLevelSettingsTest {
     @Before
     public void setUp() {
         mContext = RuntimeEnvironment.application;
+        HomepageSnapshotStore.reset();
         mSettings = spy(new TopLevelSettings());
         when(mSettings.getContext()).thenReturn(mContext);
         final FakeFeatureFactory featureFactory = FakeFeatureFactory.setupForTest();
@@ -81,4 +86,65 @@ public class TopLevelSettingsTest {
 
         verify(icon).setTint(anyInt());
     }
+
+    @Test
+    public void onCreatePreferences_withSnapshot_shouldShowSnapshotSummary() {
+        new HomepageSnapshotStore(mContext).save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "80%")));
+        final Preference preference = new Preference(mContext);
+        preference.setKey("top_level_battery");
+        preference.setTitle("Battery");
+        preference.setSummary(R.string.summary_placeholder);
+        final PreferenceScreen screen = spy(new PreferenceScreen(mContext, null /* attrs */));
+        doReturn(1).when(screen).getPreferenceCount();
+        doReturn(preference).when(screen).getPreference(anyInt());
+        doReturn(screen).when(mSettings).getPreferenceScreen();
+        doReturn(new PreferenceManager(mContext)).when(mSettings).getPreferenceManager();
+        doReturn(0).when(mSettings).getPreferenceScreenResId();
+
+        mSettings.onCreatePreferences(null /* savedInstanceState */, "rootKey");
+
+        assertThat(preference.getSummary().toString()).isEqualTo("80%");
+    }
+
+    @Test
+    public void onCreatePreferences_snapshotOfOtherKey_shouldKeepSummary() {
+        new HomepageSnapshotStore(mContext).save(mContext, Map.of("top_level_display",
+                new HomepageSnapshotStore.Entry("Display", "Stale summary")));
+        final Preference preference = new Preference(mContext);
+        preference.setKey("top_level_display");
+        preference.setTitle("Display");
+        preference.setSummary(R.string.summary_placeholder);
+        final PreferenceScreen screen = spy(new PreferenceScreen(mContext, null /* attrs */));
+        doReturn(1).when(screen).getPreferenceCount();
+        doReturn(preference).when(screen).getPreference(anyInt());
+        doReturn(screen).when(mSettings).getPreferenceScreen();
+        doReturn(new PreferenceManager(mContext)).when(mSettings).getPreferenceManager();
+        doReturn(0).when(mSettings).getPreferenceScreenResId();
+
+        mSettings.onCreatePreferences(null /* savedInstanceState */, "rootKey");
+
+        assertThat(preference.getSummary().toString())
+                .isEqualTo(mContext.getString(R.string.summary_placeholder));
+    }
+
+    @Test
+    public void onCreatePreferences_summaryAlreadyLoaded_shouldKeepLiveSummary() {
+        new HomepageSnapshotStore(mContext).save(mContext, Map.of("top_level_battery",
+                new HomepageSnapshotStore.Entry("Battery", "80%")));
+        final Preference preference = new Preference(mContext);
+        preference.setKey("top_level_battery");
+        preference.setTitle("Battery");
+        preference.setSummary("75%");
+        final PreferenceScreen screen = spy(new PreferenceScreen(mContext, null /* attrs */));
+        doReturn(1).when(screen).getPreferenceCount();
+        doReturn(preference).when(screen).getPreference(anyInt());
+        doReturn(screen).when(mSettings).getPreferenceScreen();
+        doReturn(new PreferenceManager(mContext)).when(mSettings).getPreferenceManager();
+        doReturn(0).when(mSettings).getPreferenceScreenResId();
+
+        mSettings.onCreatePreferences(null /* savedInstanceState */, "rootKey");
+
+        assertThat(preference.getSummary().toString()).isEqualTo("75%");
+    }
 }
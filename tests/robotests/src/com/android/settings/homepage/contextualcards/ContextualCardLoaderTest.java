@@ -22,22 +22,30 @@ import static com.android.settings.intelligence.ContextualCardProto.ContextualCa
 import static com.google.common.truth.Truth.assertThat;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import android.app.settings.SettingsEnums;
 import android.content.Context;
 import android.net.Uri;
+import android.os.SystemClock;
 import android.provider.Settings;
 
+import androidx.slice.Slice;
+
 import com.android.settings.R;
 import com.android.settings.slices.CustomSliceRegistry;
 import com.android.settings.testutils.FakeFeatureFactory;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -46,6 +54,7 @@ import org.robolectric.RuntimeEnvironment;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RunWith(RobolectricTestRunner.class)
@@ -60,6 +69,12 @@ public class ContextualCardLoaderTest {
         mContext = RuntimeEnvironment.application;
         mContextualCardLoader = spy(new ContextualCardLoader(mContext));
         mFakeFeatureFactory = FakeFeatureFactory.setupForTest();
+        EligibleCardCache.getInstance().clear();
+    }
+
+    @After
+    public void tearDown() {
+        EligibleCardCache.getInstance().clear();
     }
 
     @Test
@@ -137,6 +152,96 @@ public class ContextualCardLoaderTest {
                 eq(SettingsEnums.ACTION_CONTEXTUAL_CARD_NOT_SHOW), any(String.class));
     }
 
+    @Test
+    public void filterEligibleCards_freshEligibleResult_shouldReuseCachedSlice() {
+        final ContextualCard card = getContextualCardList().get(0);
+        final Slice slice = mock(Slice.class);
+        EligibleCardCache.getInstance().put(card.getSliceUri(),
+                card.mutate().setSlice(slice).setHasInlineAction(true).build());
+
+        final List<ContextualCard> result =
+                mContextualCardLoader.filterEligibleCards(List.of(card));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSlice()).isSameInstanceAs(slice);
+        assertThat(result.get(0).hasInlineAction()).isTrue();
+        verify(mContextualCardLoader, never()).createEligibleCardChecker(any());
+    }
+
+    @Test
+    public void filterEligibleCards_freshIneligibleResult_shouldSkipCard() {
+        final ContextualCard card = getContextualCardList().get(0);
+        EligibleCardCache.getInstance().put(card.getSliceUri(), null);
+
+        assertThat(mContextualCardLoader.filterEligibleCards(List.of(card))).isEmpty();
+        verify(mContextualCardLoader, never()).createEligibleCardChecker(any());
+    }
+
+    @Test
+    public void filterEligibleCards_negativeRankingScore_shouldSkipCachedCard() {
+        final ContextualCard card = getContextualCardList().get(0);
+        EligibleCardCache.getInstance().put(card.getSliceUri(), card);
+
+        final ContextualCard rankedOut = card.mutate().setRankingScore(-1).build();
+
+        assertThat(mContextualCardLoader.filterEligibleCards(List.of(rankedOut))).isEmpty();
+    }
+
+    @Test
+    public void filterEligibleCards_cachedResult_shouldLogEligibility() {
+        final ContextualCard card = getContextualCardList().get(0);
+        EligibleCardCache.getInstance().put(card.getSliceUri(), card);
+
+        mContextualCardLoader.filterEligibleCards(List.of(card));
+
+        verify(mFakeFeatureFactory.metricsFeatureProvider).action(SettingsEnums.PAGE_UNKNOWN,
+                SettingsEnums.ACTION_CONTEXTUAL_CARD_ELIGIBILITY,
+                SettingsEnums.SETTINGS_HOMEPAGE, card.getTextSliceUri(), 1);
+        verify(mFakeFeatureFactory.metricsFeatureProvider, never()).action(anyInt(),
+                eq(SettingsEnums.ACTION_CONTEXTUAL_CARD_LOAD), anyInt(), anyString(), anyInt());
+    }
+
+    @Test
+    public void filterEligibleCards_expiredResult_shouldCheckAgain() {
+        final ContextualCard card = getContextualCardList().get(0);
+        EligibleCardCache.getInstance().put(card.getSliceUri(), card);
+        SystemClock.setCurrentTimeMillis(
+                SystemClock.elapsedRealtime() + EligibleCardCache.TTL_MS + 1);
+        final EligibleCardChecker checker = mock(EligibleCardChecker.class);
+        when(checker.call()).thenReturn(null);
+        doReturn(checker).when(mContextualCardLoader).createEligibleCardChecker(card);
+
+        assertThat(mContextualCardLoader.filterEligibleCards(List.of(card))).isEmpty();
+        verify(checker).call();
+    }
+
+    @Test
+    public void filterEligibleCards_checkInFlight_shouldJoinIt() {
+        final ContextualCard card = getContextualCardList().get(0);
+        final Slice slice = mock(Slice.class);
+        EligibleCardCache.getInstance().putCheckIfAbsent(card.getSliceUri(),
+                CompletableFuture.completedFuture(card.mutate().setSlice(slice).build()));
+        final EligibleCardChecker checker = mock(EligibleCardChecker.class);
+        doReturn(checker).when(mContextualCardLoader).createEligibleCardChecker(card);
+
+        final List<ContextualCard> result =
+                mContextualCardLoader.filterEligibleCards(List.of(card));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getSlice()).isSameInstanceAs(slice);
+        verify(checker, never()).call();
+    }
+
+    @Test
+    public void filterEligibleCards_checkMissesTimeout_shouldCancelIt() {
+        final ContextualCard card = getContextualCardList().get(0);
+        final CompletableFuture<ContextualCard> check = new CompletableFuture<>();
+        EligibleCardCache.getInstance().putCheckIfAbsent(card.getSliceUri(), check);
+
+        assertThat(mContextualCardLoader.filterEligibleCards(List.of(card))).isEmpty();
+        assertThat(check.isCancelled()).isTrue();
+    }
+
     @Test
     public void getCardCount_noConfiguredCardCount_returnDefaultCardCount() {
         assertThat(mContextualCardLoader.getCardCount()).isEqualTo(DEFAULT_CARD_COUNT);
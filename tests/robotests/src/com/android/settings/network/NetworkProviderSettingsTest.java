@@ -420,6 +420,34 @@ public class NetworkProviderSettingsTest {
         verify(mNetworkProviderSettings).changeNextButtonState(anyBoolean());
     }
 
+    @Test
+    public void onWifiEntriesChanged_burstOfCallbacks_shouldPostOneUpdate() {
+        final View fragmentView = mock(View.class);
+        doReturn(fragmentView).when(mNetworkProviderSettings).getView();
+
+        mNetworkProviderSettings.onWifiEntriesChanged(WIFI_ENTRIES_CHANGED_REASON_GENERAL);
+        mNetworkProviderSettings.onWifiEntriesChanged(WIFI_ENTRIES_CHANGED_REASON_GENERAL);
+        mNetworkProviderSettings.onWifiEntriesChanged(WIFI_ENTRIES_CHANGED_REASON_GENERAL);
+
+        verify(fragmentView, times(1))
+                .postOnAnimation(mNetworkProviderSettings.mWifiEntriesChangedRunnable);
+        verify(mNetworkProviderSettings, never()).updateWifiEntryPreferences();
+    }
+
+    @Test
+    public void onWifiEntriesChanged_afterPendingUpdateRan_shouldPostAgain() {
+        final View fragmentView = mock(View.class);
+        doReturn(fragmentView).when(mNetworkProviderSettings).getView();
+
+        mNetworkProviderSettings.onWifiEntriesChanged(WIFI_ENTRIES_CHANGED_REASON_GENERAL);
+        mNetworkProviderSettings.mWifiEntriesChangedRunnable.run();
+        mNetworkProviderSettings.onWifiEntriesChanged(WIFI_ENTRIES_CHANGED_REASON_GENERAL);
+
+        verify(fragmentView, times(2))
+                .postOnAnimation(mNetworkProviderSettings.mWifiEntriesChangedRunnable);
+        verify(mNetworkProviderSettings).updateWifiEntryPreferences();
+    }
+
     @Test
     public void onWifiEntriesChanged_activityIsNull_shouldNotCrash() {
         doReturn(null).when(mNetworkProviderSettings).getActivity();
@@ -768,6 +796,7 @@ public class NetworkProviderSettingsTest {
         verify(fragmentView).removeCallbacks(mNetworkProviderSettings.mRemoveLoadingRunnable);
         verify(fragmentView).removeCallbacks(
                 mNetworkProviderSettings.mUpdateWifiEntryPreferencesRunnable);
+        verify(fragmentView).removeCallbacks(mNetworkProviderSettings.mWifiEntriesChangedRunnable);
         verify(fragmentView).removeCallbacks(mNetworkProviderSettings.mHideProgressBarRunnable);
         verify(mAirplaneModeEnabler).stop();
     }
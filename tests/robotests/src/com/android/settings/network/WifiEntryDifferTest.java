@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.network;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.android.wifitrackerlib.WifiEntry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class WifiEntryDifferTest {
+
+    private static final String KEY = "key";
+    private static final String TITLE = "ssid";
+    private static final String SUMMARY = "Saved";
+
+    private WifiEntryDiffer mWifiEntryDiffer;
+
+    @Before
+    public void setUp() {
+        mWifiEntryDiffer = new WifiEntryDiffer();
+    }
+
+    @Test
+    public void hasDisplayChanged_newKey_returnTrue() {
+        assertThat(mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2))).isTrue();
+    }
+
+    @Test
+    public void hasDisplayChanged_newEntrySameFields_returnFalse() {
+        mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2));
+
+        assertThat(mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2))).isFalse();
+    }
+
+    @Test
+    public void hasDisplayChanged_levelChanged_returnTrue() {
+        mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2));
+
+        assertThat(mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(3))).isTrue();
+    }
+
+    @Test
+    public void retainAll_keyNotListed_shouldForgetIt() {
+        mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2));
+
+        mWifiEntryDiffer.retainAll(List.of("other"));
+
+        assertThat(mWifiEntryDiffer.size()).isEqualTo(0);
+        assertThat(mWifiEntryDiffer.hasDisplayChanged(createWifiEntry(2))).isTrue();
+    }
+
+    private static WifiEntry createWifiEntry(int level) {
+        final WifiEntry wifiEntry = mock(WifiEntry.class);
+        when(wifiEntry.getKey()).thenReturn(KEY);
+        when(wifiEntry.getTitle()).thenReturn(TITLE);
+        when(wifiEntry.getSummary(false /* concise */)).thenReturn(SUMMARY);
+        when(wifiEntry.getLevel()).thenReturn(level);
+        when(wifiEntry.getSecurity()).thenReturn(WifiEntry.SECURITY_PSK);
+        return wifiEntry;
+    }
+}
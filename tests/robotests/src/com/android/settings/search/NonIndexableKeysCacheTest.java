@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.search;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.provider.Settings;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class NonIndexableKeysCacheTest {
+
+    private static final String PROVIDER = "com.android.settings.FakeFragment";
+    private static final String OTHER_PROVIDER = "com.android.settings.OtherFakeFragment";
+    private static final String ACTION = "com.android.settings.FAKE_ACTION";
+    private static final Uri SETTING_URI =
+            Settings.Global.getUriFor(Settings.Global.DEVELOPMENT_SETTINGS_ENABLED);
+    private static final NonIndexableKeysTriggers TRIGGERS = new NonIndexableKeysTriggers.Builder()
+            .addSettingUri(SETTING_URI)
+            .build();
+    private static final Runnable NO_RELOAD = () -> {};
+
+    private Context mContext;
+    private NonIndexableKeysCache mCache;
+
+    @Before
+    public void setUp() {
+        NonIndexableKeysCache.reset();
+        mContext = RuntimeEnvironment.getApplication();
+        mCache = new NonIndexableKeysCache(mContext);
+    }
+
+    @After
+    public void tearDown() {
+        NonIndexableKeysCache.reset();
+    }
+
+    @Test
+    public void get_notLoaded_returnNull() {
+        assertThat(mCache.get(PROVIDER)).isNull();
+    }
+
+    @Test
+    public void get_afterPut_returnKeys() {
+        mCache.put(PROVIDER, List.of("key1", "key2"), TRIGGERS, mCache.getGeneration(), 5,
+                NO_RELOAD);
+
+        assertThat(mCache.get(PROVIDER)).containsExactly("key1", "key2");
+    }
+
+    @Test
+    public void get_providerWithoutTriggers_returnNull() {
+        mCache.put(PROVIDER, List.of("key1"), null /* triggers */, mCache.getGeneration(), 5,
+                NO_RELOAD);
+
+        assertThat(mCache.get(PROVIDER)).isNull();
+    }
+
+    @Test
+    public void get_afterInvalidateAll_returnNull() {
+        mCache.put(PROVIDER, List.of("key1"), TRIGGERS, mCache.getGeneration(), 5, NO_RELOAD);
+
+        mCache.invalidateAll("test");
+
+        assertThat(mCache.get(PROVIDER)).isNull();
+    }
+
+    @Test
+    public void put_invalidatedDuringLoad_shouldNotCache() {
+        final int generation = mCache.getGeneration();
+        mCache.invalidateAll("test");
+
+        mCache.put(PROVIDER, List.of("key1"), TRIGGERS, generation, 5, NO_RELOAD);
+
+        assertThat(mCache.get(PROVIDER)).isNull();
+    }
+
+    @Test
+    public void settingTrigger_shouldOnlyInvalidateAndReloadItsProvider() {
+        final AtomicInteger reloads = new AtomicInteger();
+        mCache.put(PROVIDER, List.of("key1"), TRIGGERS, mCache.getGeneration(), 5,
+                reloads::incrementAndGet);
+        mCache.put(OTHER_PROVIDER, List.of("key2"), new NonIndexableKeysTriggers.Builder()
+                .addBroadcastAction(ACTION).build(), mCache.getGeneration(), 5, NO_RELOAD);
+
+        Settings.Global.putInt(mContext.getContentResolver(),
+                Settings.Global.DEVELOPMENT_SETTINGS_ENABLED, 1);
+        shadowOf(mContext.getMainLooper()).idle();
+
+        assertThat(mCache.get(PROVIDER)).isNull();
+        assertThat(mCache.get(OTHER_PROVIDER)).containsExactly("key2");
+        assertThat(reloads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void broadcastTrigger_shouldInvalidateItsProvider() {
+        mCache.put(PROVIDER, List.of("key1"), new NonIndexableKeysTriggers.Builder()
+                .addBroadcastAction(ACTION).build(), mCache.getGeneration(), 5, NO_RELOAD);
+
+        mContext.sendBroadcast(new Intent(ACTION));
+        shadowOf(mContext.getMainLooper()).idle();
+
+        assertThat(mCache.get(PROVIDER)).isNull();
+    }
+
+    @Test
+    public void put_sameTriggerTwice_shouldObserveOnce() {
+        final ShadowContentResolver resolver = shadowOf(mContext.getContentResolver());
+
+        mCache.put(PROVIDER, List.of("key1"), TRIGGERS, mCache.getGeneration(), 5, NO_RELOAD);
+        mCache.put(OTHER_PROVIDER, List.of("key2"), TRIGGERS, mCache.getGeneration(), 5,
+                NO_RELOAD);
+
+        assertThat(resolver.getContentObservers(SETTING_URI)).hasSize(1);
+    }
+
+    @Test
+    public void dump_shouldPrintProviderLoadTime() {
+        mCache.put(PROVIDER, List.of("key1"), TRIGGERS, mCache.getGeneration(), 42, NO_RELOAD);
+        mCache.put(OTHER_PROVIDER, List.of("key2"), null /* triggers */, mCache.getGeneration(),
+                7, NO_RELOAD);
+        final StringWriter stringWriter = new StringWriter();
+
+        mCache.dump(new PrintWriter(stringWriter));
+
+        assertThat(stringWriter.toString()).contains(PROVIDER + ": 42ms");
+        assertThat(stringWriter.toString()).contains(OTHER_PROVIDER + ": 7ms (not cached)");
+    }
+
+    @Test
+    public void getInstance_shouldNotObserveWholeSettingsTables() {
+        final ShadowContentResolver resolver = shadowOf(mContext.getContentResolver());
+
+        NonIndexableKeysCache.getInstance(mContext);
+
+        assertThat(resolver.getContentObservers(Settings.Global.CONTENT_URI)).isEmpty();
+        assertThat(resolver.getContentObservers(Settings.Secure.CONTENT_URI)).isEmpty();
+    }
+}
@@ -89,6 +89,7 @@ public class SettingsSearchIndexablesProviderTest {
     @After
     public void cleanUp() {
         ShadowCategoryManager.reset();
+        NonIndexableKeysCache.reset();
         mFakeFeatureFactory.searchFeatureProvider = mock(SearchFeatureProvider.class);
     }
 
@@ -164,6 +164,32 @@ public class SlicesDatabaseAccessorTest {
         assertThat(data.getHighlightMenuRes()).isEqualTo(SliceTestUtils.FAKE_HIGHLIGHT_MENU_RES);
     }
 
+    @Test
+    public void getSliceDataFromUri_warmData_returnsWarmDataWithUri() {
+        final String key = "key";
+        SlicesDatabaseHelper.getInstance(mContext).putWarmSliceData(List.of(
+                new SliceData.Builder()
+                        .setKey(key)
+                        .setTitle(SliceTestUtils.FAKE_TITLE)
+                        .setFragmentName(SliceTestUtils.FAKE_FRAGMENT_NAME)
+                        .setPreferenceControllerClassName(SliceTestUtils.FAKE_CONTROLLER_NAME)
+                        .setSliceType(SliceData.SliceType.SWITCH)
+                        .build()));
+        final Uri uri = new Uri.Builder()
+                .scheme(ContentResolver.SCHEME_CONTENT)
+                .authority(SettingsSliceProvider.SLICE_AUTHORITY)
+                .appendPath(SettingsSlicesContract.PATH_SETTING_INTENT)
+                .appendPath(key)
+                .build();
+
+        final SliceData data = mAccessor.getSliceDataFromUri(uri);
+
+        assertThat(data.getKey()).isEqualTo(key);
+        assertThat(data.getTitle()).isEqualTo(SliceTestUtils.FAKE_TITLE);
+        assertThat(data.getUri()).isEqualTo(uri);
+        assertThat(data.getSliceType()).isEqualTo(SliceData.SliceType.INTENT);
+    }
+
     @Test(expected = IllegalStateException.class)
     @Ignore
     public void testGetSliceFromUri_invalidUri_errorThrown() {
@@ -40,6 +40,7 @@ import org.robolectric.RuntimeEnvironment;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RunWith(RobolectricTestRunner.class)
 public class SlicesIndexerTest {
@@ -205,6 +206,66 @@ public class SlicesIndexerTest {
         }
     }
 
+    @Test
+    public void computeFingerprint_sameData_sameFingerprint() {
+        assertThat(SlicesIndexer.computeFingerprint(getMockIndexableData(false)))
+                .isEqualTo(SlicesIndexer.computeFingerprint(getMockIndexableData(false)));
+    }
+
+    @Test
+    public void computeFingerprint_publicSliceChanged_differentFingerprint() {
+        assertThat(SlicesIndexer.computeFingerprint(getMockIndexableData(false)))
+                .isNotEqualTo(SlicesIndexer.computeFingerprint(getMockIndexableData(true)));
+    }
+
+    @Test
+    public void groupByFragment_twoFragments_groupsRowsByFragment() {
+        final List<SliceData> sliceData = getMockIndexableData(false);
+        sliceData.add(new SliceData.Builder()
+                .setKey("otherKey")
+                .setTitle("otherTitle")
+                .setFragmentName("other fragment")
+                .setPreferenceControllerClassName(PREF_CONTROLLER)
+                .build());
+
+        final Map<String, List<SliceData>> dataByFragment =
+                SlicesIndexer.groupByFragment(sliceData);
+
+        assertThat(dataByFragment.get(FRAGMENT_NAME)).hasSize(KEYS.length);
+        assertThat(dataByFragment.get("other fragment")).hasSize(1);
+    }
+
+    @Test
+    public void updateSliceData_unchangedData_rewritesNothing() {
+        final List<SliceData> sliceData = getMockIndexableData(false);
+        final SQLiteDatabase db = SlicesDatabaseHelper.getInstance(mContext).getWritableDatabase();
+
+        assertThat(mManager.updateSliceData(db, sliceData)).isEqualTo(1);
+        assertThat(mManager.updateSliceData(db, sliceData)).isEqualTo(0);
+    }
+
+    @Test
+    public void updateSliceData_fragmentRemoved_dropsItsRows() {
+        final SQLiteDatabase db = SlicesDatabaseHelper.getInstance(mContext).getWritableDatabase();
+        mManager.updateSliceData(db, getMockIndexableData(false));
+
+        assertThat(mManager.updateSliceData(db, new ArrayList<>())).isEqualTo(1);
+        try (Cursor cursor = db.rawQuery("SELECT * FROM slices_index", null)) {
+            assertThat(cursor.getCount()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void indexSliceData_shouldKeepIndexedDataWarm() {
+        final List<SliceData> sliceData = getMockIndexableData(false);
+        doReturn(sliceData).when(mManager).getSliceData();
+
+        mManager.run();
+
+        assertThat(SlicesDatabaseHelper.getInstance(mContext).getWarmSliceData(KEYS[0]))
+                .isEqualTo(sliceData.get(0));
+    }
+
     private void insertSpecialCase(String key, String title) {
         final ContentValues values = new ContentValues();
         values.put(IndexColumns.KEY, key);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.users;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.UserManager;
+
+import com.android.settings.testutils.shadow.ShadowThreadUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowThreadUtils.class)
+public class UserIconCacheTest {
+
+    private static final int USER_ID = 10;
+    private static final int ICON_SIZE = 40;
+
+    @Mock
+    private UserManager mUserManager;
+    private Context mContext;
+    private UserIconCache mCache;
+    private AtomicInteger mLoadedCount;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        mContext = RuntimeEnvironment.application;
+        mCache = new UserIconCache(UserIconCache.MAX_ICON_BYTES);
+        mLoadedCount = new AtomicInteger();
+    }
+
+    @Test
+    public void load_shouldCacheDownsampledIcon() {
+        when(mUserManager.getUserIcon(USER_ID))
+                .thenReturn(Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888));
+
+        mCache.load(mUserManager, mContext.getResources(), USER_ID, ICON_SIZE,
+                mLoadedCount::incrementAndGet);
+
+        final Bitmap icon = mCache.get(USER_ID);
+        assertThat(icon.getWidth()).isEqualTo(80);
+        assertThat(icon.getHeight()).isEqualTo(ICON_SIZE);
+        assertThat(mLoadedCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void load_noUserIcon_shouldCacheDownsampledDefaultIcon() {
+        mCache.load(mUserManager, mContext.getResources(), USER_ID, ICON_SIZE,
+                mLoadedCount::incrementAndGet);
+
+        final Bitmap icon = mCache.get(USER_ID);
+        assertThat(Math.min(icon.getWidth(), icon.getHeight())).isAtMost(ICON_SIZE);
+    }
+
+    @Test
+    public void load_noUserIconAndSmallCache_shouldStillCacheDefaultIcon() {
+        // Room for one icon at the displayed size, but not for the full size default icon.
+        mCache = new UserIconCache(ICON_SIZE * ICON_SIZE * 4);
+
+        mCache.load(mUserManager, mContext.getResources(), USER_ID, ICON_SIZE,
+                mLoadedCount::incrementAndGet);
+
+        assertThat(mCache.get(USER_ID)).isNotNull();
+    }
+
+    @Test
+    public void invalidate_shouldDropIcon() {
+        mCache.put(USER_ID, Bitmap.createBitmap(ICON_SIZE, ICON_SIZE, Bitmap.Config.ARGB_8888));
+
+        mCache.invalidate(USER_ID);
+
+        assertThat(mCache.get(USER_ID)).isNull();
+    }
+
+    @Test
+    public void scaleToSize_smallIcon_shouldKeepIcon() {
+        final Bitmap icon = Bitmap.createBitmap(ICON_SIZE, ICON_SIZE, Bitmap.Config.ARGB_8888);
+
+        assertThat(UserIconCache.scaleToSize(icon, ICON_SIZE)).isSameInstanceAs(icon);
+    }
+}
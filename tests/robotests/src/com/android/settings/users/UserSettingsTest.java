@@ -200,6 +200,7 @@ public class UserSettingsTest {
         doReturn(mock(PreferenceScreen.class)).when(mFragment).getPreferenceScreen();
         doReturn(ACTIVE_USER_ID).when(mContext).getUserId();
 
+        mFragment.mUserIconCache = new UserIconCache(UserIconCache.MAX_ICON_BYTES);
         mFragment.mMePreference = mMePreference;
         mFragment.mAddUser = mAddUserPreference;
         mFragment.mAddSupervisedUser = mAddSupervisedUserPreference;
@@ -857,7 +858,7 @@ public class UserSettingsTest {
         UserInfo currentUser = getAdminUser(true);
         currentUser.iconPath = "/data/system/users/0/photo.png";
         givenUsers(currentUser);
-        mFragment.mUserIcons.put(ACTIVE_USER_ID,
+        mFragment.mUserIconCache.put(ACTIVE_USER_ID,
                 Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888));
 
         mFragment.updateUserList();
@@ -873,8 +874,8 @@ public class UserSettingsTest {
         UserInfo currentUser = getAdminUser(true);
         currentUser.iconPath = "/data/system/users/0/photo.png";
         givenUsers(currentUser);
-        // create a non-empty sparsearray
-        mFragment.mUserIcons.put(5, Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888));
+        // cache the icon of another user
+        mFragment.mUserIconCache.put(5, Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888));
         Bitmap userIcon = Bitmap.createBitmap(100, 200, Bitmap.Config.ARGB_8888);
         doReturn(userIcon).when(mUserManager).getUserIcon(ACTIVE_USER_ID);
 
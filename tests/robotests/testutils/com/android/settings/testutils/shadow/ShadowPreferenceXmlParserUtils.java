@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.testutils.shadow;
+
+import com.android.settings.core.PreferenceXmlParserUtils;
+
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.Resetter;
+
+/**
+ * Drops the process-wide metadata index after every test, so xml parsed with one test's
+ * resources isn't served to the next test class.
+ */
+@Implements(PreferenceXmlParserUtils.class)
+public class ShadowPreferenceXmlParserUtils {
+
+    @Resetter
+    public static void reset() {
+        PreferenceXmlParserUtils.clearMetadataIndex();
+    }
+}
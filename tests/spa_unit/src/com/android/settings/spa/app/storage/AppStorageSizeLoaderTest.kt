@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.settings.spa.app.storage
+
+import android.content.pm.ApplicationInfo
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import java.util.concurrent.atomic.AtomicInteger
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(AndroidJUnit4::class)
+class AppStorageSizeLoaderTest {
+    private val calculateCount = AtomicInteger()
+
+    private val loader = AppStorageSizeLoader { app ->
+        calculateCount.incrementAndGet()
+        if (app === UNKNOWN_APP) null else SIZE
+    }
+
+    @Test
+    fun loadRecords_emitsListBeforeSizes() = runTest {
+        val recordLists = loader.loadRecords(listOf(APP)).toList()
+
+        assertThat(recordLists).hasSize(2)
+        assertThat(recordLists.first().single().size).isNull()
+        assertThat(recordLists.first().single().isSizeLoaded).isFalse()
+        assertThat(recordLists.last().single().app).isSameInstanceAs(APP)
+        assertThat(recordLists.last().single().size).isEqualTo(SIZE)
+        assertThat(recordLists.last().single().isSizeLoaded).isTrue()
+    }
+
+    @Test
+    fun loadRecords_loadedBefore_calculatesOnce() = runTest {
+        loader.loadRecords(listOf(APP)).toList()
+
+        val recordLists = loader.loadRecords(listOf(APP)).toList()
+
+        assertThat(calculateCount.get()).isEqualTo(1)
+        assertThat(recordLists).hasSize(1)
+        assertThat(recordLists.single().single().size).isEqualTo(SIZE)
+    }
+
+    @Test
+    fun loadRecords_packageUpdated_calculatesAgain() = runTest {
+        loader.loadRecords(listOf(APP)).toList()
+        val updatedApp = ApplicationInfo(APP).apply { sourceDir = "/data/app/updated" }
+
+        loader.loadRecords(listOf(updatedApp)).toList()
+
+        assertThat(calculateCount.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun loadRecords_sizeUnknown_recordsNullSizeButLoaded() = runTest {
+        val record = loader.loadRecords(listOf(UNKNOWN_APP)).toList().last().single()
+
+        assertThat(record.isSizeLoaded).isTrue()
+        assertThat(record.size).isNull()
+    }
+
+    private companion object {
+        const val SIZE = 100L
+        val APP = ApplicationInfo().apply {
+            packageName = "app.package.name"
+            uid = 10001
+            sourceDir = "/data/app/installed"
+        }
+        val UNKNOWN_APP = ApplicationInfo().apply {
+            packageName = "unknown.package.name"
+            uid = 10002
+        }
+    }
+}
@@ -50,7 +50,8 @@ class StorageAppListTest {
         val recordList = recordListFlow.firstWithTimeoutOrNull()!!
         assertThat(recordList).hasSize(1)
         assertThat(recordList.first().app).isSameInstanceAs(APP)
-        assertThat(recordList.first().size).isEqualTo(0L)
+        assertThat(recordList.first().size).isNull()
+        assertThat(recordList.first().isSizeLoaded).isFalse()
     }
 
     @Test
@@ -45,6 +45,8 @@ import org.mockito.junit.MockitoJUnit
 import org.mockito.junit.MockitoRule
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -68,6 +70,7 @@ class AppNotificationRepositoryTest {
 
     @Before
     fun setUp() {
+        NotificationSentStateCache.clear()
         repository = AppNotificationRepository(
             context,
             packageManagers,
@@ -151,6 +154,38 @@ class AppNotificationRepositoryTest {
         )
     }
 
+    @Test
+    fun getAggregatedUsageEvents_calledTwice_queriesOnce() = runTest {
+        whenever(usageStatsManager.queryEventsForUser(any(), any(), eq(USER_ID), any()))
+            .thenReturn(UsageEvents(listOf(), arrayOf()))
+
+        repository.getAggregatedUsageEvents(flowOf(USER_ID)).first()
+        repository.getAggregatedUsageEvents(flowOf(USER_ID)).first()
+
+        verify(usageStatsManager, times(1)).queryEventsForUser(any(), any(), eq(USER_ID), any())
+    }
+
+    @Test
+    fun getNotificationSummary_afterAggregatedUsageEvents_usesAggregatedSentCount() = runTest {
+        val events = (1..2).map {
+            UsageEvents.Event().apply {
+                mEventType = UsageEvents.Event.NOTIFICATION_INTERRUPTION
+                mPackage = PACKAGE_NAME
+            }
+        }
+        whenever(usageStatsManager.queryEventsForUser(any(), any(), eq(USER_ID), any()))
+            .thenReturn(UsageEvents(events, arrayOf()))
+        mockIsEnabled(app = APP, enabled = true)
+        mockChannelCount(app = APP, count = 0)
+        repository.getAggregatedUsageEvents(flowOf(USER_ID)).first()
+
+        val summary = repository.getNotificationSummary(APP)
+
+        assertThat(summary).isEqualTo("About 2 notifications per week")
+        verify(usageStatsManager, never())
+            .queryEventsForPackageForUser(any(), any(), any(), any(), any())
+    }
+
     @Test
     fun isEnabled() {
         mockIsEnabled(app = APP, enabled = true)
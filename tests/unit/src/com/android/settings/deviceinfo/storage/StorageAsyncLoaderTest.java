@@ -18,6 +18,7 @@ package com.android.settings.deviceinfo.storage;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -43,6 +44,7 @@ import androidx.test.filters.SmallTest;
 import androidx.test.runner.AndroidJUnit4;
 
 import com.android.settings.R;
+import com.android.settings.applications.InstalledAppsSnapshot;
 import com.android.settingslib.applications.StorageStatsSource;
 
 import org.junit.Before;
@@ -82,6 +84,7 @@ public class StorageAsyncLoaderTest {
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
         mContext = spy(ApplicationProvider.getApplicationContext());
+        InstalledAppsSnapshot.reset();
         mInfo = new ArrayList<>();
         mLoader = new StorageAsyncLoader(mContext, mUserManager, "id", mSource, mPackageManager);
         when(mPackageManager.getInstalledApplicationsAsUser(eq(PRIMARY_USER_ID), anyInt()))
@@ -210,6 +213,24 @@ public class StorageAsyncLoaderTest {
         assertThat(result.get(PRIMARY_USER_ID).allAppsExceptGamesSize).isEqualTo(33L);
     }
 
+    @Test
+    public void testGroupedMediaQueryMatchesPerCategoryQueries() {
+        final StorageAsyncLoader.StorageResult grouped = new StorageAsyncLoader.StorageResult();
+        // Otherwise the per category queries are used instead, and there is nothing to compare.
+        assumeTrue(StorageAsyncLoader.loadGroupedMediaSizes(
+                mContext.getContentResolver(), grouped));
+        final StorageAsyncLoader.StorageResult perCategory =
+                new StorageAsyncLoader.StorageResult();
+        StorageAsyncLoader.loadMediaSizesPerCategory(mContext.getContentResolver(), perCategory);
+
+        assertThat(grouped.imagesSize).isEqualTo(perCategory.imagesSize);
+        assertThat(grouped.videosSize).isEqualTo(perCategory.videosSize);
+        assertThat(grouped.audioSize).isEqualTo(perCategory.audioSize);
+        assertThat(grouped.documentsSize).isEqualTo(perCategory.documentsSize);
+        assertThat(grouped.otherSize).isEqualTo(perCategory.otherSize);
+        assertThat(grouped.trashSize).isEqualTo(perCategory.trashSize);
+    }
+
     private ApplicationInfo addPackage(String packageName, long cacheSize, long codeSize,
             long dataSize, int category) throws Exception {
         StorageStatsSource.AppStorageStats storageStats =
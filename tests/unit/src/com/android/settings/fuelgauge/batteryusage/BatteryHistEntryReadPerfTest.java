@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares reading a week of hourly battery history stored as Base64 strings against the same
+ * history stored as BLOBs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatteryHistEntryReadPerfTest {
+
+    private static final String TAG = "BatteryHistReadPerfTest";
+    private static final int ROUNDS = 5;
+    private static final int HOURS = 7 * 24;
+    private static final int ENTRIES_PER_HOUR = 100;
+    private static final String[] COLUMNS = {
+            BatteryHistEntry.KEY_UID,
+            BatteryHistEntry.KEY_USER_ID,
+            BatteryHistEntry.KEY_PACKAGE_NAME,
+            BatteryHistEntry.KEY_TIMESTAMP,
+            BatteryHistEntry.KEY_CONSUMER_TYPE,
+            BatteryHistEntry.KEY_BATTERY_INFORMATION,
+    };
+
+    @Test
+    public void compareBase64AndBlobReads() {
+        long base64Nanos = 0;
+        long blobNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            final Cursor base64Cursor = createCursor(/* asBlob= */ false);
+            long start = SystemClock.elapsedRealtimeNanos();
+            readAll(base64Cursor);
+            base64Nanos += SystemClock.elapsedRealtimeNanos() - start;
+
+            final Cursor blobCursor = createCursor(/* asBlob= */ true);
+            start = SystemClock.elapsedRealtimeNanos();
+            readAll(blobCursor);
+            blobNanos += SystemClock.elapsedRealtimeNanos() - start;
+        }
+
+        final Bundle results = new Bundle();
+        results.putString("BatteryHistEntry_base64_avg_us",
+                String.valueOf(base64Nanos / ROUNDS / 1000));
+        results.putString("BatteryHistEntry_blob_avg_us",
+                String.valueOf(blobNanos / ROUNDS / 1000));
+        Log.i(TAG, results.toString());
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    private static void readAll(Cursor cursor) {
+        double totalPower = 0;
+        try (cursor) {
+            while (cursor.moveToNext()) {
+                totalPower += new BatteryHistEntry(cursor).mConsumePower;
+            }
+        }
+        assertThat(totalPower).isGreaterThan(0);
+    }
+
+    private static Cursor createCursor(boolean asBlob) {
+        final MatrixCursor cursor = new MatrixCursor(COLUMNS, HOURS * ENTRIES_PER_HOUR);
+        for (int hour = 0; hour < HOURS; hour++) {
+            for (int uid = 0; uid < ENTRIES_PER_HOUR; uid++) {
+                final byte[] batteryInformation = createBatteryInformation(uid).toByteArray();
+                cursor.addRow(new Object[] {
+                        10000L + uid,
+                        0L,
+                        "com.example.app" + uid,
+                        hour * 3600000L,
+                        ConvertUtils.CONSUMER_TYPE_UID_BATTERY,
+                        asBlob
+                                ? batteryInformation
+                                : Base64.encodeToString(batteryInformation, Base64.DEFAULT),
+                });
+            }
+        }
+        return cursor;
+    }
+
+    private static BatteryInformation createBatteryInformation(int uid) {
+        return BatteryInformation.newBuilder()
+                .setDeviceBatteryState(DeviceBatteryState.newBuilder().setBatteryLevel(50).build())
+                .setAppLabel("App " + uid)
+                .setBootTimestamp(1000L)
+                .setZoneId("UTC")
+                .setTotalPower(1000)
+                .setConsumePower(uid + 1)
+                .setForegroundUsageConsumePower(1)
+                .setBackgroundUsageConsumePower(1)
+                .setPercentOfTotal(1)
+                .setForegroundUsageTimeInMs(60000L)
+                .setBackgroundUsageTimeInMs(30000L)
+                .build();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.android.settings.fuelgauge.batteryusage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.text.format.DateUtils;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures time and GC activity of the hourly battery usage pipeline in {@link DataProcessor}
+ * over a week of synthetic history.
+ * <p/>
+ * This lives in SettingsUnitTests rather than SettingsPerfTests because SettingsPerfTests
+ * instruments its own package, so Settings classes are not loaded in its process.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DataProcessorPerfTest {
+
+    private static final String TAG = "DataProcessorPerfTest";
+    private static final int ROUNDS = 5;
+    private static final int HOURS = 7 * 24;
+    private static final int UIDS = 200;
+    // Samples are taken a few minutes after each hour, so every slot is interpolated.
+    private static final long SAMPLE_OFFSET = 7 * DateUtils.MINUTE_IN_MILLIS;
+
+    private Context mContext;
+    private Map<Long, Map<String, BatteryHistEntry>> mBatteryHistoryMap;
+    private long mStartTimestamp;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        final long now = System.currentTimeMillis();
+        mStartTimestamp = now - now % DateUtils.HOUR_IN_MILLIS - HOURS * DateUtils.HOUR_IN_MILLIS;
+        mBatteryHistoryMap = createBatteryHistoryMap(mStartTimestamp);
+        DataProcessor.sTestCurrentTimeMillis =
+                mStartTimestamp + HOURS * DateUtils.HOUR_IN_MILLIS + SAMPLE_OFFSET;
+    }
+
+    @After
+    public void tearDown() {
+        DataProcessor.sTestCurrentTimeMillis = 0;
+    }
+
+    @Test
+    public void measureHourlyPipeline() {
+        final UserIdsSeries userIdsSeries = new UserIdsSeries(mContext, /* isNonUIRequest= */ true);
+        long interpolateNanos = 0;
+        long diffNanos = 0;
+        final long gcCountBefore = getGcStat("art.gc.gc-count");
+        final long gcTimeBefore = getGcStat("art.gc.gc-time");
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            final Map<Long, Map<String, BatteryHistEntry>> processedBatteryHistoryMap =
+                    DataProcessor.getHistoryMapWithExpectedTimestamps(
+                            mContext, mBatteryHistoryMap);
+            interpolateNanos += SystemClock.elapsedRealtimeNanos() - start;
+
+            final BatteryLevelData batteryLevelData =
+                    DataProcessor.getLevelDataThroughProcessedHistoryMap(
+                            mContext, processedBatteryHistoryMap);
+            start = SystemClock.elapsedRealtimeNanos();
+            final Map<Long, BatteryDiffData> batteryDiffDataMap =
+                    DataProcessor.getBatteryDiffDataMap(
+                            mContext,
+                            userIdsSeries,
+                            batteryLevelData.getHourlyBatteryLevelsPerDay(),
+                            processedBatteryHistoryMap,
+                            /* appUsagePeriodMap= */ null,
+                            Set.of(),
+                            Set.of());
+            diffNanos += SystemClock.elapsedRealtimeNanos() - start;
+            assertThat(batteryDiffDataMap).isNotEmpty();
+        }
+
+        final Bundle results = new Bundle();
+        results.putString("DataProcessor_interpolate_avg_us",
+                String.valueOf(interpolateNanos / ROUNDS / 1000));
+        results.putString("DataProcessor_diff_avg_us", String.valueOf(diffNanos / ROUNDS / 1000));
+        results.putString("DataProcessor_gc_count",
+                String.valueOf(getGcStat("art.gc.gc-count") - gcCountBefore));
+        results.putString("DataProcessor_gc_time_ms",
+                String.valueOf(getGcStat("art.gc.gc-time") - gcTimeBefore));
+        Log.i(TAG, results.toString());
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    @Test
+    public void compareNearestTimestampSearch() {
+        final List<Long> timestampList = new ArrayList<>(mBatteryHistoryMap.keySet());
+        final long[] timestamps = new long[timestampList.size()];
+        timestampList.sort(null);
+        for (int index = 0; index < timestamps.length; index++) {
+            timestamps[index] = timestampList.get(index);
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int hour = 0; hour < HOURS; hour++) {
+            DataProcessor.findNearestTimestamp(
+                    timestampList, mStartTimestamp + hour * DateUtils.HOUR_IN_MILLIS);
+        }
+        final long listNanos = SystemClock.elapsedRealtimeNanos() - start;
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int hour = 0; hour < HOURS; hour++) {
+            DataProcessor.findNearestTimestamp(
+                    timestamps, mStartTimestamp + hour * DateUtils.HOUR_IN_MILLIS);
+        }
+        final long arrayNanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        final Bundle results = new Bundle();
+        results.putString("DataProcessor_nearest_list_us", String.valueOf(listNanos / 1000));
+        results.putString("DataProcessor_nearest_array_us", String.valueOf(arrayNanos / 1000));
+        Log.i(TAG, results.toString());
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    private static long getGcStat(String name) {
+        final String value = Debug.getRuntimeStat(name);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private static Map<Long, Map<String, BatteryHistEntry>> createBatteryHistoryMap(
+            long startTimestamp) {
+        final Map<Long, Map<String, BatteryHistEntry>> batteryHistoryMap = new ArrayMap<>();
+        // The device boots an hour before the first sample.
+        final long bootTime = startTimestamp - DateUtils.HOUR_IN_MILLIS;
+        for (int hour = 0; hour <= HOURS; hour++) {
+            final long timestamp = startTimestamp + hour * DateUtils.HOUR_IN_MILLIS
+                    + SAMPLE_OFFSET;
+            final Map<String, BatteryHistEntry> entryMap = new ArrayMap<>(UIDS);
+            for (int uid = 0; uid < UIDS; uid++) {
+                final BatteryHistEntry entry =
+                        createBatteryHistEntry(10000 + uid, hour, timestamp, bootTime);
+                entryMap.put(entry.getKey(), entry);
+            }
+            batteryHistoryMap.put(timestamp, entryMap);
+        }
+        return batteryHistoryMap;
+    }
+
+    private static BatteryHistEntry createBatteryHistEntry(
+            int uid, int hour, long timestamp, long bootTime) {
+        final BatteryInformation batteryInformation =
+                BatteryInformation.newBuilder()
+                        .setDeviceBatteryState(
+                                DeviceBatteryState.newBuilder()
+                                        .setBatteryLevel(100 - hour * 100 / (HOURS + 1))
+                                        .build())
+                        .setBootTimestamp(timestamp - bootTime)
+                        .setConsumePower(hour * 0.5)
+                        .setForegroundUsageConsumePower(hour * 0.3)
+                        .setBackgroundUsageConsumePower(hour * 0.2)
+                        .setForegroundUsageTimeInMs(hour * 1000L)
+                        .setBackgroundUsageTimeInMs(hour * 500L)
+                        .build();
+        final ContentValues values = new ContentValues();
+        values.put(BatteryHistEntry.KEY_UID, (long) uid);
+        values.put(BatteryHistEntry.KEY_USER_ID, 0L);
+        values.put(BatteryHistEntry.KEY_PACKAGE_NAME, "com.example.app" + uid);
+        values.put(BatteryHistEntry.KEY_TIMESTAMP, timestamp);
+        values.put(BatteryHistEntry.KEY_CONSUMER_TYPE, ConvertUtils.CONSUMER_TYPE_UID_BATTERY);
+        values.put(BatteryHistEntry.KEY_BATTERY_INFORMATION, batteryInformation.toByteArray());
+        return new BatteryHistEntry(values);
+    }
+}